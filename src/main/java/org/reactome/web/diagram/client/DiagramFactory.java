@@ -28,6 +28,38 @@ public abstract class DiagramFactory {
     //This variable is meant to set up by DiagramJs or other resources using the GWT widget
     public static int SCROLL_SENSITIVITY = 0;
 
+    //When set, the static layers are rendered once per zoom level in tiles that are reused while panning
+    public static boolean TILED_RENDERING = false;
+    public static int TILES_MEMORY_BUDGET = 0; // in MB (0 means twice the tiles covering the viewport)
+
+    //Time (in ms) the diagram rendering can take per frame before continuing in the next one (0 means no limit)
+    public static int RENDERING_FRAME_BUDGET = 0;
+
+    //When set, the shapes of the nodes are built once per zoom level and drawn by transforming the layer contexts
+    public static boolean MODEL_SPACE_RENDERING = false;
+
+    //In the far zoom views, nodes smaller than this are merged in clusters and sub-pixel connectors are culled (0 means disabled)
+    public static int LOD_MIN_SIZE = 0; // in px
+
+    //When set, the static layers are painted in a Web Worker using OffscreenCanvas (if not supported, in the UI thread).
+    //The recording still takes place in the UI thread, so compare it with the UI thread path (see DiagramRenderedEvent)
+    public static boolean OFFSCREEN_RENDERING = false;
+
+    //While playing the expression columns, the following ones are pre-rendered within this budget (0 means no pre-rendering)
+    public static int EXPRESSION_FRAMES_BUDGET = 0; // in MB
+
+    //When set, the layout and graph files are decoded straight into plain objects instead of AutoBean proxies
+    public static boolean DIRECT_JSON_DECODING = false;
+    //When set along with DIRECT_JSON_DECODING, the layout and graph files are retrieved and parsed in a Web Worker
+    public static boolean WORKER_JSON_DECODING = false;
+
+    //Layout, graph and SVG files are kept in the browser (IndexedDB) for the current release (0 means no cache)
+    public static int PERSISTENT_CACHE_SIZE = 0; // in MB
+
+    //Diagrams of the pathways referenced from the displayed one are loaded in advance once it is idle (0 in any of them means no prefetching)
+    public static int PREFETCH_CONCURRENCY = 0;
+    public static int PREFETCH_BUDGET = 0; // in MB
+
     //Added for testing
     public static DiagramViewer createDiagramViewer() {
         return new DiagramViewerImpl();
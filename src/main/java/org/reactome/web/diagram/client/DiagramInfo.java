@@ -59,7 +59,9 @@ public class DiagramInfo extends AbsolutePanel implements DiagramRenderedHandler
 
     @Override
     public void onDiagramRendered(DiagramRenderedEvent event) {
-        this.renderTime.setText((int) event.getTime() + " ms");
+        String overlay = event.getOverlayRegions() > 0 ? " (overlay " + (int) event.getOverlayTime() + " ms)" : "";
+        String backend = event.isOffscreen() ? " [worker]" : "";
+        this.renderTime.setText((int) event.getTime() + " ms" + overlay + backend);
         this.items.setText(event.getItems() + "");
     }
 
@@ -80,7 +82,7 @@ public class DiagramInfo extends AbsolutePanel implements DiagramRenderedHandler
 
     @Override
     public void onGraphLoaded(GraphLoadedEvent event) {
-        this.graphTime.setText((int) event.getTime() + " ms");
+        this.graphTime.setText((int) event.getTime() + " ms (" + event.getOverlap() + " ms overlapped)");
     }
 
     private Widget getInfoPanel(String title, Widget holder) {
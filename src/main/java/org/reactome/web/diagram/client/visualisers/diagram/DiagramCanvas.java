@@ -2,6 +2,7 @@ package org.reactome.web.diagram.client.visualisers.diagram;
 
 import com.google.gwt.canvas.client.Canvas;
 import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.dom.client.Style;
 import com.google.gwt.event.dom.client.ContextMenuEvent;
 import com.google.gwt.event.dom.client.ContextMenuHandler;
@@ -17,10 +18,15 @@ import org.reactome.web.diagram.data.DiagramStatus;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.interactors.model.DiagramInteractor;
 import org.reactome.web.diagram.data.interactors.model.InteractorEntity;
+import org.reactome.web.diagram.client.DiagramFactory;
 import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
 import org.reactome.web.diagram.events.ExpressionColumnChangedEvent;
+import org.reactome.web.diagram.events.ExpressionFrameRateEvent;
+import org.reactome.web.diagram.events.ExpressionPlaybackEvent;
 import org.reactome.web.diagram.events.ExpressionValueHoveredEvent;
 import org.reactome.web.diagram.handlers.ExpressionColumnChangedHandler;
+import org.reactome.web.diagram.handlers.ExpressionPlaybackHandler;
 import org.reactome.web.diagram.profiles.analysis.AnalysisColours;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.profiles.diagram.model.DiagramProfileProperties;
@@ -31,7 +37,9 @@ import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
 import org.reactome.web.diagram.renderers.common.OverlayContext;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
+import org.reactome.web.diagram.renderers.common.StrokeBatch;
 import org.reactome.web.diagram.renderers.helper.ItemsDistribution;
+import org.reactome.web.diagram.renderers.helper.RenderLayer;
 import org.reactome.web.diagram.renderers.helper.RenderType;
 import org.reactome.web.diagram.renderers.interactor.InteractorRenderer;
 import org.reactome.web.diagram.renderers.interactor.InteractorRendererManager;
@@ -40,6 +48,7 @@ import org.reactome.web.diagram.renderers.layout.Renderer;
 import org.reactome.web.diagram.renderers.layout.RendererManager;
 import org.reactome.web.diagram.renderers.layout.abs.AttachmentAbstractRenderer;
 import org.reactome.web.diagram.renderers.layout.abs.ProteinAbstractRenderer;
+import org.reactome.web.diagram.renderers.layout.abs.ReactionAbstractRenderer;
 import org.reactome.web.diagram.renderers.layout.abs.SummaryItemAbstractRenderer;
 import org.reactome.web.diagram.thumbnail.Thumbnail;
 import org.reactome.web.diagram.thumbnail.diagram.DiagramThumbnail;
@@ -49,16 +58,15 @@ import org.reactome.web.diagram.util.Console;
 import org.reactome.web.diagram.util.MapSet;
 import org.reactome.web.diagram.util.actions.MouseActionsHandlers;
 import org.reactome.web.diagram.util.actions.UserActionsInstaller;
+import uk.ac.ebi.pwp.structures.quadtree.client.Box;
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
-class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHandler {
+class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHandler, ExpressionPlaybackHandler {
 
     private final RendererManager rendererManager;
     private final InteractorRendererManager interactorRendererManager;
@@ -93,14 +101,43 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     private AdvancedContext2d interactors;
 
     private AdvancedContext2d buffer;
+    private OverlayContext overlayContext;
 
     private TooltipContainer tooltipContainer;
     private Thumbnail thumbnail;
     private List<Canvas> canvases = new LinkedList<>();
 
+    //Layers are repainted only when the input they depend on has changed since the last time they were drawn
+    private Set<RenderLayer> dirty = EnumSet.allOf(RenderLayer.class);
+    private List<AdvancedContext2d> diagramLayer = new LinkedList<>();
+    //Groups of contiguous static layers (no other layer in between) that are flattened in the tiles
+    private List<List<AdvancedContext2d>> tileBands = new LinkedList<>();
+    private DiagramTiles tiles;
+    private boolean tilesBudgetWarned = false;
+    //Factor of the last rendering of the static layers (tiles are only used once the zoom has settled)
+    private double renderedFactor = 0;
+    //When available, the static layers are painted in a Web Worker (see DiagramFactory.OFFSCREEN_RENDERING)
+    private OffscreenLayers offscreen;
+
+    //Steps of the diagram rendering that did not fit in the frame budget (see DiagramFactory.RENDERING_FRAME_BUDGET)
+    private LinkedList<RenderStep> pending = new LinkedList<>();
+    private double renderingTime;
+    private int slices;
+    private Map<RenderLayer, Double> layerTimes = new EnumMap<>(RenderLayer.class);
+
     private int column = 0;
     private Double hoveredExpression = null;
 
+    //While the expression columns are being played, the following ones are pre-rendered (see ExpressionFrames)
+    private boolean playback = false;
+    private ExpressionFrames frames;
+    private LinkedList<Long> frameTimes = new LinkedList<>();
+    //Time (in ms) the last rendering of a whole expression column took
+    private long columnTime = 0;
+
+    //Small nodes are merged in clusters in the far zoom views (see DiagramFactory.LOD_MIN_SIZE)
+    private DiagramLOD lod = new DiagramLOD();
+
     public DiagramCanvas(EventBus eventBus) {
         this.getElement().addClassName("pwp-DiagramCanvas");
         this.eventBus = eventBus;
@@ -123,6 +160,7 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
 
     private void initHandlers() {
         this.eventBus.addHandler(ExpressionColumnChangedEvent.TYPE, this);
+        this.eventBus.addHandler(ExpressionPlaybackEvent.TYPE, this);
     }
 
     public void addUserActionsHandlers(MouseActionsHandlers handler) {
@@ -134,7 +172,9 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     }
 
     public void flag(Collection<DiagramObject> items, Context context) {
+        long start = System.currentTimeMillis();
         highlight(items, context, this.flag);
+        setClean(RenderLayer.FLAG, start);
     }
 
     public Thumbnail getThumbnail() {
@@ -142,7 +182,9 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     }
 
     public void halo(Collection<DiagramObject> items, Context context) {
+        long start = System.currentTimeMillis();
         highlight(items, context, this.halo);
+        setClean(RenderLayer.HALO, start);
     }
 
     private void highlight(Collection<DiagramObject> items, Context context, AdvancedContext2d ctx){
@@ -162,20 +204,23 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     }
 
     public void highlight(HoveredItem hoveredItem, Context context) {
+        long start = System.currentTimeMillis();
         cleanCanvas(this.entitiesHighlight);
         cleanCanvas(this.reactionsHighlight);
-        if(hoveredItem==null) return;
-        DiagramStatus status = context.getDiagramStatus();
-        for (DiagramObject item : hoveredItem.getDiagramObjects()) {
-            if (item.getIsFadeOut() != null) continue;
-            Renderer renderer = rendererManager.getRenderer(item);
-            if (renderer == null) continue;
-            if (item instanceof Node) {
-                renderer.highlight(entitiesHighlight, item, status.getFactor(), status.getOffset());
-            } else if (item instanceof Edge) {
-                renderer.highlight(reactionsHighlight, item, status.getFactor(), status.getOffset());
+        if (hoveredItem != null) {
+            DiagramStatus status = context.getDiagramStatus();
+            for (DiagramObject item : hoveredItem.getDiagramObjects()) {
+                if (item.getIsFadeOut() != null) continue;
+                Renderer renderer = rendererManager.getRenderer(item);
+                if (renderer == null) continue;
+                if (item instanceof Node) {
+                    renderer.highlight(entitiesHighlight, item, status.getFactor(), status.getOffset());
+                } else if (item instanceof Edge) {
+                    renderer.highlight(reactionsHighlight, item, status.getFactor(), status.getOffset());
+                }
             }
         }
+        setClean(RenderLayer.HIGHLIGHT, start);
     }
 
     public void highlightInteractor(DiagramInteractor item, Context context){
@@ -223,19 +268,21 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     }
 
     public void select(List<DiagramObject> items, Context context) {
+        long start = System.currentTimeMillis();
         DiagramStatus status = context.getDiagramStatus();
         cleanCanvas(this.entitiesSelection);
         cleanCanvas(this.reactionsSelection);
         for (DiagramObject item : items) {
             if (item.getIsFadeOut() != null) continue;
             Renderer renderer = rendererManager.getRenderer(item);
-            if (renderer == null) return;
+            if (renderer == null) break;
             if (item instanceof Node) {
                 renderer.highlight(this.entitiesSelection, item, status.getFactor(), status.getOffset());
             } else if (item instanceof Edge) {
                 renderer.highlight(this.reactionsSelection, item, status.getFactor(), status.getOffset());
             }
         }
+        setClean(RenderLayer.SELECTION, start);
     }
 
     public void setCursor(Style.Cursor cursor) {
@@ -247,8 +294,13 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.setHeight(height+"px");
 
         for (Canvas canvas : canvases) {
-            setCanvasProperties(canvas, width, height);
+            if (offscreen != null && offscreen.contains(canvas)) {
+                canvas.setPixelSize(width, height); //The coordinate space is set by the worker (see OffscreenLayers.setSize)
+            } else {
+                setCanvasProperties(canvas, width, height);
+            }
         }
+        if (offscreen != null) offscreen.setSize(width, height);
         if(tooltipContainer!=null) {
             tooltipContainer.setWidth(width);
             tooltipContainer.setHeight(height);
@@ -258,8 +310,79 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
     @Override
     public void clear() {
         for (Canvas canvas : canvases) {
-            cleanCanvas(canvas.getContext2d());
+            if (offscreen == null || !offscreen.contains(canvas)) cleanCanvas(canvas.getContext2d());
         }
+        if (offscreen != null) offscreen.clear();
+        pending.clear();
+        lod.clear(); //The clusters of the previous content are not kept until the next one is rendered
+        invalidate();
+    }
+
+    /**
+     * Marks the given layers as dirty so they are repainted in the next frame. When no layer is specified, all of
+     * them are marked and the tiles are discarded (this is the case for any change in the content, profiles or
+     * analysis)
+     */
+    public void invalidate(RenderLayer... layers) {
+        if (layers.length == 0) {
+            dirty.addAll(EnumSet.allOf(RenderLayer.class));
+            if (tiles != null) tiles.clear();
+            if (frames != null) frames.clear();
+            if (offscreen != null) offscreen.reset();
+        } else {
+            dirty.addAll(Arrays.asList(layers));
+            if (offscreen != null && dirty.contains(RenderLayer.DIAGRAM)) offscreen.reset();
+        }
+    }
+
+    /**
+     * Marks all the layers as dirty after a change in the transform. Tiles rendered for the current factor are
+     * still valid, so they are kept
+     */
+    public void invalidateTransform() {
+        dirty.addAll(EnumSet.allOf(RenderLayer.class));
+    }
+
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    public boolean isDirty(RenderLayer layer) {
+        return dirty.contains(layer);
+    }
+
+    /**
+     * @return the time (in ms) spent painting each of the layers the last time they were repainted
+     */
+    public Map<RenderLayer, Double> getLayerTimes() {
+        return new EnumMap<>(layerTimes);
+    }
+
+    /**
+     * @return true if the static layers are painted in a Web Worker (see OffscreenLayers) or false if they are
+     * painted in the UI thread
+     */
+    public boolean isOffscreen() {
+        return offscreen != null && !offscreen.isDirect();
+    }
+
+    /**
+     * @return the time (in ms) spent composing the analysis overlay in the last rendering of the static layers
+     */
+    public double getOverlayTime() {
+        return overlayContext.getTime();
+    }
+
+    /**
+     * @return the number of nodes whose analysis overlay was composed in the last rendering of the static layers
+     */
+    public int getOverlayRegions() {
+        return overlayContext.getRegions();
+    }
+
+    private void setClean(RenderLayer layer, long start) {
+        dirty.remove(layer);
+        layerTimes.put(layer, (double) (System.currentTimeMillis() - start));
     }
 
     public void clearThumbnail() {
@@ -318,7 +441,22 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.column = e.getColumn();
     }
 
+    @Override
+    public void onExpressionPlayback(ExpressionPlaybackEvent e) {
+        this.playback = e.isPlaying();
+        this.frameTimes.clear();
+        if (!playback) invalidate(); //The frames are released and the tiles rendered again for the current column
+    }
+
+    /**
+     * @return true while the expression columns are being played
+     */
+    public boolean isPlayback() {
+        return playback;
+    }
+
     public void renderInteractors(Collection<DiagramInteractor> items, Context context){
+        long start = System.currentTimeMillis();
         cleanCanvas(interactors);
 
         AnalysisStatus analysisStatus = context.getAnalysisStatus();
@@ -372,16 +510,258 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
                 interactors.restore();
             }
         }
+        setClean(RenderLayer.INTERACTORS, start);
+    }
+
+    /**
+     * The tiled rendering can only be used when the layers are big enough to be used as scratch for a tile and the
+     * memory budget allows keeping the tiles needed to cover them. While zooming, every frame has a different factor
+     * and the tiles would be rendered only once (items crossing tiles several times), so the layers are rendered
+     * directly until the factor is the same as the one in the previous rendering
+     */
+    public boolean isTiled(int width, int height, double factor) {
+        if (!DiagramFactory.TILED_RENDERING || tiles == null || (offscreen != null && !offscreen.hasFailed())) return false;
+        if (width < DiagramTiles.TILE_SIZE || height < DiagramTiles.TILE_SIZE) return false;
+        if (factor != renderedFactor) return false;
+        int cols = width / DiagramTiles.TILE_SIZE + 2;
+        int rows = height / DiagramTiles.TILE_SIZE + 2;
+        tiles.setViewport(cols * rows);
+        if (tiles.getCapacity() < cols * rows) {
+            if (!tilesBudgetWarned) {
+                Console.warn("DiagramFactory.TILES_MEMORY_BUDGET cannot keep the " + cols * rows + " tiles covering the viewport. The diagram is rendered without tiles.");
+                tilesBudgetWarned = true;
+            }
+            return false;
+        }
+        return true;
     }
 
+    /**
+     * Renders the static layers. When DiagramFactory.RENDERING_FRAME_BUDGET is set, the rendering stops once the
+     * budget is exhausted and the remaining steps are kept to be continued in the following frames (continueRender).
+     * Any rendering still in progress is discarded, so stale work is cancelled when a new transform arrives.
+     */
     public void render(Collection<DiagramObject> items, Context context) {
-        ColourProfileType colourProfileType = context.getColourProfileType();
+        long start = System.currentTimeMillis();
+        DiagramStatus status = context.getDiagramStatus();
+        dirty.remove(RenderLayer.DIAGRAM); //Invalidating it while the rendering is in progress restarts it
+        overlayContext.resetStats();
+        renderedFactor = status.getFactor();
+        Coordinate offset = status.getOffset();
+        if (offscreen != null) {
+            //The analysis overlay is composed in the UI thread and sending its pixels to the worker for every node
+            //is far slower than painting the static layers there, so they are painted in the UI thread meanwhile
+            offscreen.setDirect(context.getAnalysisStatus() != null);
+        }
+        if (offscreen != null && !offscreen.isDirect()) {
+            int width = getOffsetWidth(), height = getOffsetHeight();
+            Box visible = context.getVisibleModelArea(width, height);
+            if (offscreen.covers(context.getContent(), status.getFactor(), visible)) {
+                offscreen.setOffset(offset);
+                pending.clear();
+                slices = 1;
+                setClean(RenderLayer.DIAGRAM, start);
+                return;
+            }
+            //Half a viewport more is recorded in every direction, so panning within it only moves the recording
+            double w = (visible.getMaxX() - visible.getMinX()) / 2, h = (visible.getMaxY() - visible.getMinY()) / 2;
+            Box area = new Box(visible.getMinX() - w, visible.getMinY() - h, visible.getMaxX() + w, visible.getMaxY() + h);
+            Coordinate origin = CoordinateFactory.get(offset.getX() + width / 2.0, offset.getY() + height / 2.0);
+            offscreen.begin(context.getContent(), status.getFactor(), area, origin, offset, 2 * width, 2 * height);
+            items = context.getContent().getVisibleItems(area);
+            offset = origin;
+        }
+        pending = getRenderSteps(items, context, status.getFactor(), offset);
+        renderingTime = System.currentTimeMillis() - start;
+        slices = 0;
+        continueRender();
+    }
+
+    public void continueRender() {
+        long start = System.currentTimeMillis();
+        int budget = DiagramFactory.RENDERING_FRAME_BUDGET;
+        double deadline = budget > 0 ? start + budget : Double.MAX_VALUE;
+        while (!pending.isEmpty() && pending.getFirst().execute(deadline)) {
+            pending.removeFirst();
+        }
+        slices++;
+        renderingTime += System.currentTimeMillis() - start;
+        if (pending.isEmpty()) {
+            layerTimes.put(RenderLayer.DIAGRAM, renderingTime);
+            if (offscreen != null) offscreen.commit();
+        }
+    }
+
+    /**
+     * @return true if the rendering of the static layers has not finished yet
+     */
+    public boolean isRendering() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * @return the number of frames the last rendering of the static layers was split in
+     */
+    public int getSlices() {
+        return slices;
+    }
+
+    /**
+     * Renders the static layers by blitting the tiles covering the viewport. Only the tiles that are not yet
+     * available for the current factor are rendered (using the static layers as scratch)
+     *
+     * @return the number of items rendered in the new tiles
+     */
+    public int renderTiles(Context context, int width, int height) {
+        long start = System.currentTimeMillis();
+        pending.clear(); //Tiles are always rendered in one go
+        slices = 1;
+        overlayContext.resetStats();
+        DiagramStatus status = context.getDiagramStatus();
+        double factor = status.getFactor();
+        double offsetX = Math.round(status.getOffset().getX());
+        double offsetY = Math.round(status.getOffset().getY());
+        tiles.setFactor(factor);
+        renderedFactor = factor;
+
+        int size = DiagramTiles.TILE_SIZE;
+        int firstCol = (int) Math.floor(-offsetX / size);
+        int lastCol = (int) Math.floor((width - offsetX) / size);
+        int firstRow = (int) Math.floor(-offsetY / size);
+        int lastRow = (int) Math.floor((height - offsetY) / size);
+
+        int items = 0;
+        for (int col = firstCol; col <= lastCol; col++) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (!tiles.contains(col, row)) {
+                    items += renderTile(context, factor, col, row);
+                }
+            }
+        }
+
+        for (AdvancedContext2d ctx : diagramLayer) {
+            cleanCanvas(ctx);
+        }
+        for (int col = firstCol; col <= lastCol; col++) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                AdvancedContext2d[] tile = tiles.get(col, row);
+                for (int b = 0; b < tile.length; b++) {
+                    //Every band is blitted in the lowest layer of the group
+                    tileBands.get(b).get(0).drawImage(tile[b].getCanvas(), col * size + offsetX, row * size + offsetY);
+                }
+            }
+        }
+        setClean(RenderLayer.DIAGRAM, start);
+        return items;
+    }
+
+    /**
+     * Renders the static layers while the expression columns are being played. The layers that depend on the
+     * column are blitted from a pre-rendered frame when available (otherwise everything is rendered in one go and
+     * kept as the frame for the column) and the following columns are pre-rendered when idle
+     */
+    public void renderColumn(Collection<DiagramObject> items, Context context, int width, int height) {
+        //The expression overlay is composed in the UI thread, so are the static layers (see render)
+        if (offscreen != null) offscreen.setDirect(true);
+        long start = System.currentTimeMillis();
+        pending.clear(); //Columns are always rendered in one go
+        slices = 1;
+        DiagramStatus status = context.getDiagramStatus();
+        renderedFactor = status.getFactor();
+        if (!frames.setTransform(status.getFactor(), status.getOffset(), width, height) || !frames.contains(column)) {
+            overlayContext.resetStats();
+            render(items, context, status.getFactor(), status.getOffset());
+            frames.put(column);
+            columnTime = System.currentTimeMillis() - start;
+        } else {
+            frames.show(column);
+        }
+        setClean(RenderLayer.DIAGRAM, start);
+        notifyFrameRate();
+        preRenderColumns(items, context, width, height);
+    }
+
+    private void notifyFrameRate() {
+        frameTimes.add(System.currentTimeMillis());
+        if (frameTimes.size() > 10) frameTimes.removeFirst();
+        if (frameTimes.size() < 2) return;
+        long elapsed = frameTimes.getLast() - frameTimes.getFirst();
+        if (elapsed > 0) {
+            double fps = (frameTimes.size() - 1) * 1000.0 / elapsed;
+            eventBus.fireEventFromSource(new ExpressionFrameRateEvent(fps), this);
+        }
+    }
+
+    //A column is rendered in one go (the layers are used as scratch), so only one of the following columns is
+    //pre-rendered per deferred command and the browser gets the control back in between. When a column takes longer
+    //than DiagramFactory.RENDERING_FRAME_BUDGET, the columns are not pre-rendered (they are rendered when played)
+    private void preRenderColumns(final Collection<DiagramObject> items, final Context context, final int width, final int height) {
+        AnalysisStatus analysisStatus = context.getAnalysisStatus();
+        if (analysisStatus == null || analysisStatus.getExpressionSummary() == null) return;
+        final int columns = analysisStatus.getExpressionSummary().getColumnNames().size();
+        final int ahead = Math.min(columns - 1, frames.getCapacity() - 1);
+        final int current = column;
+        final DiagramStatus status = context.getDiagramStatus();
+        final double factor = status.getFactor();
+        final Coordinate offset = CoordinateFactory.get(status.getOffset().getX(), status.getOffset().getY());
+        Scheduler.get().scheduleDeferred(new Scheduler.ScheduledCommand() {
+            int i = 1;
+
+            @Override
+            public void execute() {
+                if (!playback || column != current || isDirty(RenderLayer.DIAGRAM)) return;
+                if (!frames.isCurrent(factor, offset, width, height)) return;
+                int budget = DiagramFactory.RENDERING_FRAME_BUDGET;
+                if (budget > 0 && columnTime > budget) return;
+                while (i <= ahead && frames.contains((current + i) % columns)) i++;
+                if (i > ahead) return;
+                long start = System.currentTimeMillis();
+                column = (current + i) % columns;
+                render(items, context, factor, offset);
+                frames.put(column);
+                column = current;
+                frames.show(current);
+                columnTime = System.currentTimeMillis() - start;
+                if (++i <= ahead) Scheduler.get().scheduleDeferred(this);
+            }
+        });
+    }
+
+    private int renderTile(Context context, double factor, int col, int row) {
+        int size = DiagramTiles.TILE_SIZE;
+        //Shapes and labels of the items close to the tile might overflow into it
+        double margin = size / 2.0;
+        Box area = new Box(
+                (col * size - margin) / factor, (row * size - margin) / factor,
+                ((col + 1) * size + margin) / factor, ((row + 1) * size + margin) / factor
+        );
+        Collection<DiagramObject> items = context.getContent().getVisibleItems(area);
+        render(items, context, factor, CoordinateFactory.get(-col * size, -row * size));
+        tiles.put(col, row, tileBands);
+        return items.size();
+    }
+
+    private void render(Collection<DiagramObject> items, Context context, double factor, Coordinate offset) {
+        for (RenderStep step : getRenderSteps(items, context, factor, offset)) {
+            step.execute(Double.MAX_VALUE);
+        }
+    }
+
+    /**
+     * The rendering is split in steps that group items drawn with the same context properties. Shapes are drawn
+     * first, followed by the connectors and reactions, the text and finally the shadows. Every group of items is
+     * drawn in a different layer except for the faded out ones, whose shapes, connectors and text are drawn per
+     * class in the same order as item by item. Having them in this order lets a rendering split among several
+     * frames show the most relevant information first.
+     */
+    private LinkedList<RenderStep> getRenderSteps(Collection<DiagramObject> items, Context context, final double factor, final Coordinate offset) {
+        for (AdvancedContext2d ctx : diagramLayer) {
+            cleanCanvas(ctx);
+        }
         AnalysisStatus analysisStatus = context.getAnalysisStatus();
-        Double factor = context.getDiagramStatus().getFactor();
-        Coordinate offset = context.getDiagramStatus().getOffset();
         setCanvasesProperties(factor);
 
-        Double minExp = 0.0; Double maxExp = 0.0;
+        double minExp = 0.0; double maxExp = 0.0;
         AnalysisType analysisType = AnalysisType.NONE;
         if (analysisStatus != null) {
             analysisType = AnalysisType.getType(analysisStatus.getAnalysisSummary().getType());
@@ -390,6 +770,29 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
                 maxExp = analysisStatus.getExpressionSummary().getMax();
             }
         }
+        final double min = minExp, max = maxExp;
+        final int c = column;
+
+        final DiagramProfileProperties properties = DiagramColours.get().PROFILE.getProperties();
+        final ConnectorRenderer connectorRenderer = this.rendererManager.getConnectorRenderer();
+        final Renderer reactionRenderer = rendererManager.getRenderer("Reaction");
+        final OverlayContext overlay = this.overlayContext;
+        //The level of detail only applies to the diagram without analysis overlay
+        final DiagramLOD.Bucket clusters = analysisType.equals(AnalysisType.NONE) ? lod.get(context.getContent(), factor) : null;
+        //Connectors and reactions sharing context and style are stroked at once when all of them have been added
+        final StrokeBatch batch = new StrokeBatch(factor, offset, clusters != null ? 1 : 0);
+
+        LinkedList<RenderStep> shapes = new LinkedList<>();
+        LinkedList<RenderStep> connectors = new LinkedList<>();
+        LinkedList<RenderStep> texts = new LinkedList<>();
+
+        //Connectors are drawn in the "reactions" context2d. It is better to set the colour properties once
+        Runnable connectorsSetup = () -> reactionRenderer.setColourProperties(reactions, ColourProfileType.NORMAL);
+        Consumer<DiagramObject> connectorsDraw = item -> {
+            if (item instanceof Node) {
+                connectorRenderer.draw(batch, reactions, this.fadeOut, reactionDecorators, (Node) item);
+            }
+        };
 
         ItemsDistribution itemsDistribution = new ItemsDistribution(items, analysisType);
         for (String renderableClass : itemsDistribution.keySet()) {
@@ -400,169 +803,191 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
             if (renderer == null) continue;
 
             final AdvancedContext2d ctx = this.getContext2d(renderableClass);
-            ctx.setLineWidth(RendererProperties.NODE_LINE_WIDTH);
-
             MapSet<RenderType, DiagramObject> target = itemsDistribution.getItems(renderableClass);
 
+            //Shapes, connectors and text of the faded out items share the same layer, so they keep the order in
+            //which they were drawn item by item (the text of every class on top of its shapes and connectors)
             Set<DiagramObject> fadeOut = target.getElements(RenderType.FADE_OUT);
             if (fadeOut != null) {
-                renderFadeoutItems(renderer, fadeOut, factor, offset);
+                shapes.add(new RenderStep(fadeOut,
+                        () -> renderer.setColourProperties(this.fadeOut, ColourProfileType.FADE_OUT),
+                        item -> {
+                            renderer.draw(this.fadeOut, item, factor, offset);
+                            if (item instanceof Node) {
+                                connectorRenderer.draw(this.fadeOut, this.fadeOut, reactionDecorators, (Node) item, factor, offset);
+                            }
+                        }));
+                shapes.add(new RenderStep(fadeOut,
+                        () -> {
+                            renderer.setTextProperties(this.fadeOut, ColourProfileType.FADE_OUT);
+                            this.fadeOut.setStrokeStyle(properties.getText());
+                        },
+                        item -> renderer.drawText(this.fadeOut, item, factor, offset)));
             }
 
             if (analysisType.equals(AnalysisType.NONE)) {
                 //By doing this we avoid changing the context several time (which improves the rendering time)
-                renderer.setColourProperties(ctx, ColourProfileType.NORMAL);
-                renderer.setTextProperties(text, ColourProfileType.NORMAL);
                 Set<DiagramObject> normal = target.getElements(RenderType.NORMAL);
                 if (normal != null) {
-                    renderItems(renderer, ctx, normal, factor, offset);
+                    shapes.add(new RenderStep(normal,
+                            () -> setShapeProperties(renderer, ctx, ColourProfileType.NORMAL),
+                            item -> {
+                                if (clusters == null || !clusters.isClustered(item)) renderer.draw(ctx, item, factor, offset);
+                            }));
+                    if (clusters != null && clusters.hasClusters(renderableClass)) {
+                        shapes.add(new RenderStep(Collections.emptySet(),
+                                () -> {
+                                    setShapeProperties(renderer, ctx, ColourProfileType.NORMAL);
+                                    clusters.draw(ctx, renderableClass, factor, offset);
+                                }, null));
+                    }
                 }
-
                 Set<DiagramObject> diseaseObjects = target.getElements(RenderType.DISEASE);
                 if (diseaseObjects != null) {
-                    ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
-                    renderItems(renderer, ctx, diseaseObjects, factor, offset);
+                    shapes.add(new RenderStep(diseaseObjects,
+                            () -> {
+                                setShapeProperties(renderer, ctx, ColourProfileType.NORMAL);
+                                ctx.setStrokeStyle(properties.getDisease());
+                            },
+                            item -> renderer.draw(ctx, item, factor, offset)));
                 }
+                Set<DiagramObject> all = new HashSet<>();
+                if (normal != null) all.addAll(normal);
+                if (diseaseObjects != null) all.addAll(diseaseObjects);
+                texts.add(new RenderStep(all,
+                        () -> renderer.setTextProperties(text, ColourProfileType.NORMAL),
+                        item -> renderer.drawText(text, item, factor, offset)));
+                connectors.add(new RenderStep(all, connectorsSetup, connectorsDraw));
             } else {
                 Set<DiagramObject> noHitByAnalysisNormal = target.getElements(RenderType.NOT_HIT_BY_ANALYSIS_NORMAL);
-                renderer.setColourProperties(ctx, ColourProfileType.ANALYSIS);
-                renderer.setTextProperties(text, ColourProfileType.ANALYSIS);
                 if (noHitByAnalysisNormal != null) {
-                    renderItems(renderer, ctx, noHitByAnalysisNormal, factor, offset);
+                    shapes.add(new RenderStep(noHitByAnalysisNormal,
+                            () -> setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS),
+                            item -> renderer.draw(ctx, item, factor, offset)));
                 }
                 Set<DiagramObject> noHitByAnalysisDisease = target.getElements(RenderType.NOT_HIT_BY_ANALYSIS_DISEASE);
                 if (noHitByAnalysisDisease != null) {
-                    ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
-                    renderItems(renderer, ctx, noHitByAnalysisDisease, factor, offset);
+                    shapes.add(new RenderStep(noHitByAnalysisDisease,
+                            () -> {
+                                setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS);
+                                ctx.setStrokeStyle(properties.getDisease());
+                            },
+                            item -> renderer.draw(ctx, item, factor, offset)));
                 }
                 Set<DiagramObject> enrichmentNormal = target.getElements(RenderType.HIT_BY_ENRICHMENT_NORMAL);
                 if (enrichmentNormal != null) {
-                    ctx.setFillStyle(AnalysisColours.get().PROFILE.getEnrichment().getGradient().getMax());
-                    renderer.setTextProperties(text, ColourProfileType.NORMAL);
-                    renderEnrichment(renderer, ctx, enrichmentNormal, factor, offset);
+                    shapes.add(new RenderStep(enrichmentNormal,
+                            () -> {
+                                setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS);
+                                ctx.setFillStyle(AnalysisColours.get().PROFILE.getEnrichment().getGradient().getMax());
+                            },
+                            item -> renderer.drawEnrichment(ctx, overlay, item, factor, offset)));
                 }
                 Set<DiagramObject> enrichmentDisease = target.getElements(RenderType.HIT_BY_ENRICHMENT_DISEASE);
                 if (enrichmentDisease != null) {
-                    ctx.setFillStyle(AnalysisColours.get().PROFILE.getEnrichment().getGradient().getMax());
-                    ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
-                    renderer.setTextProperties(text, ColourProfileType.NORMAL);
-                    renderEnrichment(renderer, ctx, enrichmentDisease, factor, offset);
+                    shapes.add(new RenderStep(enrichmentDisease,
+                            () -> {
+                                setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS);
+                                ctx.setFillStyle(AnalysisColours.get().PROFILE.getEnrichment().getGradient().getMax());
+                                ctx.setStrokeStyle(properties.getDisease());
+                            },
+                            item -> renderer.drawEnrichment(ctx, overlay, item, factor, offset)));
                 }
+                Consumer<DiagramObject> expressionDraw = item -> {
+                    try {
+                        renderer.drawExpression(ctx, overlay, item, c, min, max, factor, offset);
+                    } catch (Exception e) {
+                        Console.error(e.getMessage(), this);
+                    }
+                };
                 Set<DiagramObject> expressionNormal = target.getElements(RenderType.HIT_BY_EXPRESSION_NORMAL);
                 if (expressionNormal != null) {
-                    renderer.setTextProperties(text, ColourProfileType.NORMAL);
-                    renderExpression(renderer, ctx, expressionNormal, column, minExp, maxExp, factor, offset);
+                    shapes.add(new RenderStep(expressionNormal,
+                            () -> setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS),
+                            expressionDraw));
                 }
                 Set<DiagramObject> expressionDisease = target.getElements(RenderType.HIT_BY_EXPRESSION_DISEASE);
                 if (expressionDisease != null) {
-                    renderer.setTextProperties(text, ColourProfileType.NORMAL);
-                    ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
-                    renderExpression(renderer, ctx, expressionDisease, column, minExp, maxExp, factor, offset);
+                    shapes.add(new RenderStep(expressionDisease,
+                            () -> {
+                                setShapeProperties(renderer, ctx, ColourProfileType.ANALYSIS);
+                                ctx.setStrokeStyle(properties.getDisease());
+                            },
+                            expressionDraw));
                 }
                 Set<DiagramObject> hitInteractors = target.getElements(RenderType.HIT_INTERACTORS);
-                if(hitInteractors != null) {
-                    ctx.setStrokeStyle(AnalysisColours.get().PROFILE.getRibbon());
-                    ctx.setLineWidth(16 * factor);
-                    renderHitInteractors(renderer, ctx, hitInteractors, factor, offset);
+                if (hitInteractors != null) {
+                    shapes.add(new RenderStep(hitInteractors,
+                            () -> {
+                                ctx.setStrokeStyle(AnalysisColours.get().PROFILE.getRibbon());
+                                ctx.setLineWidth(16 * factor);
+                            },
+                            item -> renderer.drawHitInteractors(ctx, item, factor, offset)));
                 }
-            }
-        }
 
-        cleanCanvas(this.buffer); //It could have been used for the expression overlay (it is fastest cleaning it once)
-
-        //Reactions are rendered after all the other types. They have special characteristics.
-        //renderItems uses "reactions" context2d to draw connectors. It is better to set the colour properties once
-        items = itemsDistribution.getAll("Reaction");
-        if (!items.isEmpty()) { //No need to check for null here
-            Renderer reactionRenderer = rendererManager.getRenderer("Reaction");
-            reactionRenderer.setColourProperties(reactions, ColourProfileType.NORMAL);
-            reactionRenderer.setColourProperties(this.fadeOut, ColourProfileType.FADE_OUT);
-            for (DiagramObject item : items) {
-                if (item.getIsFadeOut() != null) {
-                    reactionRenderer.draw(this.fadeOut, item, factor, offset);
-                } else if (item.getIsDisease() != null) {
-                    reactions.save();
-                    reactions.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
-                    reactionRenderer.draw(reactions, item, factor, offset);
-                    reactions.restore();
-                } else {
-                    reactionRenderer.draw(reactions, item, factor, offset);
-                }
+                Set<DiagramObject> notHit = new HashSet<>();
+                if (noHitByAnalysisNormal != null) notHit.addAll(noHitByAnalysisNormal);
+                if (noHitByAnalysisDisease != null) notHit.addAll(noHitByAnalysisDisease);
+                texts.add(new RenderStep(notHit,
+                        () -> renderer.setTextProperties(text, ColourProfileType.ANALYSIS),
+                        item -> renderer.drawText(text, item, factor, offset)));
+
+                Set<DiagramObject> hit = new HashSet<>();
+                if (enrichmentNormal != null) hit.addAll(enrichmentNormal);
+                if (enrichmentDisease != null) hit.addAll(enrichmentDisease);
+                if (expressionNormal != null) hit.addAll(expressionNormal);
+                if (expressionDisease != null) hit.addAll(expressionDisease);
+                texts.add(new RenderStep(hit,
+                        () -> renderer.setTextProperties(text, ColourProfileType.NORMAL),
+                        item -> renderer.drawText(text, item, factor, offset)));
+
+                notHit.addAll(hit);
+                connectors.add(new RenderStep(notHit, connectorsSetup, connectorsDraw));
             }
         }
 
-        //Shadows to be rendered at the VERY END of it :)
-        Renderer shadowRenderer = rendererManager.getRenderer("Shadow");
-        shadowRenderer.setTextProperties(shadowsText, ColourProfileType.NORMAL);
-        for (DiagramObject item : itemsDistribution.getAll("Shadow")) {
-            shadowRenderer.draw(shadows, item, factor, offset);
-            shadowRenderer.drawText(shadowsText, item, factor, offset);
-        }
-    }
-
-    private void renderItems(Renderer renderer, AdvancedContext2d ctx, Set<DiagramObject> objects, double factor, Coordinate offset) {
-        ConnectorRenderer connectorRenderer = this.rendererManager.getConnectorRenderer();
-        for (DiagramObject item : objects) {
-            renderer.draw(ctx, item, factor, offset);
-            renderer.drawText(this.text, item, factor, offset);
-            if (item instanceof Node) {
-                Node node = (Node) item;
-                connectorRenderer.draw(this.reactions, this.fadeOut, this.reactionDecorators, node, factor, offset);
-            }
-        }
-    }
+        LinkedList<RenderStep> rtn = new LinkedList<>(shapes);
+        //It could have been used for the expression overlay (it is fastest cleaning it once)
+        rtn.add(new RenderStep(Collections.emptySet(), () -> cleanCanvas(this.buffer), null));
+        rtn.addAll(connectors);
 
-    private void renderFadeoutItems(Renderer renderer, Set<DiagramObject> objects, double factor, Coordinate offset) {
-        ConnectorRenderer connectorRenderer = this.rendererManager.getConnectorRenderer();
-        renderer.setColourProperties(this.fadeOut, ColourProfileType.FADE_OUT);
-        for (DiagramObject item : objects) {
-            renderer.draw(this.fadeOut, item, factor, offset);
-            if (item instanceof Node) {
-                Node node = (Node) item;
-                connectorRenderer.draw(this.fadeOut, this.fadeOut, this.reactionDecorators, node, factor, offset);
-            }
-        }
-        renderer.setTextProperties(this.fadeOut, ColourProfileType.FADE_OUT);
-        this.fadeOut.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getText());
-        for (DiagramObject item : objects) {
-            renderer.drawText(this.fadeOut, item, factor, offset);
-        }
-    }
+        //Reactions are rendered after all the other types. They have special characteristics.
+        rtn.add(new RenderStep(itemsDistribution.getAll("Reaction"),
+                () -> {
+                    reactionRenderer.setColourProperties(reactions, ColourProfileType.NORMAL);
+                    reactionRenderer.setColourProperties(this.fadeOut, ColourProfileType.FADE_OUT);
+                },
+                item -> {
+                    ReactionAbstractRenderer renderer = (ReactionAbstractRenderer) reactionRenderer;
+                    if (item.getIsFadeOut() != null) {
+                        renderer.draw(batch, this.fadeOut, item);
+                    } else if (item.getIsDisease() != null) {
+                        reactions.save();
+                        reactions.setStrokeStyle(properties.getDisease());
+                        renderer.draw(batch, reactions, item);
+                        reactions.restore();
+                    } else {
+                        renderer.draw(batch, reactions, item);
+                    }
+                }));
+        rtn.add(new RenderStep(Collections.emptySet(), batch::flush, null));
 
-    private void renderEnrichment(Renderer renderer, AdvancedContext2d ctx, Set<DiagramObject> objects, double factor, Coordinate offset) {
-        ConnectorRenderer connectorRenderer = this.rendererManager.getConnectorRenderer();
-        OverlayContext overlay = new OverlayContext(this.overlay, this.buffer);
-        for (DiagramObject item : objects) {
-            renderer.drawEnrichment(ctx, overlay, item, factor, offset);
-            renderer.drawText(this.text, item, factor, offset);
-            if (item instanceof Node) {
-                Node node = (Node) item;
-                connectorRenderer.draw(this.reactions, this.fadeOut, this.reactionDecorators, node, factor, offset);
-            }
-        }
-    }
+        rtn.addAll(texts);
 
-    private void renderExpression(Renderer renderer, AdvancedContext2d ctx, Set<DiagramObject> objects, int c, double min, double max, double factor, Coordinate offset) {
-        ConnectorRenderer connectorRenderer = this.rendererManager.getConnectorRenderer();
-        OverlayContext overlay = new OverlayContext(this.overlay, this.buffer);
-        for (DiagramObject item : objects) {
-            try {
-                renderer.drawExpression(ctx, overlay, item, c, min, max, factor, offset);
-            }catch (Exception e){
-                Console.error(e.getMessage(), this);
-            }
-            renderer.drawText(this.text, item, factor, offset);
-            if (item instanceof Node) {
-                Node node = (Node) item;
-                connectorRenderer.draw(this.reactions, this.fadeOut, this.reactionDecorators, node, factor, offset);
-            }
-        }
+        //Shadows to be rendered at the VERY END of it :)
+        final Renderer shadowRenderer = rendererManager.getRenderer("Shadow");
+        rtn.add(new RenderStep(itemsDistribution.getAll("Shadow"),
+                () -> shadowRenderer.setTextProperties(shadowsText, ColourProfileType.NORMAL),
+                item -> {
+                    shadowRenderer.draw(shadows, item, factor, offset);
+                    shadowRenderer.drawText(shadowsText, item, factor, offset);
+                }));
+        return rtn;
     }
 
-    private void renderHitInteractors(Renderer renderer, AdvancedContext2d ctx, Set<DiagramObject> objects, double factor, Coordinate offset){
-        for (DiagramObject object : objects) {
-            renderer.drawHitInteractors(ctx, object, factor, offset);
-        }
+    private void setShapeProperties(Renderer renderer, AdvancedContext2d ctx, ColourProfileType type) {
+        ctx.setLineWidth(RendererProperties.NODE_LINE_WIDTH);
+        renderer.setColourProperties(ctx, type);
     }
 
     private void setCanvasesProperties(double factor) {
@@ -620,28 +1045,30 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.setWidth(width + "px");
         this.setHeight(height + "px");
 
-        this.compartments = createCanvas(width, height);
-        this.shadows = createCanvas(width, height);
-        this.notes = createCanvas(width, height);
-        this.links = createCanvas(width, height);
+        this.offscreen = OffscreenLayers.create(() -> invalidate());
+
+        this.compartments = createStaticCanvas(width, height);
+        this.shadows = createStaticCanvas(width, height);
+        this.notes = createStaticCanvas(width, height);
+        this.links = createStaticCanvas(width, height);
 
-        this.fadeOut = createCanvas(width, height);
+        this.fadeOut = createStaticCanvas(width, height);
         this.flag = createCanvas(width, height);
         this.halo = createCanvas(width, height);
 
         this.reactionsHighlight = createCanvas(width, height);
         this.entitiesHighlight = createCanvas(width, height);
 
-        this.reactions = createCanvas(width, height);
+        this.reactions = createStaticCanvas(width, height);
         this.reactionsSelection = createCanvas(width, height);
-        this.reactionDecorators = createCanvas(width, height);
+        this.reactionDecorators = createStaticCanvas(width, height);
 
-        this.entities = createCanvas(width, height);
+        this.entities = createStaticCanvas(width, height);
         this.entitiesDecorators = createCanvas(width, height);
-        this.text = createCanvas(width, height);
+        this.text = createStaticCanvas(width, height);
         this.overlay = createCanvas(width, height);
         this.entitiesSelection = createCanvas(width, height);
-        this.shadowsText = createCanvas(width, height);
+        this.shadowsText = createStaticCanvas(width, height);
 
         this.interactorsHighlight = createCanvas(width, height);
         this.interactorsSelection = createCanvas(width, height);
@@ -650,6 +1077,7 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.tooltipContainer = createToolTipContainer(width, height);
 
         this.buffer = createCanvas(width, height);  //Top-level canvas (mouse ctrl and buffer)
+        this.overlayContext = new OverlayContext(this.overlay, this.buffer);
 
         //Set the LineCap to round to avoid discontinuities in the reaction lines
         //NOTE: Setting the LineJoin cannot work as we draw every line segment separately
@@ -657,11 +1085,38 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.reactionsHighlight.setLineCap(Context2d.LineCap.ROUND);
         this.reactionsSelection.setLineCap(Context2d.LineCap.ROUND);
 
+        //The rest of the layers are cleaned by the method that paints them (select, highlight, halo, flag, ...)
+        this.diagramLayer.addAll(Arrays.asList(compartments, shadows, notes, links, fadeOut, reactions,
+                reactionDecorators, entities, text, overlay, shadowsText, buffer));
+        this.tileBands.add(Arrays.asList(compartments, shadows, notes, links, fadeOut));
+        this.tileBands.add(Collections.singletonList(reactions));
+        this.tileBands.add(Arrays.asList(reactionDecorators, entities));
+        this.tileBands.add(Arrays.asList(text, overlay));
+        this.tileBands.add(Collections.singletonList(shadowsText));
+        this.tiles = new DiagramTiles(tileBands.size());
+        this.frames = new ExpressionFrames(Arrays.asList(
+                Arrays.asList(reactionDecorators, entities),
+                Arrays.asList(text, overlay)
+        ));
+
         //Thumbnail
         this.add(this.thumbnail);
     }
 
     private AdvancedContext2d createCanvas(int width, int height) {
+        return addCanvas(width, height).getContext2d().cast();
+    }
+
+    //The static layers are transferred to the rendering worker when available (the analysis overlay is not)
+    private AdvancedContext2d createStaticCanvas(int width, int height) {
+        Canvas canvas = addCanvas(width, height);
+        if (offscreen == null) return canvas.getContext2d().cast();
+        //Painted instead of the transferred one when the worker cannot be used (see OffscreenLayers.setDirect)
+        Canvas fallback = addCanvas(width, height);
+        return offscreen.add(canvas, fallback);
+    }
+
+    private Canvas addCanvas(int width, int height) {
         Canvas canvas = Canvas.createIfSupported();
         //We need to avoid the default context menu for the canvases
         canvas.addDomHandler(new ContextMenuHandler() {
@@ -675,7 +1130,7 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         this.setCanvasProperties(canvas, width, height);
         this.add(canvas, 0, 0);
         this.canvases.add(canvas);
-        return canvas.getContext2d().cast();
+        return canvas;
     }
 
     //INITIALIZE THE CANVAS taking into account the CanvasProperties
@@ -721,4 +1176,34 @@ class DiagramCanvas extends AbsolutePanel implements ExpressionColumnChangedHand
         }
         return rtn;
     }
+
+    /**
+     * A group of items drawn with the same context properties. The properties are set every time the step is
+     * (re)started, since the context might have been modified by other steps before it is resumed
+     */
+    private static class RenderStep {
+        private Iterator<DiagramObject> items;
+        private Runnable setup;
+        private Consumer<DiagramObject> draw;
+
+        RenderStep(Collection<DiagramObject> items, Runnable setup, Consumer<DiagramObject> draw) {
+            this.items = items.iterator();
+            this.setup = setup;
+            this.draw = draw;
+        }
+
+        /**
+         * @return true if all the items have been drawn before the deadline
+         */
+        boolean execute(double deadline) {
+            if (setup != null) setup.run();
+            while (items.hasNext()) {
+                draw.accept(items.next());
+                if (System.currentTimeMillis() > deadline) {
+                    return !items.hasNext();
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package org.reactome.web.diagram.client.visualisers.diagram;
+
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.data.content.Content;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.DiagramObject;
+import org.reactome.web.diagram.data.layout.Node;
+import org.reactome.web.diagram.data.layout.NodeProperties;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+
+import java.util.*;
+
+/**
+ * Level of detail for the far zoom views (the ones drawn with the s000 renderers). Nodes that would be smaller
+ * than DiagramFactory.LOD_MIN_SIZE pixels are not drawn one by one: the ones of the same class falling in the
+ * same cell of a pixel grid are merged into a cluster that is filled as a single pixel-snapped rectangle.
+ *
+ * Clusters are precomputed per zoom bucket (powers of two of the factor) and kept until the canvas is cleared
+ * for a new content (see DiagramCanvas.clear). A node is only clustered when it stays below the minimum size for
+ * every factor in the bucket, so while zooming in the nodes leave the clusters progressively and are drawn as
+ * usual once they are big enough. Faded out and disease nodes are always drawn as usual since their style
+ * differs from the rest of their class.
+ */
+class DiagramLOD {
+
+    //The s000 renderers are used below this factor (see RendererManager)
+    static final double MAX_FACTOR = 0.5;
+
+    private Content content;
+    private Map<Integer, Bucket> buckets = new HashMap<>();
+
+    /**
+     * @return true if the level of detail applies to the given factor
+     */
+    static boolean isActive(double factor) {
+        return DiagramFactory.LOD_MIN_SIZE > 0 && factor < MAX_FACTOR;
+    }
+
+    /**
+     * @return the clusters for the given factor (or null if the level of detail does not apply)
+     */
+    Bucket get(Content content, double factor) {
+        if (!isActive(factor)) return null;
+        if (this.content != content) {
+            this.content = content;
+            buckets.clear();
+        }
+        int level = (int) Math.floor(Math.log(factor) / Math.log(2));
+        Bucket bucket = buckets.get(level);
+        if (bucket == null) {
+            bucket = new Bucket(content, Math.pow(2, level));
+            buckets.put(level, bucket);
+        }
+        return bucket;
+    }
+
+    void clear() {
+        content = null;
+        buckets.clear();
+    }
+
+    static class Bucket {
+        private Set<DiagramObject> clustered = new HashSet<>();
+        private Map<String, List<Cluster>> clusters = new HashMap<>();
+
+        Bucket(Content content, double minFactor) {
+            double maxFactor = minFactor * 2;
+            double cell = DiagramFactory.LOD_MIN_SIZE / minFactor; //In model coordinates
+            Map<String, Map<String, Cluster>> cells = new HashMap<>();
+            for (DiagramObject item : content.getDiagramObjects()) {
+                if (!(item instanceof Node)) continue;
+                if (item.getIsFadeOut() != null || item.getIsDisease() != null) continue;
+                NodeProperties prop = ((Node) item).getProp();
+                if (Math.max(prop.getWidth(), prop.getHeight()) * maxFactor >= DiagramFactory.LOD_MIN_SIZE) continue;
+
+                double cx = prop.getX() + prop.getWidth() / 2, cy = prop.getY() + prop.getHeight() / 2;
+                String key = (int) Math.floor(cx / cell) + ":" + (int) Math.floor(cy / cell);
+                Map<String, Cluster> map = cells.get(item.getRenderableClass());
+                if (map == null) {
+                    map = new HashMap<>();
+                    cells.put(item.getRenderableClass(), map);
+                }
+                Cluster cluster = map.get(key);
+                if (cluster == null) {
+                    cluster = new Cluster(prop);
+                    map.put(key, cluster);
+                } else {
+                    cluster.add(prop);
+                }
+                clustered.add(item);
+            }
+            for (String renderableClass : cells.keySet()) {
+                clusters.put(renderableClass, new ArrayList<>(cells.get(renderableClass).values()));
+            }
+        }
+
+        boolean isClustered(DiagramObject item) {
+            return clustered.contains(item);
+        }
+
+        boolean hasClusters(String renderableClass) {
+            return clusters.containsKey(renderableClass);
+        }
+
+        /**
+         * Fills the clusters of the class that fall within the canvas with the current fill style of the context
+         */
+        void draw(AdvancedContext2d ctx, String renderableClass, double factor, Coordinate offset) {
+            List<Cluster> list = clusters.get(renderableClass);
+            if (list == null) return;
+            double width = ctx.getCanvas().getWidth(), height = ctx.getCanvas().getHeight();
+            double ox = offset.getX(), oy = offset.getY();
+            ctx.beginPath();
+            for (Cluster cluster : list) {
+                double x = Math.floor(cluster.minX * factor + ox), y = Math.floor(cluster.minY * factor + oy);
+                double w = Math.max(1, Math.ceil(cluster.maxX * factor + ox) - x);
+                double h = Math.max(1, Math.ceil(cluster.maxY * factor + oy) - y);
+                if (x > width || y > height || x + w < 0 || y + h < 0) continue;
+                ctx.rect(x, y, w, h);
+            }
+            ctx.fill();
+        }
+    }
+
+    private static class Cluster {
+        private double minX, minY, maxX, maxY;
+
+        Cluster(NodeProperties prop) {
+            minX = prop.getX();
+            minY = prop.getY();
+            maxX = prop.getX() + prop.getWidth();
+            maxY = prop.getY() + prop.getHeight();
+        }
+
+        void add(NodeProperties prop) {
+            minX = Math.min(minX, prop.getX());
+            minY = Math.min(minY, prop.getY());
+            maxX = Math.max(maxX, prop.getX() + prop.getWidth());
+            maxY = Math.max(maxY, prop.getY() + prop.getHeight());
+        }
+    }
+}
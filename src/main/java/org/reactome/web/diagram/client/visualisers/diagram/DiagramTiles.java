@@ -0,0 +1,105 @@
+package org.reactome.web.diagram.client.visualisers.diagram;
+
+import com.google.gwt.canvas.client.Canvas;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+
+import java.util.*;
+
+/**
+ * Keeps the static layers of the diagram rendered for the current factor in fixed size tiles, so panning only
+ * needs to blit them with the new offset. Tiles are addressed by column and row in the rendered space (model
+ * coordinates multiplied by the factor) so they do not depend on the offset.
+ *
+ * Every tile contains one canvas per band (group of static layers without any other layer in between them) and
+ * the number of tiles kept is bounded by DiagramFactory.TILES_MEMORY_BUDGET (or, when it is not set, by the size
+ * of the viewport). The least recently used tiles are evicted first and their canvases are reused for the new ones.
+ */
+class DiagramTiles {
+
+    static final int TILE_SIZE = 256;
+
+    private int bands;
+    private double factor = 0;
+    private int viewport = 0;
+    private Map<String, AdvancedContext2d[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    DiagramTiles(int bands) {
+        this.bands = bands;
+    }
+
+    void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * @return the maximum number of tiles kept: the ones that fit in the memory budget (4 bytes per pixel and band)
+     * or, when there is no budget, twice the ones needed to cover the viewport
+     */
+    int getCapacity() {
+        if (DiagramFactory.TILES_MEMORY_BUDGET <= 0) return 2 * viewport;
+        long tileBytes = 4L * TILE_SIZE * TILE_SIZE * bands;
+        return (int) (DiagramFactory.TILES_MEMORY_BUDGET * 1024L * 1024L / tileBytes);
+    }
+
+    /**
+     * @param tiles the number of tiles needed to cover the viewport
+     */
+    void setViewport(int tiles) {
+        this.viewport = tiles;
+    }
+
+    AdvancedContext2d[] get(int col, int row) {
+        return tiles.get(getKey(col, row));
+    }
+
+    boolean contains(int col, int row) {
+        return tiles.containsKey(getKey(col, row));
+    }
+
+    /**
+     * Copies the top left TILE_SIZE square of the canvases in every band into the tile
+     */
+    void put(int col, int row, List<List<AdvancedContext2d>> sources) {
+        AdvancedContext2d[] tile = getNewTile();
+        for (int b = 0; b < bands; b++) {
+            AdvancedContext2d ctx = tile[b];
+            ctx.clearRect(0, 0, TILE_SIZE, TILE_SIZE);
+            for (AdvancedContext2d source : sources.get(b)) {
+                ctx.drawImage(source.getCanvas(), 0, 0, TILE_SIZE, TILE_SIZE, 0, 0, TILE_SIZE, TILE_SIZE);
+            }
+        }
+        tiles.put(getKey(col, row), tile);
+    }
+
+    /**
+     * Tiles are only valid for the factor they were rendered with
+     */
+    void setFactor(double factor) {
+        if (this.factor != factor) {
+            this.factor = factor;
+            tiles.clear();
+        }
+    }
+
+    private AdvancedContext2d[] getNewTile() {
+        if (!tiles.isEmpty() && tiles.size() >= getCapacity()) {
+            Iterator<AdvancedContext2d[]> it = tiles.values().iterator();
+            AdvancedContext2d[] eldest = it.next();
+            it.remove();
+            return eldest;
+        }
+        AdvancedContext2d[] tile = new AdvancedContext2d[bands];
+        for (int b = 0; b < bands; b++) {
+            Canvas canvas = Canvas.createIfSupported();
+            canvas.setCoordinateSpaceWidth(TILE_SIZE);
+            canvas.setCoordinateSpaceHeight(TILE_SIZE);
+            tile[b] = canvas.getContext2d().cast();
+        }
+        return tile;
+    }
+
+    private String getKey(int col, int row) {
+        return col + "," + row;
+    }
+}
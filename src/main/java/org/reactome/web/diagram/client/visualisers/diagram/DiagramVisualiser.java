@@ -25,6 +25,8 @@ import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
 import org.reactome.web.diagram.events.*;
 import org.reactome.web.diagram.handlers.*;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
+import org.reactome.web.diagram.renderers.helper.RenderLayer;
+import org.reactome.web.diagram.renderers.layout.abs.TextRenderer;
 import org.reactome.web.diagram.thumbnail.Thumbnail;
 import org.reactome.web.diagram.util.ViewportUtils;
 import org.reactome.web.diagram.util.chemical.ChemicalImageLoader;
@@ -63,7 +65,8 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     private Coordinate mouseCurrent = CoordinateFactory.get(-100, -100);
     private Coordinate mousePrevious = CoordinateFactory.get(-200, -200);
 
-    private boolean forceDraw = false;
+    private int renderedItems = 0;
+    private long slicedTime = 0; //Time spent in the previous frames of a rendering split among several frames
 
     private Boolean includeInteractors;
 
@@ -122,12 +125,17 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
 
     private void doUpdate() {
         if (context == null) return;
-        if (forceDraw) {
-            forceDraw = false;
+        interactorsManager.flushDrag();
+        boolean dirty = canvas.isDirty();
+        if (dirty || canvas.isRendering()) {
             Box visibleArea = context.getVisibleModelArea(viewportWidth, viewportHeight);
             draw(visibleArea);
-            drawInteractors(visibleArea);
-        }else if (!mouseCurrent.equals(mousePrevious)) {
+            if (canvas.isDirty(RenderLayer.INTERACTORS)) {
+                drawInteractors(visibleArea);
+            }
+        }
+        //The hovered item is also updated while a rendering split among several frames is in progress
+        if (!dirty && !mouseCurrent.equals(mousePrevious)) {
             mousePrevious = mouseCurrent;
             DiagramInteractor hoveredInteractor = getHoveredInteractor();
             canvas.setCursor(hoveredInteractor == null ? Style.Cursor.DEFAULT : Style.Cursor.POINTER);
@@ -146,24 +154,57 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     private void draw(Box visibleArea) {
         if (context == null) return;
         long start = System.currentTimeMillis();
-        canvas.clear();
-        Collection<DiagramObject> items = context.getContent().getVisibleItems(visibleArea);
-        canvas.render(items, context);
-        canvas.select(layoutManager.getSelectedDiagramObjects(), context);
-        canvas.highlight(layoutManager.getHovered(), context);
-        canvas.decorators(layoutManager.getHovered(), context);
-        canvas.halo(layoutManager.getHalo(), context);
-        canvas.flag(layoutManager.getFlagged(), context);
-        long time = System.currentTimeMillis() - start;
-        thumbnail.diagramRendered(context.getContent(), visibleArea);
-        this.eventBus.fireEventFromSource(new DiagramRenderedEvent(context.getContent(), visibleArea, items.size(), time), this);
+        TextRenderer.resetCacheStats();
+        //Only the layers whose input changed since the last frame are cleared and repainted
+        boolean diagram = canvas.isDirty(RenderLayer.DIAGRAM) || canvas.isRendering();
+        if (canvas.isDirty(RenderLayer.DIAGRAM)) {
+            slicedTime = 0;
+            if (canvas.isPlayback()) {
+                Collection<DiagramObject> items = context.getContent().getVisibleItems(visibleArea);
+                canvas.renderColumn(items, context, viewportWidth, viewportHeight);
+                renderedItems = items.size();
+            } else if (canvas.isTiled(viewportWidth, viewportHeight, context.getDiagramStatus().getFactor())) {
+                renderedItems = canvas.renderTiles(context, viewportWidth, viewportHeight);
+            } else {
+                Collection<DiagramObject> items = context.getContent().getVisibleItems(visibleArea);
+                canvas.render(items, context);
+                renderedItems = items.size();
+            }
+        } else if (canvas.isRendering()) {
+            canvas.continueRender();
+        }
+        if (canvas.isDirty(RenderLayer.SELECTION)) {
+            canvas.select(layoutManager.getSelectedDiagramObjects(), context);
+        }
+        if (canvas.isDirty(RenderLayer.HIGHLIGHT)) {
+            canvas.decorators(layoutManager.getHovered(), context);
+            canvas.highlight(layoutManager.getHovered(), context);
+        }
+        if (canvas.isDirty(RenderLayer.HALO)) {
+            canvas.halo(layoutManager.getHalo(), context);
+        }
+        if (canvas.isDirty(RenderLayer.FLAG)) {
+            canvas.flag(layoutManager.getFlagged(), context);
+        }
+        if (canvas.isRendering()) { //The rendering continues in the next frame
+            slicedTime += System.currentTimeMillis() - start;
+            return;
+        }
+
+        long time = slicedTime + System.currentTimeMillis() - start;
+        slicedTime = 0;
+        if (diagram) {
+            thumbnail.diagramRendered(context.getContent(), visibleArea);
+        }
+        this.eventBus.fireEventFromSource(new DiagramRenderedEvent(context.getContent(), visibleArea, renderedItems, time,
+                canvas.getLayerTimes(), TextRenderer.getCacheHits(), TextRenderer.getCacheMisses(), canvas.getSlices(),
+                canvas.getOverlayTime(), canvas.getOverlayRegions(), canvas.isOffscreen()), this);
     }
 
     private void drawInteractors(Box visibleArea) {
         if (context == null) return;
 //        long start = System.currentTimeMillis();
-        String resource = interactorsManager.getCurrentResource();
-        Collection<DiagramInteractor> items = context.getInteractors().getVisibleInteractors(resource, visibleArea);
+        Collection<DiagramInteractor> items = interactorsManager.getVisibleInteractors(visibleArea);
         canvas.renderInteractors(items, context);
         canvas.highlightInteractor(interactorsManager.getHovered(), context);
 //        long time = System.currentTimeMillis() - start;
@@ -182,7 +223,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
         DiagramStatus status = this.context.getDiagramStatus();
         status.setOffset(offset);
         status.setFactor(factor);
-        this.forceDraw = true;
+        this.canvas.invalidateTransform();
         Box visibleArea = this.context.getVisibleModelArea(viewportWidth, viewportHeight);
         this.eventBus.fireEventFromSource(new DiagramZoomEvent(factor, visibleArea), this);
         thumbnail.diagramZoomEvent(visibleArea);
@@ -246,17 +287,17 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
 
     @Override
     public void loadAnalysis(){
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
     public void resetAnalysis(){
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
     public void onAnalysisProfileChanged(AnalysisProfileChangedEvent event) {
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
@@ -270,12 +311,12 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     public void flagItems(Set<DiagramObject> flaggedItems, Boolean includeInteractors){
         this.includeInteractors = includeInteractors;
         layoutManager.setFlagged(flaggedItems);
-        forceDraw = true;
+        canvas.invalidate(RenderLayer.FLAG);
     }
 
     @Override
     public void resetFlag(){
-        if(layoutManager.resetFlagged()) forceDraw = true;
+        if(layoutManager.resetFlagged()) canvas.invalidate(RenderLayer.FLAG);
     }
 
     @Override
@@ -296,14 +337,18 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
             Coordinate model = context.getDiagramStatus().getModelCoordinate(mouseCurrent);
             DiagramObject hovered = layoutManager.getHoveredDiagramObject();
             canvas.notifyHoveredExpression(hovered, model);
-            forceDraw = true; //We give priority to other listeners here
+            if (canvas.isPlayback()) {
+                canvas.invalidate(RenderLayer.values()); //Keeps the pre-rendered columns
+            } else {
+                canvas.invalidate(); //We give priority to other listeners here
+            }
     }
 
     @Override
     public void interactorsCollapsed(String resource){
         Collection<DiagramObject> diagramObjects = context.getContent().getDiagramObjects();
         context.getInteractors().resetBurstInteractors(resource, diagramObjects);
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
@@ -320,7 +365,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
 
     @Override
     public void interactorsLoaded() {
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
@@ -329,7 +374,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
         if(context.getInteractors().isInteractorResourceCached(resource.getIdentifier())) {
             context.getInteractors().restoreInteractorsSummary(resource.getIdentifier(), context.getContent());
         }
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
@@ -341,17 +386,17 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     @Override
     public void onDiagramProfileChanged(DiagramProfileChangedEvent event) {
         thumbnail.diagramProfileChanged();
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     @Override
     public void onInteractorProfileChanged(InteractorProfileChangedEvent event) {
-        forceDraw = true;
+        canvas.invalidate(RenderLayer.INTERACTORS);
     }
 
     @Override
     public void onLayoutImageLoaded(StructureImageLoadedEvent event) {
-        forceDraw = true;
+        canvas.invalidate();
     }
 
     public void setSize(int width, int height) {
@@ -362,7 +407,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
 
         if(canvas!=null) {
             canvas.setSize(width, height);
-            forceDraw = true;
+            canvas.invalidate();
 
             if (this.context != null) {
                 Box visibleArea = this.context.getVisibleModelArea(viewportWidth, viewportHeight);
@@ -404,7 +449,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
         if (context==null) return rtn;
         if (layoutManager.resetSelected()) {
             thumbnail.graphObjectSelected(null);
-            forceDraw = true;
+            canvas.invalidate(RenderLayer.SELECTION, RenderLayer.HALO);
             if(notify) {
                 eventBus.fireEventFromSource(new GraphObjectSelectedEvent(null, false), this);
             }
@@ -501,7 +546,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
         this.context = context;
 
         layoutManager.resetHovered();
-        this.forceDraw = true;
+        this.canvas.invalidate();
         this.context.restoreDialogs();
     }
 
@@ -525,7 +570,9 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
             if (hoveredItem.getSummaryItem() != null) {
                 SummaryItem summaryItem = hoveredItem.getSummaryItem();
                 if(summaryItem.getType().equals("TR")){
-                    forceDraw |= interactorsManager.update(summaryItem, (Node) hoveredItem.getHoveredObject());
+                    if (interactorsManager.update(summaryItem, (Node) hoveredItem.getHoveredObject())) {
+                        canvas.invalidate();
+                    }
                 }
                 eventBus.fireEventFromSource(new EntityDecoratorSelectedEvent(toSelect, hoveredItem.getSummaryItem()), this);
             }
@@ -547,7 +594,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
                 diagramManager.displayDiagramObjects(layoutManager.getHalo());
             }
             thumbnail.graphObjectSelected(toSelect);
-            forceDraw = true;
+            canvas.invalidate(RenderLayer.SELECTION, RenderLayer.HALO);
             if (notify) {
                 eventBus.fireEventFromSource(new GraphObjectSelectedEvent(toSelect, zoom, fireExternally), this);
             }
@@ -572,7 +619,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     @Override
     public void padding(Coordinate delta) {
         context.getDiagramStatus().padding(delta);
-        forceDraw = true;
+        canvas.invalidateTransform();
         Box visibleArea = context.getVisibleModelArea(viewportWidth, viewportHeight);
         thumbnail.diagramPanningEvent(visibleArea);
         eventBus.fireEventFromSource(new DiagramPanningEvent(visibleArea), this);
@@ -611,8 +658,13 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
     public void dragInteractor(InteractorEntity interactor, Coordinate delta) {
         delta = delta.divide(context.getDiagramStatus().getFactor());
         interactorsManager.drag(interactor, delta.getX(), delta.getY());
-        Box visibleArea = context.getVisibleModelArea(viewportWidth, viewportHeight);
-        drawInteractors(visibleArea);
+        canvas.invalidate(RenderLayer.INTERACTORS); //The accumulated moves are applied and drawn in the next frame
+    }
+
+    @Override
+    public void dropInteractor() {
+        if (context == null) return;
+        if (interactorsManager.endDrag()) canvas.invalidate(RenderLayer.INTERACTORS);
     }
 
     private void zoom(double factor, Coordinate mouse) {
@@ -632,7 +684,7 @@ public class DiagramVisualiser extends SimplePanel implements Visualiser,
         Box visibleArea = context.getVisibleModelArea(viewportWidth, viewportHeight);
         eventBus.fireEventFromSource(new DiagramZoomEvent(factor, visibleArea), this);
         thumbnail.diagramZoomEvent(visibleArea);
-        forceDraw = true;  //IMPORTANT: Please leave it at the very end after the event firing
+        canvas.invalidateTransform();  //IMPORTANT: Please leave it at the very end after the event firing
     }
 
     @Override
@@ -0,0 +1,117 @@
+package org.reactome.web.diagram.client.visualisers.diagram;
+
+import com.google.gwt.canvas.client.Canvas;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+
+import java.util.*;
+
+/**
+ * Keeps the layers that depend on the expression column pre-rendered for several columns while an expression
+ * time-series is being played, so moving the playhead to one of them only needs to blit them.
+ *
+ * Only two bands depend on the column: the entities (drawn in the same group than the reaction decorators) and
+ * the text with the analysis overlay on top of it. The rest of the static layers keep what was rendered for the
+ * first column. Frames are only valid for the transform and size they were rendered with and the number of frames
+ * kept is bounded by DiagramFactory.EXPRESSION_FRAMES_BUDGET. The least recently used frames are evicted first and
+ * their canvases are reused for the new ones.
+ */
+class ExpressionFrames {
+
+    private List<List<AdvancedContext2d>> bands;
+    private Map<Integer, AdvancedContext2d[]> frames = new LinkedHashMap<>(16, 0.75f, true);
+
+    private double factor = 0, offsetX = 0, offsetY = 0;
+    private int width = 0, height = 0;
+
+    ExpressionFrames(List<List<AdvancedContext2d>> bands) {
+        this.bands = bands;
+    }
+
+    void clear() {
+        frames.clear();
+    }
+
+    /**
+     * @return the maximum number of frames that fit in the memory budget (4 bytes per pixel and band)
+     */
+    int getCapacity() {
+        long frameBytes = 4L * Math.max(1, width) * Math.max(1, height) * bands.size();
+        return (int) (DiagramFactory.EXPRESSION_FRAMES_BUDGET * 1024L * 1024L / frameBytes);
+    }
+
+    boolean contains(int column) {
+        return frames.containsKey(column);
+    }
+
+    /**
+     * Frames are only valid for the transform and size they were rendered with
+     *
+     * @return true if the kept frames are still valid
+     */
+    boolean setTransform(double factor, Coordinate offset, int width, int height) {
+        if (isCurrent(factor, offset, width, height)) return true;
+        frames.clear(); //Canvases of the discarded frames are not reused since the size might be different
+        this.factor = factor;
+        this.offsetX = offset.getX();
+        this.offsetY = offset.getY();
+        this.width = width;
+        this.height = height;
+        return false;
+    }
+
+    boolean isCurrent(double factor, Coordinate offset, int width, int height) {
+        return this.factor == factor && this.offsetX == offset.getX() && this.offsetY == offset.getY()
+                && this.width == width && this.height == height;
+    }
+
+    /**
+     * Copies the content of the canvases in every band into the frame for the column
+     */
+    void put(int column) {
+        if (getCapacity() < 1) return;
+        AdvancedContext2d[] frame = frames.remove(column);
+        if (frame == null) frame = getNewFrame();
+        for (int b = 0; b < bands.size(); b++) {
+            AdvancedContext2d ctx = frame[b];
+            ctx.clearRect(0, 0, width, height);
+            for (AdvancedContext2d source : bands.get(b)) {
+                ctx.drawImage(source.getCanvas(), 0, 0);
+            }
+        }
+        frames.put(column, frame);
+    }
+
+    /**
+     * Replaces the content of the bands with the frame of the column. Every band is blitted in its lowest layer
+     */
+    void show(int column) {
+        AdvancedContext2d[] frame = frames.get(column);
+        if (frame == null) return;
+        for (int b = 0; b < bands.size(); b++) {
+            List<AdvancedContext2d> band = bands.get(b);
+            for (AdvancedContext2d ctx : band) {
+                ctx.clearRect(0, 0, ctx.getCanvas().getWidth(), ctx.getCanvas().getHeight());
+            }
+            band.get(0).drawImage(frame[b].getCanvas(), 0, 0);
+        }
+    }
+
+    private AdvancedContext2d[] getNewFrame() {
+        if (!frames.isEmpty() && frames.size() >= getCapacity()) {
+            Iterator<AdvancedContext2d[]> it = frames.values().iterator();
+            AdvancedContext2d[] eldest = it.next();
+            it.remove();
+            return eldest;
+        }
+        AdvancedContext2d[] frame = new AdvancedContext2d[bands.size()];
+        for (int b = 0; b < bands.size(); b++) {
+            Canvas canvas = Canvas.createIfSupported();
+            canvas.setCoordinateSpaceWidth(width);
+            canvas.setCoordinateSpaceHeight(height);
+            frame[b] = canvas.getContext2d().cast();
+        }
+        return frame;
+    }
+}
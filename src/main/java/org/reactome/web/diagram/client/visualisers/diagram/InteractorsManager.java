@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.client.visualisers.diagram;
 
+import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.event.shared.EventBus;
 import org.reactome.web.analysis.client.model.FoundElements;
 import org.reactome.web.analysis.client.model.FoundInteractor;
@@ -24,6 +25,7 @@ import org.reactome.web.diagram.renderers.interactor.InteractorRendererManager;
 import org.reactome.web.diagram.util.Console;
 import org.reactome.web.diagram.util.MapSet;
 import org.reactome.web.diagram.util.interactors.InteractorsLayout;
+import uk.ac.ebi.pwp.structures.quadtree.client.Box;
 
 import java.util.*;
 
@@ -36,6 +38,8 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
         InteractorsCollapsedHandler, InteractorsResourceChangedHandler {
 
     private static final int MAX_INTERACTORS = 10;
+    //Time (in ms) laying out the interactors of a burst node can take before yielding to the browser
+    private static final int LAYOUT_FRAME_BUDGET = 8;
 
     private EventBus eventBus;
 
@@ -44,6 +48,12 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
 
     private DiagramInteractor hovered;
     private Set<Node> hitNodes = new HashSet<>();
+    private Map<Node, LayoutTask> layoutTasks = new HashMap<>();
+
+    //Entity being dragged and the items kept out of the QuadTree until the drag ends (the entity and its links)
+    private InteractorEntity dragged;
+    private List<DiagramInteractor> draggedItems = new LinkedList<>();
+    private double dragX = 0, dragY = 0;
 
     public InteractorsManager(EventBus eventBus) {
         this.eventBus = eventBus;
@@ -57,18 +67,72 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
         eventBus.addHandler(InteractorsResourceChangedEvent.TYPE, this);
     }
 
+    /**
+     * The moves are accumulated and applied once per frame (see flushDrag). The dragged entity and its links are
+     * taken out of the QuadTree when the drag starts and only put back when it ends (see endDrag), so the tree is
+     * not updated for every mouse move. In the meantime they are kept aside and merged in the queries.
+     */
     public void drag(InteractorEntity entity, double deltaX, double deltaY){
-        eventBus.fireEventFromSource(new InteractorDraggedEvent(entity), this);
+        if (!Objects.equals(dragged, entity)) {
+            endDrag();
+            startDrag(entity);
+        }
+        dragX += deltaX;
+        dragY += deltaY;
+    }
+
+    /**
+     * Applies the moves accumulated since the last call
+     *
+     * @return true if the dragged entity has been moved
+     */
+    public boolean flushDrag() {
+        if (dragged == null || (dragX == 0 && dragY == 0)) return false;
+        eventBus.fireEventFromSource(new InteractorDraggedEvent(dragged), this);
+        dragged.drag(dragX, dragY);
+        dragX = dragY = 0;
+        return true;
+    }
+
+    /**
+     * Puts the dragged entity and its links back in the QuadTree (at their final position)
+     *
+     * @return true if there was a drag in progress
+     */
+    public boolean endDrag() {
+        if (dragged == null) return false;
+        flushDrag();
+        InteractorsContent interactors = context.getInteractors();
+        for (DiagramInteractor item : draggedItems) {
+            interactors.addToView(currentResource, item);
+        }
+        dragged = null;
+        draggedItems.clear();
+        return true;
+    }
+
+    private void startDrag(InteractorEntity entity) {
+        dragged = entity;
+        draggedItems.add(entity);
+        draggedItems.addAll(entity.getLinks());
         InteractorsContent interactors = context.getInteractors();
-        for (InteractorLink link : entity.getLinks()) {
-            interactors.removeFromView(currentResource, link);
+        for (DiagramInteractor item : draggedItems) {
+            interactors.removeFromView(currentResource, item);
         }
-        interactors.removeFromView(currentResource, entity);
-        entity.drag(deltaX, deltaY);
-        interactors.addToView(currentResource, entity);
-        for (InteractorLink link : entity.getLinks()) {
-            interactors.addToView(currentResource, link);
+    }
+
+    //The drag session (and its pending moves) is discarded, but the items taken out of the QuadTree are put back
+    //since the content is kept in the cache and can be displayed again
+    private void resetDrag() {
+        if (dragged != null && context != null) {
+            InteractorsContent interactors = context.getInteractors();
+            for (DiagramInteractor item : draggedItems) {
+                interactors.addToView(currentResource, item);
+            }
         }
+        dragged = null;
+        draggedItems.clear();
+        dragX = dragY = 0;
     }
 
     public String getCurrentResource() {
@@ -87,7 +151,8 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
     public Collection<DiagramInteractor> getHovered(Coordinate model) {
         List<DiagramInteractor> rtn = new LinkedList<>();
         if (context == null) return rtn;
-        Collection<DiagramInteractor> target = context.getInteractors().getHoveredTarget(currentResource, model, context.getDiagramStatus().getFactor());
+        List<DiagramInteractor> target = new LinkedList<>(context.getInteractors().getHoveredTarget(currentResource, model, context.getDiagramStatus().getFactor()));
+        target.addAll(draggedItems);
         for (DiagramInteractor interactor : target) {
             InteractorRenderer renderer = InteractorRendererManager.get().getRenderer(interactor);
             if (renderer.isVisible(interactor) && interactor.isHovered(model)) {
@@ -97,6 +162,18 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
         return rtn;
     }
 
+    /**
+     * @return the interactors in the visible area, including the ones being dragged (not in the QuadTree)
+     */
+    public Collection<DiagramInteractor> getVisibleInteractors(Box visibleArea) {
+        Collection<DiagramInteractor> rtn = context.getInteractors().getVisibleInteractors(currentResource, visibleArea);
+        if (draggedItems.isEmpty()) return rtn;
+        //Same kind of set the QuadTree returns so the drawing order does not change when the drag ends
+        Set<DiagramInteractor> aux = new HashSet<>(rtn);
+        aux.addAll(draggedItems);
+        return aux;
+    }
+
     public boolean isHighlighted(DiagramInteractor item) {
         return Objects.equals(hovered, item);
     }
@@ -110,17 +187,20 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
 
     @Override
     public void onContentRequested(ContentRequestedEvent event) {
+        resetDrag();
         context = null;
     }
 
     @Override
     public void onInteractorsCollapsed(InteractorsCollapsedEvent event) {
+        resetDrag();
         context.getInteractors().clearInteractors(currentResource);
         eventBus.fireEventFromSource(new InteractorsLayoutUpdatedEvent(), this);
     }
 
     @Override
     public void onInteractorsResourceChanged(InteractorsResourceChangedEvent event) {
+        if (context != null) endDrag();
         currentResource = event.getResource().getIdentifier();
         boolean isStaticResource = DiagramFactory.INTERACTORS_INITIAL_RESOURCE.equals(currentResource);
         for (Node hitNode : hitNodes) {
@@ -190,9 +270,10 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
 
     //Why do we need a layout node? easy... layout! layout! layout! :D
     private void loadInteractors(Node node) {
-        InteractorsLayout layoutBuilder = new InteractorsLayout(node);
-        GraphPhysicalEntity p = node.getGraphObject();
+        cancelLayout(node);
         InteractorsContent interactors = context.getInteractors();
+        InteractorsLayout layoutBuilder = new InteractorsLayout(node, context.getContent(), interactors, currentResource);
+        GraphPhysicalEntity p = node.getGraphObject();
         List<RawInteractor> rawInteractors = interactors.getRawInteractors(currentResource, p.getIdentifier());
 
         //Keeping a list of the dynamic interactors will help later to decide the number of visible interactors
@@ -234,34 +315,86 @@ public class InteractorsManager implements ContentLoadedHandler, ContentRequeste
 
         //From those that are not visible, we pick the top "allowed" number
         int n = getNumberOfInteractorsToDraw(dynamicInteractors);
-        for (int i = 0; i < n; i++) {
-            RawInteractor rawInteractor = dynamicInteractors.get(i);
+        if (n == 0) {
+            eventBus.fireEventFromSource(new InteractorsLayoutUpdatedEvent(), this);
+            return;
+        }
+        //The interactors are laid out (avoiding the ones placed before) in slices within the LAYOUT_FRAME_BUDGET
+        LayoutTask task = new LayoutTask(node, layoutBuilder, dynamicInteractors.subList(0, n));
+        layoutTasks.put(node, task);
+        Scheduler.get().scheduleDeferred(task);
+    }
 
-            InteractorEntity interactor = getOrCreateInteractorEntity(rawInteractor);
+    private void cancelLayout(Node node) {
+        LayoutTask task = layoutTasks.remove(node);
+        if (task != null) task.cancelled = true;
+    }
 
-            //the maximum number of elements (n) is used here for layout beauty purposes
-            if (layoutBuilder.doLayout(interactor, i, n)) {
-                //If an interactor has been moved, all the links pointing to it need to update their boundaries
-                for (InteractorLink link : interactor.getLinks()) {
-                    link.setBoundaries();
-                    interactors.updateView(currentResource, link);
-                }
+    private void addInteractor(Node node, InteractorsLayout layoutBuilder, RawInteractor rawInteractor, int i, int n) {
+        InteractorsContent interactors = context.getInteractors();
+        InteractorEntity interactor = getOrCreateInteractorEntity(rawInteractor);
+
+        //the maximum number of elements (n) is used here for layout beauty purposes
+        if (layoutBuilder.doLayout(interactor, i, n)) {
+            //If an interactor has been moved, all the links pointing to it need to update their boundaries
+            for (InteractorLink link : interactor.getLinks()) {
+                link.setBoundaries();
+                interactors.updateView(currentResource, link);
             }
+        }
 
-            InteractorLink link = interactor.addLink(node, rawInteractor.getId(), rawInteractor.getEvidences(), rawInteractor.getEvidencesURL(), rawInteractor.getScore());
-            interactors.cache(currentResource, interactor);
-            interactors.cache(currentResource, node, link);
+        InteractorLink link = interactor.addLink(node, rawInteractor.getId(), rawInteractor.getEvidences(), rawInteractor.getEvidencesURL(), rawInteractor.getScore());
+        interactors.cache(currentResource, interactor);
+        interactors.cache(currentResource, node, link);
 
-            //adding to the QuadTree also needs to be done after the doLayout
-            interactors.addToView(currentResource, interactor);
-            interactors.addToView(currentResource, link);
+        //adding to the QuadTree also needs to be done after the doLayout
+        interactors.addToView(currentResource, interactor);
+        interactors.addToView(currentResource, link);
+    }
+
+    //Every slice is scheduled as a new deferred command, so the browser gets the control back in between (an
+    //incremental command would be executed again straight away until the scheduler's own time slice is over)
+    private class LayoutTask implements Scheduler.ScheduledCommand {
+        private Node node;
+        private InteractorsLayout layoutBuilder;
+        private List<RawInteractor> rawInteractors;
+        private Context context = InteractorsManager.this.context;
+        private String resource = currentResource;
+        private boolean cancelled = false;
+        private int i = 0;
+
+        LayoutTask(Node node, InteractorsLayout layoutBuilder, List<RawInteractor> rawInteractors) {
+            this.node = node;
+            this.layoutBuilder = layoutBuilder;
+            this.rawInteractors = rawInteractors;
+        }
+
+        @Override
+        public void execute() {
+            //The node might have been collapsed or the content or resource changed in the meantime
+            if (cancelled || context != InteractorsManager.this.context || !Objects.equals(resource, currentResource)) {
+                return;
+            }
+            int n = rawInteractors.size();
+            long deadline = System.currentTimeMillis() + LAYOUT_FRAME_BUDGET;
+            do {
+                addInteractor(node, layoutBuilder, rawInteractors.get(i), i, n);
+                i++;
+            } while (i < n && System.currentTimeMillis() < deadline);
+            if (i == n) {
+                layoutTasks.remove(node);
+            } else {
+                Scheduler.get().scheduleDeferred(this);
+            }
+            eventBus.fireEventFromSource(new InteractorsLayoutUpdatedEvent(), InteractorsManager.this);
         }
-        eventBus.fireEventFromSource(new InteractorsLayoutUpdatedEvent(), this);
     }
 
     //Removing interactors consist in removing ALL the links but not the entities
     //The reason why is because we want to keep them cached (PDBe or ChEBI data might have been retrieved)
     private void removeInteractors(Node node) {
+        cancelLayout(node);
+        endDrag();
         InteractorsContent interactors = context.getInteractors();
         Console.log(interactors.getInteractorLinks(currentResource, node).size() + " links to remove");
         for (InteractorLink link : interactors.getInteractorLinks(currentResource, node)) {
@@ -2,6 +2,7 @@ package org.reactome.web.diagram.client.visualisers.diagram;
 
 import com.google.gwt.event.shared.EventBus;
 import org.reactome.web.diagram.data.Context;
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.graph.model.GraphPhysicalEntity;
 import org.reactome.web.diagram.data.layout.Coordinate;
@@ -65,10 +66,11 @@ public class LayoutManager implements ContentLoadedHandler, ContentRequestedHand
         List<HoveredItem> rtn = new LinkedList<>();
         if(context==null) return rtn;
         Collection<DiagramObject> target = this.context.getContent().getHoveredTarget(model, context.getDiagramStatus().getFactor());
+        DiagramHitIndex.Hits near = this.context.getContent().getNearPrimitives(model);
         for (DiagramObject item : target) {
             Renderer renderer = RendererManager.get().getRenderer(item);
             if (renderer != null) {
-                HoveredItem hovered = renderer.getHovered(item, model);
+                HoveredItem hovered = renderer.getHovered(item, model, near);
                 if (hovered != null) {
                     rtn.add(hovered);
                 }
@@ -0,0 +1,512 @@
+package org.reactome.web.diagram.client.visualisers.diagram;
+
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.data.content.Content;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+import org.reactome.web.diagram.util.Console;
+import uk.ac.ebi.pwp.structures.quadtree.client.Box;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paints the static layers of the diagram in a Web Worker. The control of the layer canvases is transferred to
+ * OffscreenCanvas instances owned by the worker, and the renderers draw in recording contexts instead: they
+ * behave as a 2D context (the state and measureText are kept by a small canvas in the UI thread) but the drawing
+ * commands are only recorded. Once the rendering is finished, the commands of every layer are sent to the worker
+ * that replays them. Images drawn in the layers (structures) are sent as ImageData. The analysis overlay is
+ * composed in the UI thread, so while there is an analysis the layers are painted in the UI thread (see setDirect)
+ * instead of sending the pixels of every overlaid node to the worker.
+ *
+ * Recordings made for a given area (see begin) are kept in the worker, so while the viewport stays within that
+ * area at the same factor, only the offset is sent and the worker replays them translated (see setOffset). The
+ * area is twice the viewport in each dimension, so a recording takes four times the items of the viewport in the
+ * UI thread and every pan replays all of them in the worker.
+ *
+ * The worker paints in its own animation frames, so while panning the static layers can be shown a frame behind
+ * the ones painted in the UI thread (selection, halo, flags, interactors...). Nothing in the UI thread waits for
+ * the worker.
+ *
+ * The worker is created from an inline script. Once the canvases are transferred the UI thread cannot draw in
+ * them anymore, so the decision is taken when the layers are created: when DiagramFactory.OFFSCREEN_RENDERING is
+ * not set or workers, OffscreenCanvas or the transfer of the canvases are not supported, create returns null and
+ * the layers are painted in the UI thread. Every transferred canvas comes with a fallback canvas that is kept
+ * hidden (and without a backing store) until the layers have to be painted in the UI thread (see setDirect): the
+ * recording contexts then forward the commands to the fallback contexts instead of recording them. This is the
+ * case from the moment the worker fails, since its canvases cannot be recovered.
+ */
+class OffscreenLayers {
+
+    private static final String SCRIPT = "" +
+            "var layers = [], commands = [], x = 0, y = 0, scheduled = false;\n" +
+            "var next = self.requestAnimationFrame ? function (f) { self.requestAnimationFrame(f); } : function (f) { setTimeout(f, 0); };\n" +
+            "var image = function (data) {\n" +
+            "    if (!data.canvas) {\n" +
+            "        data.canvas = new OffscreenCanvas(data.image.width, data.image.height);\n" +
+            "        data.canvas.getContext('2d').putImageData(data.image, 0, 0);\n" +
+            "    }\n" +
+            "    return data.canvas;\n" +
+            "};\n" +
+            "var run = function (ctx, c) {\n" +
+            "    if (c[0] === '=') {\n" +
+            "        ctx[c[1]] = c[2];\n" +
+            "        return;\n" +
+            "    }\n" +
+            "    var args = c.slice(1);\n" +
+            "    if (c[0] === 'drawImage') args[0] = image(args[0]);\n" +
+            "    ctx[c[0]].apply(ctx, args);\n" +
+            "};\n" +
+            "var paint = function () {\n" +
+            "    scheduled = false;\n" +
+            "    for (var i = 0; i < layers.length; i++) {\n" +
+            "        var ctx = layers[i], cmds = commands[i];\n" +
+            "        ctx.setTransform(1, 0, 0, 1, 0, 0);\n" +
+            "        ctx.clearRect(0, 0, ctx.canvas.width, ctx.canvas.height);\n" +
+            "        if (!cmds) continue;\n" +
+            "        ctx.save();\n" +
+            "        ctx.translate(x, y);\n" +
+            "        for (var j = 0; j < cmds.length; j++) run(ctx, cmds[j]);\n" +
+            "        ctx.restore();\n" +
+            "    }\n" +
+            "};\n" +
+            "var schedule = function () {\n" +
+            "    if (!scheduled) {\n" +
+            "        scheduled = true;\n" +
+            "        next(paint);\n" +
+            "    }\n" +
+            "};\n" +
+            "self.onmessage = function (e) {\n" +
+            "    var m = e.data;\n" +
+            "    switch (m.type) {\n" +
+            "        case 'layer':\n" +
+            "            layers.push(m.canvas.getContext('2d'));\n" +
+            "            break;\n" +
+            "        case 'size':\n" +
+            "            for (var i = 0; i < layers.length; i++) {\n" +
+            "                layers[i].canvas.width = m.width;\n" +
+            "                layers[i].canvas.height = m.height;\n" +
+            "            }\n" +
+            "            schedule();\n" +
+            "            break;\n" +
+            "        case 'draw':\n" +
+            "            commands = m.commands;\n" +
+            "            x = m.x; y = m.y;\n" +
+            "            schedule();\n" +
+            "            break;\n" +
+            "        case 'offset':\n" +
+            "            x = m.x; y = m.y;\n" +
+            "            schedule();\n" +
+            "            break;\n" +
+            "        case 'clear':\n" +
+            "            commands = [];\n" +
+            "            schedule();\n" +
+            "            break;\n" +
+            "    }\n" +
+            "};";
+
+    //Constructor of the recording contexts (created the first time a layer is added)
+    private static JavaScriptObject recorderType;
+
+    private JavaScriptObject worker;
+    private Runnable onFallback;
+    private List<Canvas> canvases = new ArrayList<>();
+    private List<Canvas> fallbacks = new ArrayList<>();
+    private JsArray<AdvancedContext2d> recorders = JavaScriptObject.createArray().cast();
+    private JsArray<Context2d> targets = JavaScriptObject.createArray().cast();
+    private int width, height;
+
+    //The layers are painted in the UI thread (always once the worker has failed)
+    private boolean direct = false;
+    private boolean failed = false;
+
+    //The recording kept in the worker (area is null when there is none that can be reused)
+    private Content content;
+    private double factor;
+    private Box area;
+    private double originX, originY;
+    private double offsetX, offsetY;
+
+    private OffscreenLayers(JavaScriptObject worker, Runnable onFallback) {
+        this.worker = worker;
+        this.onFallback = onFallback;
+        listen(worker);
+    }
+
+    /**
+     * @param onFallback run when the worker fails and the layers are painted in the UI thread from then on (all of
+     *                   them have to be painted again)
+     * @return the worker backend or null when the static layers have to be painted in the UI thread
+     */
+    static OffscreenLayers create(Runnable onFallback) {
+        if (!DiagramFactory.OFFSCREEN_RENDERING) return null;
+        if (!isSupported()) {
+            Console.info("OffscreenCanvas is not available. The diagram will be rendered in the UI thread.");
+            return null;
+        }
+        JavaScriptObject worker = create(SCRIPT);
+        if (worker == null) {
+            Console.info("The rendering worker cannot be created. The diagram will be rendered in the UI thread.");
+            return null;
+        }
+        return new OffscreenLayers(worker, onFallback);
+    }
+
+    /**
+     * Transfers the control of the canvas to the worker. It has to be called before using its 2D context
+     *
+     * @param fallback the canvas painted instead when the layers are painted in the UI thread (placed along with
+     *                 the transferred one)
+     * @return the context where the commands for the layer are recorded
+     */
+    AdvancedContext2d add(Canvas canvas, Canvas fallback) {
+        AdvancedContext2d recorder = transfer(worker, canvas.getCanvasElement()).cast();
+        width = canvas.getCoordinateSpaceWidth();
+        height = canvas.getCoordinateSpaceHeight();
+        fallback.setVisible(false);
+        fallback.setCoordinateSpaceWidth(0);
+        fallback.setCoordinateSpaceHeight(0);
+        canvases.add(canvas);
+        fallbacks.add(fallback);
+        recorders.push(recorder);
+        targets.push(fallback.getContext2d());
+        return recorder;
+    }
+
+    /**
+     * @return true for the transferred canvases and their fallbacks (their size is handled here, see setSize)
+     */
+    boolean contains(Canvas canvas) {
+        return canvases.contains(canvas) || fallbacks.contains(canvas);
+    }
+
+    void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        if (direct) resize(fallbacks, width, height);
+        if (!failed) postSize(worker, width, height);
+    }
+
+    /**
+     * @return true if the layers are painted in the UI thread (in the fallback canvases)
+     */
+    boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * @return true if the worker has failed, so the layers are painted in the UI thread for good
+     */
+    boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Switches between painting the layers in the worker and in the UI thread. The fallback canvases only have a
+     * backing store while they are used, and the state of the contexts (styles, line width...) is carried over.
+     * Once the worker has failed the layers are always painted in the UI thread
+     *
+     * @return true if the switch took place, so all the layers have to be painted again
+     */
+    boolean setDirect(boolean direct) {
+        if (failed || this.direct == direct) return false;
+        this.direct = direct;
+        reset();
+        switchTo(direct);
+        if (direct) postClear(worker);
+        return true;
+    }
+
+    private void switchTo(boolean direct) {
+        if (direct) { //The coordinate space has to be set before passing the state to the fallback contexts
+            resize(fallbacks, width, height);
+            forward(recorders, targets, true);
+        } else {
+            forward(recorders, targets, false);
+            resize(fallbacks, 0, 0);
+        }
+        for (int i = 0; i < canvases.size(); i++) {
+            canvases.get(i).setVisible(!direct);
+            fallbacks.get(i).setVisible(direct);
+        }
+    }
+
+    private static void resize(List<Canvas> canvases, int width, int height) {
+        for (Canvas canvas : canvases) {
+            canvas.setCoordinateSpaceWidth(width);
+            canvas.setCoordinateSpaceHeight(height);
+        }
+    }
+
+    /**
+     * The recording kept in the worker cannot be reused anymore (content, profiles or analysis changed)
+     */
+    void reset() {
+        content = null;
+        area = null;
+    }
+
+    /**
+     * Removes the recording from the worker (the layers are painted empty)
+     */
+    void clear() {
+        reset();
+        if (direct) {
+            for (int i = 0; i < targets.length(); i++) {
+                targets.get(i).clearRect(0, 0, width, height);
+            }
+        } else {
+            postClear(worker);
+        }
+    }
+
+    /**
+     * @return true if the recording kept in the worker contains the given area for the content and factor
+     */
+    boolean covers(Content content, double factor, Box visible) {
+        if (area == null || this.content != content || this.factor != factor) return false;
+        return area.getMinX() <= visible.getMinX() && area.getMinY() <= visible.getMinY()
+                && visible.getMaxX() <= area.getMaxX() && visible.getMaxY() <= area.getMaxY();
+    }
+
+    /**
+     * Starts a new recording in every layer. The recording contexts keep the state of the previous one
+     *
+     * @param area   the area (in model coordinates) that is recorded to be reused while panning
+     * @param origin the offset used to record the items
+     * @param offset the offset of the viewport
+     * @param width  the width of the recorded area (in pixels)
+     * @param height the height of the recorded area (in pixels)
+     */
+    void begin(Content content, double factor, Box area, Coordinate origin, Coordinate offset, double width, double height) {
+        if (direct) return;
+        this.content = content;
+        this.factor = factor;
+        this.area = area;
+        this.originX = origin.getX();
+        this.originY = origin.getY();
+        this.offsetX = offset.getX();
+        this.offsetY = offset.getY();
+        begin(recorders, width, height);
+    }
+
+    /**
+     * Sends the recording to the worker
+     */
+    void commit() {
+        if (direct) return;
+        postDraw(worker, recorders, offsetX - originX, offsetY - originY);
+    }
+
+    /**
+     * Paints the recording kept in the worker for a new offset (see covers)
+     */
+    void setOffset(Coordinate offset) {
+        if (direct) return;
+        offsetX = offset.getX();
+        offsetY = offset.getY();
+        postOffset(worker, offsetX - originX, offsetY - originY);
+    }
+
+    private void onWorkerError(String message) {
+        if (failed) return;
+        //The transferred canvases cannot be recovered, so the fallback ones are painted in the UI thread from now on
+        Console.error("The rendering worker failed (" + message + "). The diagram is rendered in the UI thread.", this);
+        setDirect(true);
+        failed = true;
+        terminate(worker);
+        onFallback.run();
+    }
+
+    private static native boolean isSupported() /*-{
+        try {
+            return !!$wnd.Worker && !!$wnd.Blob && !!$wnd.URL && !!$wnd.URL.createObjectURL && !!$wnd.OffscreenCanvas
+                && !!$wnd.HTMLCanvasElement && typeof $wnd.HTMLCanvasElement.prototype.transferControlToOffscreen === 'function';
+        } catch (e) {
+            return false;
+        }
+    }-*/;
+
+    private static native JavaScriptObject create(String script) /*-{
+        try {
+            var url = $wnd.URL.createObjectURL(new $wnd.Blob([script], {type: 'application/javascript'}));
+            return new $wnd.Worker(url);
+        } catch (e) {
+            return null;
+        }
+    }-*/;
+
+    private native void listen(JavaScriptObject worker) /*-{
+        var _this = this;
+        worker.onerror = $entry(function (e) {
+            _this.@org.reactome.web.diagram.client.visualisers.diagram.OffscreenLayers::onWorkerError(Ljava/lang/String;)(e && e.message ? e.message : 'unknown error');
+        });
+        worker.onmessageerror = $entry(function () {
+            _this.@org.reactome.web.diagram.client.visualisers.diagram.OffscreenLayers::onWorkerError(Ljava/lang/String;)('the message cannot be deserialised');
+        });
+    }-*/;
+
+    private static native void terminate(JavaScriptObject worker) /*-{
+        worker.terminate();
+    }-*/;
+
+    /**
+     * Creates the recording context for the canvas and transfers the canvas to the worker. The methods of the 2D
+     * context that draw or build paths are only recorded, the ones returning information (measureText, getters,
+     * etc.) are only run in the shadow context and the rest (state, transform, line dash) are run and recorded.
+     * While the layers are painted in the UI thread (see setDirect), everything is forwarded to the fallback context.
+     */
+    private static native JavaScriptObject transfer(JavaScriptObject worker, JavaScriptObject canvas) /*-{
+        var Recorder = @org.reactome.web.diagram.client.visualisers.diagram.OffscreenLayers::recorderType;
+        if (!Recorder) {
+            Recorder = function () {
+                var shadow = $doc.createElement('canvas');
+                shadow.width = shadow.height = 1;
+                this.__shadow = shadow.getContext('2d');
+                this.__commands = [];
+                this.__recording = true;
+                this.canvas = {width: 0, height: 0};
+            };
+            var record = ['beginPath', 'closePath', 'moveTo', 'lineTo', 'bezierCurveTo', 'quadraticCurveTo', 'arc',
+                'arcTo', 'ellipse', 'rect', 'roundRect', 'fill', 'stroke', 'clip', 'fillRect', 'strokeRect',
+                'clearRect', 'fillText', 'strokeText', 'drawImage', 'putImageData'];
+            var query = ['measureText', 'getLineDash', 'getTransform', 'isPointInPath', 'isPointInStroke',
+                'getImageData', 'createImageData', 'createLinearGradient', 'createRadialGradient',
+                'createConicGradient', 'createPattern', 'getContextAttributes', 'isContextLost'];
+            //Images cannot be sent to the worker, so the part that is drawn is copied as ImageData
+            var copy = function (source, sx, sy, sw, sh) {
+                var scratch = $doc.createElement('canvas');
+                scratch.width = Math.max(1, Math.ceil(sw));
+                scratch.height = Math.max(1, Math.ceil(sh));
+                var ctx = scratch.getContext('2d');
+                ctx.drawImage(source, sx, sy, sw, sh, 0, 0, sw, sh);
+                return {image: ctx.getImageData(0, 0, scratch.width, scratch.height)};
+            };
+            var drawImage = function (args) {
+                var source = args[0];
+                var w = source.naturalWidth || source.width, h = source.naturalHeight || source.height;
+                if (!w || !h) return null;
+                try {
+                    if (args.length === 3) return ['drawImage', copy(source, 0, 0, w, h), args[1], args[2], w, h];
+                    if (args.length === 5) return ['drawImage', copy(source, 0, 0, w, h), args[1], args[2], args[3], args[4]];
+                    return ['drawImage', copy(source, args[1], args[2], args[3], args[4]), 0, 0, args[3], args[4], args[5], args[6], args[7], args[8]];
+                } catch (e) {
+                    return null; //For instance, images from other origins cannot be copied
+                }
+            };
+            var proto = $wnd.CanvasRenderingContext2D.prototype;
+            Object.getOwnPropertyNames(proto).forEach(function (name) {
+                if (name === 'canvas' || name === 'constructor') return;
+                var descriptor = Object.getOwnPropertyDescriptor(proto, name);
+                if (typeof descriptor.value === 'function') {
+                    if (record.indexOf(name) >= 0) {
+                        Recorder.prototype[name] = function () {
+                            if (this.__direct) return this.__direct[name].apply(this.__direct, arguments);
+                            var args = Array.prototype.slice.call(arguments);
+                            var command = name === 'drawImage' ? drawImage(args) : [name].concat(args);
+                            if (command) this.__commands.push(command);
+                        };
+                    } else if (query.indexOf(name) >= 0) {
+                        Recorder.prototype[name] = function () {
+                            var target = this.__direct || this.__shadow;
+                            return target[name].apply(target, arguments);
+                        };
+                    } else {
+                        Recorder.prototype[name] = function () {
+                            if (this.__direct) return this.__direct[name].apply(this.__direct, arguments);
+                            this.__commands.push([name].concat(Array.prototype.slice.call(arguments)));
+                            return this.__shadow[name].apply(this.__shadow, arguments);
+                        };
+                    }
+                } else if (descriptor.get && descriptor.set) {
+                    Object.defineProperty(Recorder.prototype, name, {
+                        get: function () {
+                            return (this.__direct || this.__shadow)[name];
+                        },
+                        set: function (value) {
+                            if (this.__direct) {
+                                this.__direct[name] = value;
+                                return;
+                            }
+                            this.__shadow[name] = value;
+                            //Gradients and patterns cannot be sent to the worker
+                            if (typeof value !== 'object') this.__commands.push(['=', name, value]);
+                        }
+                    });
+                }
+            });
+            @org.reactome.web.diagram.client.visualisers.diagram.OffscreenLayers::recorderType = Recorder;
+        }
+        var offscreen = canvas.transferControlToOffscreen();
+        worker.postMessage({type: 'layer', canvas: offscreen}, [offscreen]);
+        var recorder = new Recorder();
+        recorder.canvas = {width: canvas.width, height: canvas.height};
+        return recorder;
+    }-*/;
+
+    //Every recording starts with the state of the context, since the previous commands are discarded
+    private static native void begin(JsArray<AdvancedContext2d> recorders, double width, double height) /*-{
+        for (var i = 0; i < recorders.length; i++) {
+            var recorder = recorders[i], shadow = recorder.__shadow, state = [];
+            for (var name in shadow) {
+                var value = shadow[name];
+                if (name !== 'canvas' && typeof value !== 'object' && typeof value !== 'function') {
+                    state.push(['=', name, value]);
+                }
+            }
+            state.push(['setLineDash', shadow.getLineDash()]);
+            recorder.__commands = state;
+            recorder.canvas.width = width;
+            recorder.canvas.height = height;
+        }
+    }-*/;
+
+    //The state of the context is passed on to the one taking over, so it does not depend on when the switch happens
+    private static native void forward(JsArray<AdvancedContext2d> recorders, JsArray<Context2d> targets, boolean direct) /*-{
+        var copy = function (from, to) {
+            for (var name in from) {
+                var value = from[name];
+                if (name !== 'canvas' && typeof value !== 'object' && typeof value !== 'function') to[name] = value;
+            }
+            to.setLineDash(from.getLineDash());
+        };
+        for (var i = 0; i < recorders.length; i++) {
+            var recorder = recorders[i], target = targets[i];
+            if (direct) {
+                copy(recorder.__shadow, target);
+                recorder.__direct = target;
+                recorder.__recording = false;
+                recorder.canvas = target.canvas;
+            } else {
+                copy(target, recorder.__shadow);
+                recorder.__direct = null;
+                recorder.__recording = true;
+                recorder.canvas = {width: target.canvas.width, height: target.canvas.height};
+            }
+        }
+    }-*/;
+
+    private static native void postDraw(JavaScriptObject worker, JsArray<AdvancedContext2d> recorders, double x, double y) /*-{
+        var commands = [];
+        for (var i = 0; i < recorders.length; i++) {
+            commands.push(recorders[i].__commands);
+        }
+        worker.postMessage({type: 'draw', commands: commands, x: x, y: y});
+    }-*/;
+
+    private static native void postOffset(JavaScriptObject worker, double x, double y) /*-{
+        worker.postMessage({type: 'offset', x: x, y: y});
+    }-*/;
+
+    private static native void postSize(JavaScriptObject worker, int width, int height) /*-{
+        worker.postMessage({type: 'size', width: width, height: height});
+    }-*/;
+
+    private static native void postClear(JavaScriptObject worker) /*-{
+        worker.postMessage({type: 'clear'});
+    }-*/;
+}
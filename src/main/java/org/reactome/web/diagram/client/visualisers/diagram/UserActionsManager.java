@@ -26,6 +26,7 @@ class UserActionsManager implements MouseActionsHandlers {
         HoveredItem getHoveredDiagramObject();
         DiagramInteractor getHoveredInteractor();
         void dragInteractor(InteractorEntity interactor, Coordinate delta);
+        void dropInteractor();
         void loadDiagram(String stId);
         void mouseZoom(double delta);
         void padding(Coordinate delta);
@@ -136,6 +137,7 @@ class UserActionsManager implements MouseActionsHandlers {
 
     @Override
     public void onMouseOut(MouseOutEvent event) {
+        handler.dropInteractor();
         diagramMoved = false;
         mouseDown = null;
         canvas.setCursor(Style.Cursor.DEFAULT);
@@ -150,6 +152,7 @@ class UserActionsManager implements MouseActionsHandlers {
         event.preventDefault();
         HoveredItem hovered = handler.getHoveredDiagramObject();
         canvas.setCursor(hovered == null ? Style.Cursor.DEFAULT : Style.Cursor.POINTER);
+        handler.dropInteractor();
         mouseDown = null;
     }
 
@@ -166,6 +169,7 @@ class UserActionsManager implements MouseActionsHandlers {
 
     @Override
     public void onTouchCancel(TouchCancelEvent event) {
+        handler.dropInteractor();
         if (longTapTimer.isRunning()) { longTapTimer.cancel(); }
         mouseDown = null;
         diagramMoved = false;
@@ -175,6 +179,7 @@ class UserActionsManager implements MouseActionsHandlers {
 
     @Override
     public void onTouchEnd(TouchEndEvent event) {
+        handler.dropInteractor();
         //Continue scrolling has priority to ehld user action
         if(ViewerContainer.windowScrolling.isRunning()) return;
 
@@ -3,7 +3,6 @@ package org.reactome.web.diagram.client.visualisers.ehld;
 import com.google.gwt.dom.client.Style;
 import com.google.gwt.event.dom.client.MouseEvent;
 import com.google.gwt.event.shared.EventBus;
-import com.google.gwt.i18n.client.NumberFormat;
 import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.user.client.ui.Image;
@@ -185,14 +184,6 @@ public abstract class AbstractSVGPanel extends AbsolutePanel {
         return svgLayers;
     }
 
-    protected String hex2Rgb(String colorStr, float alpha) {
-        int r = Integer.valueOf( colorStr.substring( 1, 3 ), 16 );
-        int g = Integer.valueOf( colorStr.substring( 3, 5 ), 16 );
-        int b = Integer.valueOf( colorStr.substring( 5, 7 ), 16 );
-        float a = alpha >= 0 && alpha <= 1 ? alpha : 1.0f;
-        return "rgba(" + r + "," + g + "," + b + "," + NumberFormat.getFormat("#.#").format(a) + ")";
-    }
-
     protected void initFilters() {
         baseDefs = new OMSVGDefsElement();
         baseDefs.appendChild(FilterFactory.getShadowFilter(HOVERING_FILTER));
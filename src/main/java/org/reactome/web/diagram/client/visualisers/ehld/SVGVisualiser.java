@@ -40,6 +40,7 @@ import org.reactome.web.diagram.profiles.analysis.AnalysisColours;
 import org.reactome.web.diagram.thumbnail.Thumbnail;
 import org.reactome.web.diagram.thumbnail.ehld.SVGThumbnail;
 import org.reactome.web.diagram.util.Console;
+import org.reactome.web.diagram.util.gradient.ThreeColorGradient;
 import org.reactome.web.diagram.util.svg.SVGUtil;
 import org.reactome.web.pwp.model.client.classes.DatabaseObject;
 import org.reactome.web.pwp.model.client.classes.Pathway;
@@ -68,6 +69,7 @@ public class SVGVisualiser extends AbstractSVGPanel implements Visualiser,
 
     private static final String CLIPPING_PATH = "CLIPPINGPATH-";
     private static final String CLIPPING_RECT = "CLIPPINGRECT-";
+    private static final String NOT_HIT_OVERLAY_COLOUR = "rgba(194,194,194,0.9)"; //#C2C2C2
 
     private static final String CURSOR = "cursor: pointer;";
     private static final float ZOOM_IN_STEP = 1.1f;
@@ -815,32 +817,33 @@ public class SVGVisualiser extends AbstractSVGPanel implements Visualiser,
                     case OVERREPRESENTATION:
                         percentage = graphPathway.isHit() ? graphPathway.getPercentage().floatValue() : 0;
 
-                        String enrichColour = "#C2C2C2";
+                        String enrichColour = NOT_HIT_OVERLAY_COLOUR;
                         if (graphPathway.isHit()) {
                             Double pValue = graphPathway.getStatistics().getpValue();
                             if (pValue > 0 && pValue < AnalysisColours.THRESHOLD) {
-                                enrichColour = AnalysisColours.get().enrichmentGradient.getColor(pValue/AnalysisColours.THRESHOLD);
+                                enrichColour = AnalysisColours.get().enrichmentGradient.getColor(pValue/AnalysisColours.THRESHOLD, 0.9);
                             }
                         }
 
-                        overlayEntity(graphPathway.getStId(), percentage, hex2Rgb(enrichColour, 0.9f), HIT_BASIS_COLOUR);
+                        overlayEntity(graphPathway.getStId(), percentage, enrichColour, HIT_BASIS_COLOUR);
                         break;
                     case EXPRESSION:
                         percentage = graphPathway.isHit() ? graphPathway.getPercentage().floatValue() : 0;
 
-                        String expressionColour = "#C2C2C2";
+                        String expressionColour = NOT_HIT_OVERLAY_COLOUR;
                         if (graphPathway.isHit()) {
                             Double pValue = graphPathway.getStatistics().getpValue();
                             if (pValue > 0 && pValue < AnalysisColours.THRESHOLD) {
-                                expressionColour = AnalysisColours.get().expressionGradient.getColor(
+                                double p = ThreeColorGradient.getPercentage(
                                         graphPathway.getExpression(selectedExpCol).floatValue(),
                                         expressionSummary.getMin(),
                                         expressionSummary.getMax()
                                 );
+                                expressionColour = AnalysisColours.get().expressionGradient.getColor(p, 0.9);
                             }
                         }
 
-                        overlayEntity(graphPathway.getStId(), percentage, hex2Rgb(expressionColour, 0.9f), HIT_BASIS_COLOUR);
+                        overlayEntity(graphPathway.getStId(), percentage, expressionColour, HIT_BASIS_COLOUR);
                         break;
                 }
             }
@@ -5,6 +5,8 @@ import com.google.gwt.user.client.ui.Widget;
 import org.reactome.web.analysis.client.model.*;
 import org.reactome.web.diagram.context.ContextDialogPanel;
 import org.reactome.web.diagram.data.content.Content;
+import org.reactome.web.diagram.data.graph.model.GraphComplex;
+import org.reactome.web.diagram.data.graph.model.GraphEntitySet;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.graph.model.GraphPathway;
 import org.reactome.web.diagram.data.graph.model.GraphPhysicalEntity;
@@ -15,10 +17,7 @@ import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.util.MapSet;
 import uk.ac.ebi.pwp.structures.quadtree.client.Box;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * The context is kept in an LruCache so previously loaded information (content and status) is kept
@@ -40,6 +39,11 @@ public class Context {
 
     private Map<GraphObject, ContextDialogPanel> dialogMap = new HashMap<>();
 
+    //Objects touched by the analysis overlay currently applied
+    private Set<GraphPhysicalEntity> hitEntities = new HashSet<>();
+    private Set<GraphPhysicalEntity> summarisedEntities = new HashSet<>();
+    private Set<GraphPathway> hitPathways = new HashSet<>();
+
     public Context(Content content) {
         //Status needs to be created every time we load a new content
         this.diagramStatus = new DiagramStatus();
@@ -59,27 +63,33 @@ public class Context {
         flagStatus.setFlagged(term, flagged);
     }
 
+    /**
+     * Only the objects touched by the analysis overlay currently applied are reset (see setAnalysisOverlay)
+     */
     public void clearAnalysisOverlay() {
         analysisStatus = null;
-        for (GraphObject graphObject : content.getDatabaseObjects()) {
-            if (graphObject instanceof GraphPhysicalEntity) {
-                ((GraphPhysicalEntity) graphObject).resetHit();
-                for (DiagramObject diagramObject : graphObject.getDiagramObjects()) {
-                    Node node = (Node) diagramObject;
-                    SummaryItem summaryItem = node.getInteractorsSummary();
-                    if (summaryItem != null) {
-                        summaryItem.setHit(null);
-                    }
-                }
-            } else if (graphObject instanceof GraphPathway) {
-                ((GraphPathway) graphObject).resetHit();
-            }
+        resetHits(hitEntities);
+        resetHits(summarisedEntities);
+        for (GraphPathway pathway : hitPathways) {
+            pathway.resetHit();
         }
+        hitEntities = new HashSet<>();
+        summarisedEntities = new HashSet<>();
+        hitPathways = new HashSet<>();
     }
 
+    /**
+     * The hits are applied to the entities found in the analysis and only the entities containing them are
+     * summarised. The entities touched by the previously applied overlay are reset before, so the cost depends
+     * on the size of the previous and new results instead of the size of the content
+     */
     public void setAnalysisOverlay(AnalysisStatus analysisStatus, FoundElements foundElements, List<PathwaySummary> pathwaySummaries) {
         this.analysisStatus = analysisStatus;
+        //An entity can go from summarised to hit (or the other way round), so the previous ones are reset first
+        resetHits(this.hitEntities);
+        resetHits(this.summarisedEntities);
         MapSet<String, GraphObject> map = this.content.getIdentifierMap();
+        Set<GraphPhysicalEntity> hitEntities = new HashSet<>();
         if (foundElements != null && foundElements.getEntities() != null) {
             for (FoundEntity entity : foundElements.getEntities()) {
                 for (IdentifierMap identifierMap : entity.getMapsTo()) {
@@ -90,12 +100,26 @@ public class Context {
                             if (graphObject instanceof GraphPhysicalEntity) {
                                 GraphPhysicalEntity pe = (GraphPhysicalEntity) graphObject;
                                 pe.setIsHit(entity.getId(), entity.getExp());
+                                hitEntities.add(pe);
                             }
                         }
                     }
                 }
             }
         }
+        //Once all the hits are set, the participants of the complexes and sets containing them are summarised
+        Set<GraphPhysicalEntity> summarisedEntities = new HashSet<>();
+        for (GraphPhysicalEntity pe : hitEntities) {
+            if (pe instanceof GraphComplex || pe instanceof GraphEntitySet) summarisedEntities.add(pe);
+            summarisedEntities.addAll(pe.getAncestors());
+        }
+        for (GraphPhysicalEntity pe : summarisedEntities) {
+            pe.summariseParticipants();
+        }
+        this.hitEntities = hitEntities;
+        this.summarisedEntities = summarisedEntities;
+
+        Set<GraphPathway> hitPathways = new HashSet<>();
         if (pathwaySummaries != null) {
             for (PathwaySummary pathwaySummary : pathwaySummaries) {
                 EntityStatistics statistics = pathwaySummary.getEntities();
@@ -105,6 +129,24 @@ public class Context {
                     Double percentage = statistics.getFound() / statistics.getTotal().doubleValue();
                     if (percentage < ANALYSIS_MIN_PERCENTAGE) percentage = ANALYSIS_MIN_PERCENTAGE;
                     pathway.setIsHit(percentage, pathwaySummary.getEntities().getExp(), statistics);
+                    hitPathways.add(pathway);
+                }
+            }
+        }
+        for (GraphPathway pathway : this.hitPathways) {
+            if (!hitPathways.contains(pathway)) pathway.resetHit();
+        }
+        this.hitPathways = hitPathways;
+    }
+
+    //Resets the entities and the summary items of their nodes
+    private void resetHits(Set<GraphPhysicalEntity> entities) {
+        for (GraphPhysicalEntity pe : entities) {
+            pe.resetHit();
+            for (DiagramObject diagramObject : pe.getDiagramObjects()) {
+                SummaryItem summaryItem = ((Node) diagramObject).getInteractorsSummary();
+                if (summaryItem != null) {
+                    summaryItem.setHit(null);
                 }
             }
         }
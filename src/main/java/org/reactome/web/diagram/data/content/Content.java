@@ -35,6 +35,12 @@ public interface Content {
 
     Collection<DiagramObject> getHoveredTarget(Coordinate p, double factor);
 
+    /**
+     * @return the primitives (segments and shapes) close to p so the renderers only test those, or null when the
+     * content does not index them
+     */
+    DiagramHitIndex.Hits getNearPrimitives(Coordinate p);
+
     String getStableId();
 
     String getDisplayName();
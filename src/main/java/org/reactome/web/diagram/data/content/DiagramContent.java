@@ -29,15 +29,18 @@ public class DiagramContent extends GenericContent {
 
     private Map<Long, DiagramObject> diagramObjectMap;
     private Map<String, GraphObject> graphObjectCache;
+    private Set<GraphObject> graphObjects; //Every cached object once (the cache is keyed by dbId and stId)
     private Map<String, GraphSubpathway> subpathwaysCache;
     private MapSet<String, GraphObject> identifierMap;
     private Set<GraphPathway> encapsulatedPathways;
 
     private QuadTree<DiagramObject> diagramObjects;
+    private DiagramGeometry geometry;
 
     public DiagramContent() {
         this.diagramObjectMap = new TreeMap<>();
         this.graphObjectCache = new HashMap<>();
+        this.graphObjects = new HashSet<>();
         this.identifierMap = new MapSet<>();
         this.encapsulatedPathways = new HashSet<>();
         this.subpathwaysCache = new HashMap<>();
@@ -50,11 +53,14 @@ public class DiagramContent extends GenericContent {
         for (DiagramObject diagramObject : getDiagramObjects()) {
             this.diagramObjects.add(diagramObject);
         }
+        this.geometry = new DiagramGeometry(getDiagramObjects());
+        this.geometry.setHitIndex(new DiagramHitIndex(geometry, getDiagramObjects(), minX, minY, maxX, maxY));
         return this;
     }
 
     public void cache(GraphObject dbObject) {
         this.graphLoaded = true;
+        this.graphObjects.add(dbObject);
         if (dbObject.getDbId() != null) {
             graphObjectCache.put(dbObject.getDbId() + "", dbObject);
         }
@@ -103,6 +109,10 @@ public class DiagramContent extends GenericContent {
         return diagramObjects.getItems(new Box(p.getX() - f, p.getY() - f, p.getX() + f, p.getY() + f));
     }
 
+    public DiagramHitIndex.Hits getNearPrimitives(Coordinate p) {
+        return geometry.getHitIndex().query(p);
+    }
+
     public Set<GraphPathway> getEncapsulatedPathways() {
         return encapsulatedPathways;
     }
@@ -123,6 +133,10 @@ public class DiagramContent extends GenericContent {
         return getGraphSubpathway(dbId.toString());
     }
 
+    public DiagramGeometry getGeometry() {
+        return geometry;
+    }
+
     public DiagramObject getDiagramObject(Long id) {
         return this.diagramObjectMap.get(id);
     }
@@ -132,7 +146,7 @@ public class DiagramContent extends GenericContent {
     }
 
     public Collection<GraphObject> getDatabaseObjects() {
-        return new HashSet<>(this.graphObjectCache.values());
+        return Collections.unmodifiableSet(this.graphObjects);
     }
 
     public Collection<DiagramObject> getDiagramObjects() {
@@ -0,0 +1,250 @@
+package org.reactome.web.diagram.data.content;
+
+import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
+import org.reactome.web.diagram.data.layout.impl.SegmentFactory;
+
+import java.util.*;
+
+/**
+ * Columnar copy of the layout geometry so the render and hit-testing hot paths read plain doubles from arrays
+ * instead of going through the AutoBean proxies (that return a boxed value per getter).
+ *
+ * Every diagram object gets a row. Node bounds are kept per row while the segments of edges and connectors are
+ * flattened in their own arrays and every row (or connector) points to its range [from, to) in them. Shapes are
+ * not copied because the renderers draw them from the layout objects anyway.
+ *
+ * The geometry is built once when the content is initialised (the layout does not change afterwards) and it is
+ * held by the content, together with the row of every object. Renderers do not have access to the content, so
+ * they get the geometry of the loaded one from the RendererManager. An object that is not part of it (getRow
+ * returns -1) simply falls back to its own getters. The objects that can drop their own segments (SegmentsHolder)
+ * read them from the geometry once copied.
+ */
+public class DiagramGeometry {
+
+    /**
+     * Implemented by the layout objects able to replace their own segments once they are kept in the geometry
+     */
+    public interface SegmentsHolder {
+        void setSegments(List<Segment> segments);
+    }
+
+    //Node bounds (NaN for the objects without properties)
+    private double[] x, y, w, h;
+
+    //Edges own segments [segmentsFrom[row], segmentsFrom[row + 1])
+    private int[] segmentsFrom;
+    //Connectors of a node [connectorsFrom[row], connectorsFrom[row + 1]) in the same order than node.getConnectors()
+    private int[] connectorsFrom;
+    //Segments of a connector [connectorSegmentsFrom[c], connectorSegmentsFrom[c + 1])
+    private int[] connectorSegmentsFrom;
+
+    //Segments (edges and connectors)
+    private double[] x1, y1, x2, y2;
+
+    private int segments = 0, connectors = 0;
+
+    //Row of every diagram object (the layout objects do not override equals or hashCode)
+    private Map<DiagramObject, Integer> rows = new IdentityHashMap<>();
+
+    private DiagramHitIndex hitIndex;
+
+    DiagramGeometry(Collection<DiagramObject> diagramObjects) {
+        int n = diagramObjects.size();
+        int segmentsCount = 0, connectorsCount = 0;
+        for (DiagramObject item : diagramObjects) {
+            if (item instanceof EdgeCommon) {
+                segmentsCount += size(((EdgeCommon) item).getSegments());
+            } else if (item instanceof Node) {
+                List<Connector> cs = ((Node) item).getConnectors();
+                if (cs == null) continue;
+                connectorsCount += cs.size();
+                for (Connector connector : cs) {
+                    segmentsCount += size(connector.getSegments());
+                }
+            }
+        }
+
+        x = new double[n]; y = new double[n]; w = new double[n]; h = new double[n];
+        segmentsFrom = new int[n + 1];
+        connectorsFrom = new int[n + 1];
+        connectorSegmentsFrom = new int[connectorsCount + 1];
+        x1 = new double[segmentsCount]; y1 = new double[segmentsCount];
+        x2 = new double[segmentsCount]; y2 = new double[segmentsCount];
+
+        int row = 0;
+        for (DiagramObject item : diagramObjects) {
+            rows.put(item, row);
+
+            x[row] = y[row] = w[row] = h[row] = Double.NaN;
+            segmentsFrom[row] = segments;
+            connectorsFrom[row] = connectors;
+
+            if (item instanceof NodeCommon) {
+                NodeProperties prop = ((NodeCommon) item).getProp();
+                if (prop != null) {
+                    x[row] = prop.getX();
+                    y[row] = prop.getY();
+                    w[row] = prop.getWidth();
+                    h[row] = prop.getHeight();
+                }
+            }
+
+            if (item instanceof EdgeCommon) {
+                EdgeCommon edge = (EdgeCommon) item;
+                addSegments(edge.getSegments());
+                release(edge, edge.getSegments(), segmentsFrom[row]);
+            } else if (item instanceof Node && ((Node) item).getConnectors() != null) {
+                for (Connector connector : ((Node) item).getConnectors()) {
+                    connectorSegmentsFrom[connectors] = segments;
+                    addSegments(connector.getSegments());
+                    release(connector, connector.getSegments(), connectorSegmentsFrom[connectors]);
+                    connectors++;
+                }
+            }
+            row++;
+        }
+        segmentsFrom[n] = segments;
+        connectorsFrom[n] = connectors;
+        connectorSegmentsFrom[connectors] = segments;
+    }
+
+    /**
+     * @return the row of the item in this geometry or -1 if it is not part of it (e.g. the interactors)
+     */
+    public int getRow(DiagramObject item) {
+        Integer row = rows.get(item);
+        return row != null ? row : -1;
+    }
+
+    public DiagramHitIndex getHitIndex() {
+        return hitIndex;
+    }
+
+    void setHitIndex(DiagramHitIndex hitIndex) {
+        this.hitIndex = hitIndex;
+    }
+
+    public boolean hasBounds(int row) {
+        return !Double.isNaN(x[row]);
+    }
+
+    public double getX(int row) {
+        return x[row];
+    }
+
+    public double getY(int row) {
+        return y[row];
+    }
+
+    public double getWidth(int row) {
+        return w[row];
+    }
+
+    public double getHeight(int row) {
+        return h[row];
+    }
+
+    public boolean isInBounds(int row, double px, double py) {
+        return px >= x[row] && px <= x[row] + w[row] && py >= y[row] && py <= y[row] + h[row];
+    }
+
+    public int getSegmentsFrom(int row) {
+        return segmentsFrom[row];
+    }
+
+    public int getSegmentsTo(int row) {
+        return segmentsFrom[row + 1];
+    }
+
+    public int getConnectorsFrom(int row) {
+        return connectorsFrom[row];
+    }
+
+    public int getConnectorsTo(int row) {
+        return connectorsFrom[row + 1];
+    }
+
+    public int getConnectorSegmentsFrom(int connector) {
+        return connectorSegmentsFrom[connector];
+    }
+
+    public int getConnectorSegmentsTo(int connector) {
+        return connectorSegmentsFrom[connector + 1];
+    }
+
+    public double getX1(int segment) {
+        return x1[segment];
+    }
+
+    public double getY1(int segment) {
+        return y1[segment];
+    }
+
+    public double getX2(int segment) {
+        return x2[segment];
+    }
+
+    public double getY2(int segment) {
+        return y2[segment];
+    }
+
+    private void addSegments(List<Segment> list) {
+        if (list == null) return;
+        for (Segment segment : list) {
+            Coordinate from = segment.getFrom(), to = segment.getTo();
+            x1[segments] = from.getX();
+            y1[segments] = from.getY();
+            x2[segments] = to.getX();
+            y2[segments] = to.getY();
+            segments++;
+        }
+    }
+
+    //The segments of the objects able to read them from the geometry are not kept twice
+    private void release(Object holder, List<Segment> list, int from) {
+        if (list != null && holder instanceof SegmentsHolder) {
+            ((SegmentsHolder) holder).setSegments(new Segments(this, from, segments));
+        }
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Read only view of a range of the geometry segments. The Segment objects are created the first time they are
+     * requested and kept, so the callers iterating them every frame do not allocate them again
+     */
+    private static class Segments extends AbstractList<Segment> {
+        private final DiagramGeometry geometry;
+        private final int from, to;
+        private Segment[] cache;
+
+        Segments(DiagramGeometry geometry, int from, int to) {
+            this.geometry = geometry;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Segment get(int index) {
+            int i = from + index;
+            if (index < 0 || i >= to) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            if (cache == null) cache = new Segment[to - from];
+            Segment segment = cache[index];
+            if (segment == null) {
+                segment = cache[index] = SegmentFactory.get(
+                        CoordinateFactory.get(geometry.x1[i], geometry.y1[i]),
+                        CoordinateFactory.get(geometry.x2[i], geometry.y2[i])
+                );
+            }
+            return segment;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
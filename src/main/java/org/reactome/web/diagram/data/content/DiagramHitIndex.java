@@ -0,0 +1,232 @@
+package org.reactome.web.diagram.data.content;
+
+import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.data.layout.category.SegmentCategory;
+import uk.ac.ebi.pwp.structures.quadtree.client.Box;
+import uk.ac.ebi.pwp.structures.quadtree.client.QuadTree;
+import uk.ac.ebi.pwp.structures.quadtree.client.QuadTreeBox;
+
+import java.util.*;
+
+/**
+ * Secondary spatial index with the primitives that can be hovered apart from the node bounds: every segment and
+ * shape of the edges and the connectors (including the stoichiometry shapes) is kept as a separate entry.
+ *
+ * The main QuadTree returns the objects whose bounds contain the pointer and a node with many connectors (e.g.
+ * ATP or H2O) covers most of the diagram, so every mouse move used to test all its connectors. Instead, the index
+ * is queried once per mouse move and the result (Hits) is passed to the renderers, that only test the connectors
+ * (or edges) with a primitive close to the pointer. The boxes of the primitives are padded with the
+ * same tolerance used by the hit-testing, so the candidates are a superset of the hovered primitives.
+ */
+public class DiagramHitIndex {
+
+    //The number of elements for every QuadTree quadrant node
+    private static final int NUMBER_OF_ELEMENTS = 50;
+    //Primitives are much smaller than the diagram objects
+    private static final int MIN_AREA = 2500;
+
+    //Segments with a larger tolerance (very short ones) are not worth bounding
+    private static final double MAX_TOLERANCE = 500;
+
+    //Index of the primitives that belong to the edge itself (and not to any of the connectors of a node)
+    private static final int OWN = -1;
+
+    private DiagramGeometry geometry;
+    private QuadTree<Primitive> primitives;
+    //Primitives whose boxes cannot be bounded (e.g. zero length segments are always considered hovered)
+    private List<Primitive> unbounded = new LinkedList<>();
+    private List<Primitive> bounded = new LinkedList<>();
+
+    DiagramHitIndex(DiagramGeometry geometry, Collection<DiagramObject> diagramObjects, double minX, double minY, double maxX, double maxY) {
+        this.geometry = geometry;
+        for (DiagramObject item : diagramObjects) {
+            int row = geometry.getRow(item);
+            if (row == -1) continue;
+            if (item instanceof EdgeCommon) {
+                EdgeCommon edge = (EdgeCommon) item;
+                addSegments(geometry, row, OWN, geometry.getSegmentsFrom(row), geometry.getSegmentsTo(row));
+                addShape(edge.getReactionShape(), row, OWN);
+                addShape(edge.getEndShape(), row, OWN);
+            } else if (item instanceof Node && ((Node) item).getConnectors() != null) {
+                List<Connector> connectors = ((Node) item).getConnectors();
+                int from = geometry.getConnectorsFrom(row);
+                for (int k = 0; k < connectors.size(); k++) {
+                    int c = from + k;
+                    addSegments(geometry, row, k, geometry.getConnectorSegmentsFrom(c), geometry.getConnectorSegmentsTo(c));
+                    addShape(connectors.get(k).getEndShape(), row, k);
+                    Stoichiometry stoichiometry = connectors.get(k).getStoichiometry();
+                    if (stoichiometry != null) addShape(stoichiometry.getShape(), row, k);
+                }
+            }
+        }
+
+        //The padded boxes might exceed the content bounds
+        for (Primitive primitive : bounded) {
+            minX = Math.min(minX, primitive.minX);
+            minY = Math.min(minY, primitive.minY);
+            maxX = Math.max(maxX, primitive.maxX);
+            maxY = Math.max(maxY, primitive.maxY);
+        }
+        this.primitives = new QuadTree<>(minX, minY, maxX, maxY, NUMBER_OF_ELEMENTS, MIN_AREA);
+        for (Primitive primitive : bounded) {
+            primitives.add(primitive);
+        }
+        bounded = null;
+    }
+
+    /**
+     * @return the primitives close to the given (model) coordinate
+     */
+    public Hits query(Coordinate p) {
+        Hits hits = new Hits(geometry);
+        double x = p.getX(), y = p.getY();
+        for (Primitive primitive : primitives.getItems(new Box(x - 1, y - 1, x + 1, y + 1))) {
+            hits.add(primitive);
+        }
+        for (Primitive primitive : unbounded) {
+            hits.add(primitive);
+        }
+        for (List<Integer> connectors : hits.near.values()) {
+            Collections.sort(connectors); //Connectors are tested in the same order than in the node
+        }
+        return hits;
+    }
+
+    private void addSegments(DiagramGeometry geometry, int row, int connector, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(getSegmentBounds(geometry.getX1(i), geometry.getY1(i), geometry.getX2(i), geometry.getY2(i)), row, connector);
+        }
+    }
+
+    private void addShape(Shape shape, int row, int connector) {
+        if (shape != null) add(getBounds(shape), row, connector);
+    }
+
+    private void add(double[] bounds, int row, int connector) {
+        Primitive primitive = new Primitive(bounds, row, connector);
+        if (primitive.isBounded()) {
+            bounded.add(primitive);
+        } else {
+            unbounded.add(primitive);
+        }
+    }
+
+    private static double[] getBounds(Shape shape) {
+        Coordinate a = shape.getA(), b = shape.getB(), c = shape.getC();
+        if ("CIRCLE".equals(shape.getType()) || "DOUBLE_CIRCLE".equals(shape.getType())) {
+            double r = shape.getR() != null ? shape.getR() : Double.NaN;
+            return new double[]{c.getX() - r, c.getY() - r, c.getX() + r, c.getY() + r};
+        }
+        if ("STOP".equals(shape.getType())) {
+            return getSegmentBounds(a.getX(), a.getY(), b.getX(), b.getY());
+        }
+        return getBounds(
+                a.getX(), a.getY(), b.getX(), b.getY(),
+                c != null ? c.getX() : Double.NaN, c != null ? c.getY() : Double.NaN
+        );
+    }
+
+    //NaN coordinates (not set) are skipped
+    private static double[] getBounds(double... xy) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < xy.length; i += 2) {
+            if (Double.isNaN(xy[i]) || Double.isNaN(xy[i + 1])) continue;
+            minX = Math.min(minX, xy[i]);
+            minY = Math.min(minY, xy[i + 1]);
+            maxX = Math.max(maxX, xy[i]);
+            maxY = Math.max(maxY, xy[i + 1]);
+        }
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    private static double[] getSegmentBounds(double ax, double ay, double bx, double by) {
+        double d = SegmentCategory.getTolerance(Math.hypot(bx - ax, by - ay));
+        if (d > MAX_TOLERANCE) d = Double.POSITIVE_INFINITY;
+        return new double[]{Math.min(ax, bx) - d, Math.min(ay, by) - d, Math.max(ax, bx) + d, Math.max(ay, by) + d};
+    }
+
+    /**
+     * Result of a query: the rows (and connectors) of the geometry with a primitive close to the queried coordinate
+     */
+    public static class Hits {
+        private final DiagramGeometry geometry;
+        //row -> connectors close to the pointer (OWN for the edges primitives)
+        private final Map<Integer, List<Integer>> near = new HashMap<>();
+
+        private Hits(DiagramGeometry geometry) {
+            this.geometry = geometry;
+        }
+
+        public DiagramGeometry getGeometry() {
+            return geometry;
+        }
+
+        /**
+         * @return the position (in node.getConnectors()) of the connectors of the node in the given row with a
+         * primitive close to the queried coordinate
+         */
+        public List<Integer> getConnectors(int row) {
+            List<Integer> connectors = near.get(row);
+            return connectors != null ? connectors : Collections.<Integer>emptyList();
+        }
+
+        /**
+         * @return true if the edge in the given row has a primitive close to the queried coordinate
+         */
+        public boolean isNear(int row) {
+            return near.containsKey(row);
+        }
+
+        private void add(Primitive primitive) {
+            List<Integer> connectors = near.get(primitive.row);
+            if (connectors == null) {
+                connectors = new ArrayList<>();
+                near.put(primitive.row, connectors);
+            }
+            if (!connectors.contains(primitive.connector)) connectors.add(primitive.connector);
+        }
+    }
+
+    private static class Primitive implements QuadTreeBox {
+        private double minX, minY, maxX, maxY;
+        private int row;
+        private int connector;
+
+        Primitive(double[] bounds, int row, int connector) {
+            this.minX = bounds[0];
+            this.minY = bounds[1];
+            this.maxX = bounds[2];
+            this.maxY = bounds[3];
+            this.row = row;
+            this.connector = connector;
+        }
+
+        boolean isBounded() {
+            for (double v : new double[]{minX, minY, maxX, maxY}) {
+                if (Double.isNaN(v) || Double.isInfinite(v)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public double getMinX() {
+            return minX;
+        }
+
+        @Override
+        public double getMinY() {
+            return minY;
+        }
+
+        @Override
+        public double getMaxX() {
+            return maxX;
+        }
+
+        @Override
+        public double getMaxY() {
+            return maxY;
+        }
+    }
+}
@@ -19,17 +19,21 @@ public class EHLDContent extends GenericContent {
     private Map<String, DiagramObject> tempDiagramObjectMap;
     private Map<Long, DiagramObject> diagramObjectMap;
     private Map<String, GraphObject> graphObjectCache;
+    private Set<GraphObject> graphObjects; //Every cached object once (the cache is keyed by dbId and stId)
 //    private Map<String, GraphSubpathway> subpathwaysCache;
     private MapSet<String, GraphObject> identifierMap;
     private Set<GraphPathway> encapsulatedPathways;
 
     private OMSVGSVGElement svg;
+    //Stripped copy of the svg built by the thumbnail the first time the content is shown (kept with the context)
+    private OMSVGSVGElement thumbnailSVG;
 
     public EHLDContent(OMSVGSVGElement svg) {
         this.svg = svg;
         this.tempDiagramObjectMap = new HashMap<>();
         this.diagramObjectMap = new TreeMap<>();
         this.graphObjectCache = new HashMap<>();
+        this.graphObjects = new HashSet<>();
         this.identifierMap = new MapSet<>();
         this.encapsulatedPathways = new HashSet<>();
 //        this.subpathwaysCache = new HashMap<>();
@@ -43,6 +47,7 @@ public class EHLDContent extends GenericContent {
     @Override
     public void cache(GraphObject dbObject) {
         this.graphLoaded = true;
+        this.graphObjects.add(dbObject);
         if (dbObject.getDbId() != null) {
             graphObjectCache.put(dbObject.getDbId() + "", dbObject);
         }
@@ -80,6 +85,11 @@ public class EHLDContent extends GenericContent {
         return Collections.EMPTY_LIST;
     }
 
+    @Override
+    public DiagramHitIndex.Hits getNearPrimitives(Coordinate p) {
+        return null;
+    }
+
     @Override
     public Set<GraphPathway> getEncapsulatedPathways() {
         return encapsulatedPathways;
@@ -117,7 +127,7 @@ public class EHLDContent extends GenericContent {
 
     @Override
     public Collection<GraphObject> getDatabaseObjects() {
-        return new HashSet<>(this.graphObjectCache.values());
+        return Collections.unmodifiableSet(this.graphObjects);
     }
 
     @Override
@@ -179,6 +189,14 @@ public class EHLDContent extends GenericContent {
         return svg;
     }
 
+    public OMSVGSVGElement getThumbnailSVG() {
+        return thumbnailSVG;
+    }
+
+    public void setThumbnailSVG(OMSVGSVGElement thumbnailSVG) {
+        this.thumbnailSVG = thumbnailSVG;
+    }
+
     @Override
     public Type getType(){
         return Type.SVG;
@@ -22,6 +22,13 @@ public abstract class GraphPhysicalEntity extends GraphObject {
 
     private boolean interactorsHit = false;
 
+    //Participants summary (see summariseParticipants) so the renderers do not traverse the participants tree
+    private static final double[] NO_EXPRESSION = new double[0];
+    private int participantsCount = -1;
+    private int hitParticipantsCount = 0;
+    private double[][] participantsExpression; //per column, the expression of the participants sorted by identifier
+    private double[] participantsExpressionMedian;
+
     public GraphPhysicalEntity(EntityNode node) {
         super(node);
         this.identifier = node.getIdentifier();
@@ -77,6 +84,66 @@ public abstract class GraphPhysicalEntity extends GraphObject {
     public void resetHit(){
         this.sampleIdentifier = null;
         this.expression = null;
+        this.hitParticipantsCount = 0;
+        this.participantsExpression = null;
+        this.participantsExpressionMedian = null;
+    }
+
+    /**
+     * Precomputes the number of hit participants and, for every expression column, the expression values of the
+     * participants (sorted by identifier) and their median. It has to be called once the hits have been set for
+     * all the participants (see Context.setAnalysisOverlay)
+     */
+    public void summariseParticipants() {
+        Set<GraphPhysicalEntity> hitParticipants = getHitParticipants();
+        hitParticipantsCount = hitParticipants.size();
+        int columns = 0;
+        for (GraphPhysicalEntity participant : hitParticipants) {
+            if (participant.expression != null) columns = Math.max(columns, participant.expression.size());
+        }
+        participantsExpression = new double[columns][];
+        participantsExpressionMedian = new double[columns];
+        for (int c = 0; c < columns; c++) {
+            Map<String, Double> expression = new TreeMap<>(getParticipantsExpression(c));
+            double[] values = new double[expression.size()];
+            int i = 0;
+            for (Double value : expression.values()) values[i++] = value;
+            participantsExpression[c] = values;
+            double[] sorted = Arrays.copyOf(values, values.length);
+            Arrays.sort(sorted);
+            participantsExpressionMedian[c] = median(sorted);
+        }
+    }
+
+    /**
+     * @return the number of participants (it does not depend on the analysis so it is only calculated once)
+     */
+    public int getParticipantsCount() {
+        if (participantsCount == -1) participantsCount = getParticipants().size();
+        return participantsCount;
+    }
+
+    /**
+     * @return the number of hit participants (see summariseParticipants)
+     */
+    public int getHitParticipantsCount() {
+        return hitParticipantsCount;
+    }
+
+    /**
+     * @return the expression values of the participants in a given column sorted by their identifier (see summariseParticipants)
+     */
+    public double[] getParticipantsExpressionVector(int column) {
+        if (participantsExpression == null || column < 0 || column >= participantsExpression.length) return NO_EXPRESSION;
+        return participantsExpression[column];
+    }
+
+    /**
+     * @return the median of the participants expression in a given column or null if none of them has expression
+     */
+    public Double getParticipantsExpressionMedian(int column) {
+        if (getParticipantsExpressionVector(column).length == 0) return null;
+        return participantsExpressionMedian[column];
     }
 
     public String getIdentifier() {
@@ -109,6 +176,17 @@ public abstract class GraphPhysicalEntity extends GraphObject {
         return rtn;
     }
 
+    /**
+     * @return every entity containing this one at any level (complexes, sets, polymers...)
+     */
+    public Set<GraphPhysicalEntity> getAncestors() {
+        Set<GraphPhysicalEntity> rtn = new HashSet<>();
+        for (GraphPhysicalEntity parent : parents) {
+            if (rtn.add(parent)) rtn.addAll(parent.getAncestors());
+        }
+        return rtn;
+    }
+
     public Set<GraphPhysicalEntity> getParentLocations() {
         Set<GraphPhysicalEntity> rtn = new HashSet<>();
         for (GraphPhysicalEntity parent : parents) {
@@ -162,6 +240,12 @@ public abstract class GraphPhysicalEntity extends GraphObject {
         return rtn;
     }
 
+    private static double median(double[] sorted) {
+        if (sorted.length == 0) return Double.NaN;
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
     public static Comparator<GraphPhysicalEntity> getDisplayNameComparator(){
         return (o1, o2) -> {
             if(o1==null || o2==null){
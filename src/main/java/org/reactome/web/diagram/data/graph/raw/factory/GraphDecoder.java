@@ -0,0 +1,283 @@
+package org.reactome.web.diagram.data.graph.raw.factory;
+
+import org.reactome.web.diagram.data.graph.raw.*;
+import org.reactome.web.diagram.data.layout.factory.DiagramObjectException;
+import org.reactome.web.diagram.util.json.JsObject;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alternative to GraphFactory for the graph files. The json is parsed natively and walked once creating
+ * plain java objects (the raw graph is only used to create the GraphObjects, so they are kept as simple as
+ * possible here).
+ */
+public abstract class GraphDecoder {
+
+    public static Graph decode(String json) throws DiagramObjectException {
+        try {
+            return new GraphImpl(JsObject.parse(json));
+        } catch (Throwable e) {
+            throw new DiagramObjectException("Error decoding json string for [" + Graph.class + "]", e);
+        }
+    }
+
+    /**
+     * Same as decode(String) for a json that has already been parsed (e.g. in a Web Worker, see CompactJson)
+     */
+    public static Graph decode(JsonNode json) throws DiagramObjectException {
+        try {
+            return new GraphImpl(json);
+        } catch (Throwable e) {
+            throw new DiagramObjectException("Error decoding json object for [" + Graph.class + "]", e);
+        }
+    }
+
+    private static class GraphImpl implements Graph {
+        private Long dbId;
+        private String stId;
+        private String speciesName;
+        private List<EntityNode> nodes;
+        private List<EventNode> edges;
+        private List<SubpathwayNode> subpathways;
+
+        GraphImpl(JsonNode json) {
+            this.dbId = json.getLong("dbId");
+            this.stId = json.getString("stId");
+            this.speciesName = json.getString("speciesName");
+            int n = json.size("nodes");
+            if (n != -1) {
+                this.nodes = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) nodes.add(new EntityNodeImpl(json.getObject("nodes", i)));
+            }
+            n = json.size("edges");
+            if (n != -1) {
+                this.edges = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) edges.add(new EventNodeImpl(json.getObject("edges", i)));
+            }
+            n = json.size("subpathways");
+            if (n != -1) {
+                this.subpathways = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) subpathways.add(new SubpathwayNodeImpl(json.getObject("subpathways", i)));
+            }
+        }
+
+        @Override
+        public Long getDbId() {
+            return dbId;
+        }
+
+        @Override
+        public String getStId() {
+            return stId;
+        }
+
+        @Override
+        public String getSpeciesName() {
+            return speciesName;
+        }
+
+        @Override
+        public List<EntityNode> getNodes() {
+            return nodes;
+        }
+
+        @Override
+        public List<EventNode> getEdges() {
+            return edges;
+        }
+
+        @Override
+        public List<SubpathwayNode> getSubpathways() {
+            return subpathways;
+        }
+    }
+
+    private static abstract class GraphNodeImpl implements GraphNode {
+        private Long dbId;
+        private String stId;
+        private String displayName;
+        private String schemaClass;
+        private Long speciesID;
+
+        GraphNodeImpl(JsonNode json) {
+            this.dbId = json.getLong("dbId");
+            this.stId = json.getString("stId");
+            this.displayName = json.getString("displayName");
+            this.schemaClass = json.getString("schemaClass");
+            this.speciesID = json.getLong("speciesID");
+        }
+
+        @Override
+        public Long getDbId() {
+            return dbId;
+        }
+
+        @Override
+        public String getStId() {
+            return stId;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String getSchemaClass() {
+            return schemaClass;
+        }
+
+        @Override
+        public Long getSpeciesID() {
+            return speciesID;
+        }
+    }
+
+    private static class EntityNodeImpl extends GraphNodeImpl implements EntityNode {
+        private List<Long> parents;
+        private List<Long> children;
+        private String identifier;
+        private List<String> geneNames;
+        private List<Long> diagramIds;
+
+        EntityNodeImpl(JsonNode json) {
+            super(json);
+            this.parents = json.getLongs("parents");
+            this.children = json.getLongs("children");
+            this.identifier = json.getString("identifier");
+            this.geneNames = json.getStrings("geneNames");
+            this.diagramIds = json.getLongs("diagramIds");
+        }
+
+        @Override
+        public List<Long> getParents() {
+            return parents;
+        }
+
+        @Override
+        public List<Long> getChildren() {
+            return children;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public List<String> getGeneNames() {
+            return geneNames;
+        }
+
+        @Override
+        public List<Long> getDiagramIds() {
+            return diagramIds;
+        }
+    }
+
+    private static class EventNodeImpl extends GraphNodeImpl implements EventNode {
+        private List<Long> preceding;
+        private List<Long> following;
+        private List<Long> inputs;
+        private List<Long> outputs;
+        private List<Long> catalysts;
+        private List<Long> inhibitors;
+        private List<Long> activators;
+        private List<Long> requirements;
+        private List<Long> diagramIds;
+
+        EventNodeImpl(JsonNode json) {
+            super(json);
+            this.preceding = json.getLongs("preceding");
+            this.following = json.getLongs("following");
+            this.inputs = json.getLongs("inputs");
+            this.outputs = json.getLongs("outputs");
+            this.catalysts = json.getLongs("catalysts");
+            this.inhibitors = json.getLongs("inhibitors");
+            this.activators = json.getLongs("activators");
+            this.requirements = json.getLongs("requirements");
+            this.diagramIds = json.getLongs("diagramIds");
+        }
+
+        @Override
+        public List<Long> getPreceding() {
+            return preceding;
+        }
+
+        @Override
+        public List<Long> getFollowing() {
+            return following;
+        }
+
+        @Override
+        public List<Long> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public List<Long> getOutputs() {
+            return outputs;
+        }
+
+        @Override
+        public List<Long> getCatalysts() {
+            return catalysts;
+        }
+
+        @Override
+        public List<Long> getInhibitors() {
+            return inhibitors;
+        }
+
+        @Override
+        public List<Long> getActivators() {
+            return activators;
+        }
+
+        @Override
+        public List<Long> getRequirements() {
+            return requirements;
+        }
+
+        @Override
+        public List<Long> getDiagramIds() {
+            return diagramIds;
+        }
+    }
+
+    private static class SubpathwayNodeImpl implements SubpathwayNode {
+        private Long dbId;
+        private String stId;
+        private String displayName;
+        private List<Long> events;
+
+        SubpathwayNodeImpl(JsonNode json) {
+            this.dbId = json.getLong("dbId");
+            this.stId = json.getString("stId");
+            this.displayName = json.getString("displayName");
+            this.events = json.getLongs("events");
+        }
+
+        @Override
+        public Long getDbId() {
+            return dbId;
+        }
+
+        @Override
+        public String getStId() {
+            return stId;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public List<Long> getEvents() {
+            return events;
+        }
+    }
+}
@@ -11,6 +11,13 @@ public abstract class SegmentCategory {
     public static final int SEGMENT_WIDTH = 10; //TODO: Figure out the correct number
     private static final float EPSILON = SEGMENT_WIDTH * 30f;// 0.001f;
 
+    /**
+     * @return the maximum distance from a segment of the given length to a point considered in the segment
+     */
+    public static double getTolerance(double length){
+        return length > 0 ? EPSILON / length : Double.POSITIVE_INFINITY;
+    }
+
     public static boolean isInSegment(Segment segment, Coordinate coordinate){
         double crossProduct = crossProduct(segment.getFrom(), segment.getTo(), coordinate);
         if( Math.abs(crossProduct) > EPSILON ){
@@ -26,6 +33,22 @@ public abstract class SegmentCategory {
         return ( dotProduct <= squaredLengthBA );
     }
 
+    public static boolean isInSegment(double ax, double ay, double bx, double by, Coordinate coordinate){
+        double cx = coordinate.getX(), cy = coordinate.getY();
+        double crossProduct = (cy - ay) * (bx - ax) - (cx - ax) * (by - ay);
+        if( Math.abs(crossProduct) > EPSILON ){
+            return false;
+        }
+
+        double dotProduct = (cx - ax) * (bx - ax) + (cy - ay) * (by - ay);
+        if( dotProduct < 0 ){
+            return false;
+        }
+
+        double squaredLengthBA = (bx - ax) * (bx - ax) + (by - ay) * (by - ay);
+        return ( dotProduct <= squaredLengthBA );
+    }
+
     private static double crossProduct(Coordinate a, Coordinate b, Coordinate c){
         return (c.getY() - a.getY()) * (b.getX() - a.getX()) - (c.getX() - a.getX()) * (b.getY() - a.getY());
     }
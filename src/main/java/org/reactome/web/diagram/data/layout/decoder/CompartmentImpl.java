@@ -0,0 +1,21 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Compartment;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class CompartmentImpl extends NodeCommonImpl implements Compartment {
+
+    private List<Long> componentIds;
+
+    CompartmentImpl(JsonNode json) {
+        super(json);
+        this.componentIds = json.getLongs("componentIds");
+    }
+
+    @Override
+    public List<Long> getComponentIds() {
+        return componentIds;
+    }
+}
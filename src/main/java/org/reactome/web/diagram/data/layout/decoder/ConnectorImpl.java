@@ -0,0 +1,71 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.content.DiagramGeometry;
+import org.reactome.web.diagram.data.layout.Connector;
+import org.reactome.web.diagram.data.layout.Segment;
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.data.layout.Stoichiometry;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class ConnectorImpl implements Connector, DiagramGeometry.SegmentsHolder {
+
+    private Long edgeId;
+    private Boolean isDisease;
+    private String type;
+    private Boolean isFadeOut;
+    private List<Segment> segments;
+    private Shape endShape;
+    private Stoichiometry stoichiometry;
+
+    ConnectorImpl(JsonNode json) {
+        this.edgeId = json.getLong("edgeId");
+        this.isDisease = json.getBoolean("isDisease");
+        this.type = json.getString("type");
+        this.isFadeOut = json.getBoolean("isFadeOut");
+        this.segments = DiagramDecoder.getSegments(json, "segments");
+        this.endShape = DiagramDecoder.getShape(json.getObject("endShape"));
+        this.stoichiometry = DiagramDecoder.getStoichiometry(json.getObject("stoichiometry"));
+    }
+
+    @Override
+    public Long getEdgeId() {
+        return edgeId;
+    }
+
+    @Override
+    public Boolean getIsDisease() {
+        return isDisease;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public Boolean getIsFadeOut() {
+        return isFadeOut;
+    }
+
+    @Override
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    @Override
+    public void setSegments(List<Segment> segments) {
+        this.segments = segments; //Once copied to the DiagramGeometry, the segments are read from there
+    }
+
+    @Override
+    public Shape getEndShape() {
+        return endShape;
+    }
+
+    @Override
+    public Stoichiometry getStoichiometry() {
+        return stoichiometry;
+    }
+}
@@ -0,0 +1,207 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.data.layout.factory.DiagramObjectException;
+import org.reactome.web.diagram.data.layout.impl.*;
+import org.reactome.web.diagram.util.json.JsObject;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alternative to DiagramObjectsFactory for the diagram layout files. The json is parsed natively and the
+ * result is walked once creating plain java objects, so there are neither AutoBean splittables nor proxies
+ * involved (and the getters in the rendering hot path are simple field accesses).
+ *
+ * The decoded objects keep the AutoBean behaviour: missing values are null and contextMenuTrigger and
+ * toString are implemented as in DiagramObjectCategory.
+ */
+public abstract class DiagramDecoder {
+
+    public static Diagram decode(String json) throws DiagramObjectException {
+        try {
+            return new DiagramImpl(JsObject.parse(json));
+        } catch (Throwable e) {
+            throw new DiagramObjectException("Error decoding json string for [" + Diagram.class + "]", e);
+        }
+    }
+
+    /**
+     * Same as decode(String) for a json that has already been parsed (e.g. in a Web Worker, see CompactJson)
+     */
+    public static Diagram decode(JsonNode json) throws DiagramObjectException {
+        try {
+            return new DiagramImpl(json);
+        } catch (Throwable e) {
+            throw new DiagramObjectException("Error decoding json object for [" + Diagram.class + "]", e);
+        }
+    }
+
+    static Coordinate getCoordinate(JsonNode json) {
+        if (json == null) return null;
+        return CoordinateFactory.get(json.getDouble("x", 0), json.getDouble("y", 0));
+    }
+
+    static List<Coordinate> getCoordinates(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Coordinate> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(getCoordinate(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static NodeProperties getNodeProperties(JsonNode json) {
+        if (json == null) return null;
+        return NodePropertiesFactory.get(
+                json.getDouble("x", 0),
+                json.getDouble("y", 0),
+                json.getDouble("width", 0),
+                json.getDouble("height", 0)
+        );
+    }
+
+    static Bound getBound(JsonNode json) {
+        if (json == null) return null;
+        return BoundFactory.get(
+                json.getDouble("x", 0),
+                json.getDouble("y", 0),
+                json.getDouble("width", 0),
+                json.getDouble("height", 0)
+        );
+    }
+
+    static Color getColor(JsonNode json) {
+        if (json == null) return null;
+        return ColorFactory.get(json.getInteger("r"), json.getInteger("g"), json.getInteger("b"));
+    }
+
+    static Identifier getIdentifier(JsonNode json) {
+        return json == null ? null : new IdentifierImpl(json);
+    }
+
+    static Shape getShape(JsonNode json) {
+        if (json == null) return null;
+        return ShapeFactory.get(
+                getCoordinate(json.getObject("a")),
+                getCoordinate(json.getObject("b")),
+                getCoordinate(json.getObject("c")),
+                json.getDouble("r"),
+                json.getDouble("r1"),
+                json.getString("s"),
+                json.getBoolean("empty"),
+                json.getString("type")
+        );
+    }
+
+    static Stoichiometry getStoichiometry(JsonNode json) {
+        return json == null ? null : new StoichiometryImpl(json);
+    }
+
+    static SummaryItem getSummaryItem(JsonNode json) {
+        return json == null ? null : new SummaryItemImpl(json);
+    }
+
+    static List<Segment> getSegments(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Segment> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            JsonNode segment = json.getObject(key, i);
+            rtn.add(SegmentFactory.get(getCoordinate(segment.getObject("from")), getCoordinate(segment.getObject("to"))));
+        }
+        return rtn;
+    }
+
+    static List<NodeAttachment> getNodeAttachments(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<NodeAttachment> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new NodeAttachmentImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Connector> getConnectors(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Connector> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new ConnectorImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<ReactionPart> getReactionParts(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<ReactionPart> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new ReactionPartImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Node> getNodes(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Node> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new NodeImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Note> getNotes(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Note> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new NoteImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Edge> getEdges(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Edge> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new EdgeImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Link> getLinks(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Link> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new LinkImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Compartment> getCompartments(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Compartment> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new CompartmentImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+
+    static List<Shadow> getShadows(JsonNode json, String key) {
+        int n = json.size(key);
+        if (n == -1) return null;
+        List<Shadow> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(new ShadowImpl(json.getObject(key, i)));
+        }
+        return rtn;
+    }
+}
@@ -0,0 +1,115 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class DiagramImpl implements Diagram {
+
+    private Boolean isDisease;
+    private Boolean forNormalDraw;
+    private String displayName;
+    private List<Node> nodes;
+    private List<Note> notes;
+    private List<Edge> edges;
+    private List<Link> links;
+    private List<Compartment> compartments;
+    private List<Shadow> shadows;
+    private Long dbId;
+    private String stableId;
+    private Integer minX, maxX, minY, maxY;
+
+    DiagramImpl(JsonNode json) {
+        this.isDisease = json.getBoolean("isDisease");
+        this.forNormalDraw = json.getBoolean("forNormalDraw");
+        this.displayName = json.getString("displayName");
+        this.nodes = DiagramDecoder.getNodes(json, "nodes");
+        this.notes = DiagramDecoder.getNotes(json, "notes");
+        this.edges = DiagramDecoder.getEdges(json, "edges");
+        this.links = DiagramDecoder.getLinks(json, "links");
+        this.compartments = DiagramDecoder.getCompartments(json, "compartments");
+        this.shadows = DiagramDecoder.getShadows(json, "shadows");
+        this.dbId = json.getLong("dbId");
+        this.stableId = json.getString("stableId");
+        this.minX = json.getInteger("minX");
+        this.maxX = json.getInteger("maxX");
+        this.minY = json.getInteger("minY");
+        this.maxY = json.getInteger("maxY");
+    }
+
+    @Override
+    public Boolean getIsDisease() {
+        return isDisease;
+    }
+
+    @Override
+    public Boolean getForNormalDraw() {
+        return forNormalDraw;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public List<Note> getNotes() {
+        return notes;
+    }
+
+    @Override
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    @Override
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    @Override
+    public List<Compartment> getCompartments() {
+        return compartments;
+    }
+
+    @Override
+    public List<Shadow> getShadows() {
+        return shadows;
+    }
+
+    @Override
+    public Long getDbId() {
+        return dbId;
+    }
+
+    @Override
+    public String getStableId() {
+        return stableId;
+    }
+
+    @Override
+    public Integer getMinX() {
+        return minX;
+    }
+
+    @Override
+    public Integer getMaxX() {
+        return maxX;
+    }
+
+    @Override
+    public Integer getMinY() {
+        return minY;
+    }
+
+    @Override
+    public Integer getMaxY() {
+        return maxY;
+    }
+}
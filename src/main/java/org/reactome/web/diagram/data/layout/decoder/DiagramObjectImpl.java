@@ -0,0 +1,127 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.graph.model.GraphObject;
+import org.reactome.web.diagram.data.layout.ContextMenuTrigger;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.DiagramObject;
+import org.reactome.web.diagram.data.layout.NodeCommon;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+abstract class DiagramObjectImpl implements DiagramObject {
+
+    private Long id;
+    private Long reactomeId;
+    private String displayName;
+    private String schemaClass;
+    private String renderableClass;
+    private Coordinate position;
+    private Boolean isDisease;
+    private Boolean isFadeOut;
+    private double minX, minY, maxX, maxY;
+
+    private GraphObject graphObject;
+
+    DiagramObjectImpl(JsonNode json) {
+        this.id = json.getLong("id");
+        this.reactomeId = json.getLong("reactomeId");
+        this.displayName = json.getString("displayName");
+        this.schemaClass = json.getString("schemaClass");
+        this.renderableClass = json.getString("renderableClass");
+        this.position = DiagramDecoder.getCoordinate(json.getObject("position"));
+        this.isDisease = json.getBoolean("isDisease");
+        this.isFadeOut = json.getBoolean("isFadeOut");
+        this.minX = json.getDouble("minX", 0);
+        this.minY = json.getDouble("minY", 0);
+        this.maxX = json.getDouble("maxX", 0);
+        this.maxY = json.getDouble("maxY", 0);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Long getReactomeId() {
+        return reactomeId;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String getSchemaClass() {
+        return schemaClass;
+    }
+
+    @Override
+    public String getRenderableClass() {
+        return renderableClass;
+    }
+
+    @Override
+    public Coordinate getPosition() {
+        return position;
+    }
+
+    @Override
+    public Boolean getIsDisease() {
+        return isDisease;
+    }
+
+    @Override
+    public Boolean getIsFadeOut() {
+        return isFadeOut;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends GraphObject> T getGraphObject() {
+        return (T) graphObject;
+    }
+
+    @Override
+    public <T extends GraphObject> void setGraphObject(T obj) {
+        this.graphObject = obj;
+    }
+
+    //Same behaviour than DiagramObjectCategory.contextMenuTrigger
+    @Override
+    public ContextMenuTrigger contextMenuTrigger() {
+        if (this instanceof NodeCommon) {
+            return new ContextMenuTrigger((NodeCommon) this);
+        }
+        return null;
+    }
+
+    @Override
+    public double getMinX() {
+        return minX;
+    }
+
+    @Override
+    public double getMinY() {
+        return minY;
+    }
+
+    @Override
+    public double getMaxX() {
+        return maxX;
+    }
+
+    @Override
+    public double getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public String toString() {
+        return  schemaClass + "{" +
+                "id=" + id +
+                ", dbId=" + reactomeId +
+                ", displayName='" + displayName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,107 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.content.DiagramGeometry;
+import org.reactome.web.diagram.data.layout.EdgeCommon;
+import org.reactome.web.diagram.data.layout.ReactionPart;
+import org.reactome.web.diagram.data.layout.Segment;
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+abstract class EdgeCommonImpl extends DiagramObjectImpl implements EdgeCommon, DiagramGeometry.SegmentsHolder {
+
+    private String reactionType;
+    private String interactionType;
+    private List<Segment> segments;
+    private Shape endShape;
+    private Shape reactionShape;
+    private List<ReactionPart> inputs;
+    private List<ReactionPart> outputs;
+    private List<ReactionPart> catalysts;
+    private List<ReactionPart> inhibitors;
+    private List<ReactionPart> activators;
+    private List<Long> precedingEvents;
+    private List<Long> followingEvents;
+
+    EdgeCommonImpl(JsonNode json) {
+        super(json);
+        this.reactionType = json.getString("reactionType");
+        this.interactionType = json.getString("interactionType");
+        this.segments = DiagramDecoder.getSegments(json, "segments");
+        this.endShape = DiagramDecoder.getShape(json.getObject("endShape"));
+        this.reactionShape = DiagramDecoder.getShape(json.getObject("reactionShape"));
+        this.inputs = DiagramDecoder.getReactionParts(json, "inputs");
+        this.outputs = DiagramDecoder.getReactionParts(json, "outputs");
+        this.catalysts = DiagramDecoder.getReactionParts(json, "catalysts");
+        this.inhibitors = DiagramDecoder.getReactionParts(json, "inhibitors");
+        this.activators = DiagramDecoder.getReactionParts(json, "activators");
+        this.precedingEvents = json.getLongs("precedingEvents");
+        this.followingEvents = json.getLongs("followingEvents");
+    }
+
+    @Override
+    public String getReactionType() {
+        return reactionType;
+    }
+
+    @Override
+    public String getInteractionType() {
+        return interactionType;
+    }
+
+    @Override
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    @Override
+    public void setSegments(List<Segment> segments) {
+        this.segments = segments; //Once copied to the DiagramGeometry, the segments are read from there
+    }
+
+    @Override
+    public Shape getEndShape() {
+        return endShape;
+    }
+
+    @Override
+    public Shape getReactionShape() {
+        return reactionShape;
+    }
+
+    @Override
+    public List<ReactionPart> getInputs() {
+        return inputs;
+    }
+
+    @Override
+    public List<ReactionPart> getOutputs() {
+        return outputs;
+    }
+
+    @Override
+    public List<ReactionPart> getCatalysts() {
+        return catalysts;
+    }
+
+    @Override
+    public List<ReactionPart> getInhibitors() {
+        return inhibitors;
+    }
+
+    @Override
+    public List<ReactionPart> getActivators() {
+        return activators;
+    }
+
+    @Override
+    public List<Long> getPrecedingEvents() {
+        return precedingEvents;
+    }
+
+    @Override
+    public List<Long> getFollowingEvents() {
+        return followingEvents;
+    }
+}
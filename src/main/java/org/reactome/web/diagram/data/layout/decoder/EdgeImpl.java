@@ -0,0 +1,11 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Edge;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class EdgeImpl extends EdgeCommonImpl implements Edge {
+
+    EdgeImpl(JsonNode json) {
+        super(json);
+    }
+}
@@ -0,0 +1,25 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Identifier;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class IdentifierImpl implements Identifier {
+
+    private String resource;
+    private String id;
+
+    IdentifierImpl(JsonNode json) {
+        this.resource = json.getString("resource");
+        this.id = json.getString("id");
+    }
+
+    @Override
+    public String getResource() {
+        return resource;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+}
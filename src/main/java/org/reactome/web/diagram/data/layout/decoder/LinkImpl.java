@@ -0,0 +1,11 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Link;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class LinkImpl extends EdgeCommonImpl implements Link {
+
+    LinkImpl(JsonNode json) {
+        super(json);
+    }
+}
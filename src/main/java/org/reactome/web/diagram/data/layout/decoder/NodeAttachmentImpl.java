@@ -0,0 +1,40 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.NodeAttachment;
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class NodeAttachmentImpl implements NodeAttachment {
+
+    private String label;
+    private String description;
+    private Long reactomeId;
+    private Shape shape;
+
+    NodeAttachmentImpl(JsonNode json) {
+        this.label = json.getString("label");
+        this.description = json.getString("description");
+        this.reactomeId = json.getLong("reactomeId");
+        this.shape = DiagramDecoder.getShape(json.getObject("shape"));
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public Long getReactomeId() {
+        return reactomeId;
+    }
+
+    @Override
+    public Shape getShape() {
+        return shape;
+    }
+}
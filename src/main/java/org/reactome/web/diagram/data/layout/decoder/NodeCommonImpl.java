@@ -0,0 +1,75 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.*;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+abstract class NodeCommonImpl extends DiagramObjectImpl implements NodeCommon {
+
+    private NodeProperties prop;
+    private NodeProperties innerProp;
+    private Identifier identifier;
+    private Coordinate textPosition;
+    private Bound insets;
+    private Color bgColor;
+    private Color fgColor;
+    private Boolean isCrossed;
+    private Boolean needDashedBorder;
+
+    NodeCommonImpl(JsonNode json) {
+        super(json);
+        this.prop = DiagramDecoder.getNodeProperties(json.getObject("prop"));
+        this.innerProp = DiagramDecoder.getNodeProperties(json.getObject("innerProp"));
+        this.identifier = DiagramDecoder.getIdentifier(json.getObject("identifier"));
+        this.textPosition = DiagramDecoder.getCoordinate(json.getObject("textPosition"));
+        this.insets = DiagramDecoder.getBound(json.getObject("insets"));
+        this.bgColor = DiagramDecoder.getColor(json.getObject("bgColor"));
+        this.fgColor = DiagramDecoder.getColor(json.getObject("fgColor"));
+        this.isCrossed = json.getBoolean("isCrossed");
+        this.needDashedBorder = json.getBoolean("needDashedBorder");
+    }
+
+    @Override
+    public NodeProperties getProp() {
+        return prop;
+    }
+
+    @Override
+    public NodeProperties getInnerProp() {
+        return innerProp;
+    }
+
+    @Override
+    public Identifier getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Coordinate getTextPosition() {
+        return textPosition;
+    }
+
+    @Override
+    public Bound getInsets() {
+        return insets;
+    }
+
+    @Override
+    public Color getBgColor() {
+        return bgColor;
+    }
+
+    @Override
+    public Color getFgColor() {
+        return fgColor;
+    }
+
+    @Override
+    public Boolean getIsCrossed() {
+        return isCrossed;
+    }
+
+    @Override
+    public Boolean getNeedDashedBorder() {
+        return needDashedBorder;
+    }
+}
@@ -0,0 +1,58 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.interactors.common.InteractorsSummary;
+import org.reactome.web.diagram.data.layout.Connector;
+import org.reactome.web.diagram.data.layout.Node;
+import org.reactome.web.diagram.data.layout.NodeAttachment;
+import org.reactome.web.diagram.data.layout.SummaryItem;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class NodeImpl extends NodeCommonImpl implements Node {
+
+    private List<NodeAttachment> nodeAttachments;
+    private List<Connector> connectors;
+    private Boolean trivial;
+    private SummaryItem interactorsSummary;
+
+    private InteractorsSummary diagramEntityInteractorsSummary;
+
+    NodeImpl(JsonNode json) {
+        super(json);
+        this.nodeAttachments = DiagramDecoder.getNodeAttachments(json, "nodeAttachments");
+        this.connectors = DiagramDecoder.getConnectors(json, "connectors");
+        this.trivial = json.getBoolean("trivial");
+        this.interactorsSummary = DiagramDecoder.getSummaryItem(json.getObject("interactorsSummary"));
+    }
+
+    @Override
+    public List<NodeAttachment> getNodeAttachments() {
+        return nodeAttachments;
+    }
+
+    @Override
+    public List<Connector> getConnectors() {
+        return connectors;
+    }
+
+    @Override
+    public Boolean getTrivial() {
+        return trivial;
+    }
+
+    @Override
+    public SummaryItem getInteractorsSummary() {
+        return interactorsSummary;
+    }
+
+    @Override
+    public InteractorsSummary getDiagramEntityInteractorsSummary() {
+        return diagramEntityInteractorsSummary;
+    }
+
+    @Override
+    public void setDiagramEntityInteractorsSummary(InteractorsSummary interactorsSummary) {
+        this.diagramEntityInteractorsSummary = interactorsSummary;
+    }
+}
@@ -0,0 +1,11 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Note;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class NoteImpl extends NodeCommonImpl implements Note {
+
+    NoteImpl(JsonNode json) {
+        super(json);
+    }
+}
@@ -0,0 +1,35 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.ReactionPart;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class ReactionPartImpl implements ReactionPart {
+
+    private Long id;
+    private List<Coordinate> points;
+    private Integer stoichiometry;
+
+    ReactionPartImpl(JsonNode json) {
+        this.id = json.getLong("id");
+        this.points = DiagramDecoder.getCoordinates(json, "points");
+        this.stoichiometry = json.getInteger("stoichiometry");
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public List<Coordinate> getPoints() {
+        return points;
+    }
+
+    @Override
+    public Integer getStoichiometry() {
+        return stoichiometry;
+    }
+}
@@ -0,0 +1,37 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.NodeProperties;
+import org.reactome.web.diagram.data.layout.Shadow;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.List;
+
+class ShadowImpl extends DiagramObjectImpl implements Shadow {
+
+    private NodeProperties prop;
+    private List<Coordinate> points;
+    private String colour;
+
+    ShadowImpl(JsonNode json) {
+        super(json);
+        this.prop = DiagramDecoder.getNodeProperties(json.getObject("prop"));
+        this.points = DiagramDecoder.getCoordinates(json, "points");
+        this.colour = json.getString("colour");
+    }
+
+    @Override
+    public NodeProperties getProp() {
+        return prop;
+    }
+
+    @Override
+    public List<Coordinate> getPoints() {
+        return points;
+    }
+
+    @Override
+    public String getColour() {
+        return colour;
+    }
+}
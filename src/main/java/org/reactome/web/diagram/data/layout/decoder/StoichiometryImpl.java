@@ -0,0 +1,26 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.data.layout.Stoichiometry;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class StoichiometryImpl implements Stoichiometry {
+
+    private Integer value;
+    private Shape shape;
+
+    StoichiometryImpl(JsonNode json) {
+        this.value = json.getInteger("value");
+        this.shape = DiagramDecoder.getShape(json.getObject("shape"));
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    @Override
+    public Shape getShape() {
+        return shape;
+    }
+}
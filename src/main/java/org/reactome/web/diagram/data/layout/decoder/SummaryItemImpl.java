@@ -0,0 +1,62 @@
+package org.reactome.web.diagram.data.layout.decoder;
+
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.data.layout.SummaryItem;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+class SummaryItemImpl implements SummaryItem {
+
+    private String type;
+    private Shape shape;
+    private Boolean pressed;
+    private Integer number;
+    private Boolean hit;
+
+    SummaryItemImpl(JsonNode json) {
+        this.type = json.getString("type");
+        this.shape = DiagramDecoder.getShape(json.getObject("shape"));
+        this.pressed = json.getBoolean("pressed");
+        this.number = json.getInteger("number");
+        this.hit = json.getBoolean("hit");
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public Shape getShape() {
+        return shape;
+    }
+
+    @Override
+    public Boolean getPressed() {
+        return pressed;
+    }
+
+    @Override
+    public void setPressed(Boolean pressed) {
+        this.pressed = pressed;
+    }
+
+    @Override
+    public Integer getNumber() {
+        return number;
+    }
+
+    @Override
+    public void setNumber(Integer number) {
+        this.number = number;
+    }
+
+    @Override
+    public void setHit(Boolean hit) {
+        this.hit = hit;
+    }
+
+    @Override
+    public Boolean getHit() {
+        return hit;
+    }
+}
@@ -52,6 +52,7 @@ public class NodePropertiesFactory implements NodeProperties {
         return height;
     }
 
+    //Creates a new object per call: the result is kept and passed around by the renderers, so it cannot be shared
     public static NodeProperties transform(NodeProperties prop, double factor, Coordinate delta) {
         return new NodePropertiesFactory(
                 prop.getX() * factor + delta.getX(),
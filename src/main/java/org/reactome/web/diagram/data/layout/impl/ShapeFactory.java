@@ -27,6 +27,10 @@ public class ShapeFactory implements Shape {
         this.type = type;
     }
 
+    public static Shape get(Coordinate a, Coordinate b, Coordinate c, Double r, Double r1, String s, Boolean empty, String type) {
+        return new ShapeFactory(a, b, c, r, r1, s, empty, type);
+    }
+
     @Override
     public Coordinate getA() {
         return a;
@@ -3,8 +3,10 @@ package org.reactome.web.diagram.data.loader;
 import com.google.gwt.http.client.*;
 import org.reactome.web.diagram.client.DiagramFactory;
 import org.reactome.web.diagram.data.graph.raw.Graph;
+import org.reactome.web.diagram.data.graph.raw.factory.GraphDecoder;
 import org.reactome.web.diagram.data.graph.raw.factory.GraphFactory;
 import org.reactome.web.diagram.data.layout.factory.DiagramObjectException;
+import org.reactome.web.diagram.util.json.JsonNode;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -20,19 +22,52 @@ public class GraphLoader implements RequestCallback {
     public static String SUFFIX = ".graph.json?v=" + LoaderManager.version;
 
     private Handler handler;
+    private PersistentCache cache;
+    private boolean prefetch; //Speculative loads are counted apart in the cache statistics
     private Request request;
+    private String stId;
+    private int generation = 0; //Tells apart the callbacks of a canceled load from the ones of the current one
+    private long size;
+    private int job = -1; //Job in the JsonWorker (if any)
 
-    GraphLoader(Handler handler) {
+    GraphLoader(Handler handler, PersistentCache cache) {
+        this(handler, cache, false);
+    }
+
+    GraphLoader(Handler handler, PersistentCache cache, boolean prefetch) {
         this.handler = handler;
+        this.cache = cache;
+        this.prefetch = prefetch;
     }
 
     public void cancel(){
+        this.stId = null;
+        this.generation++;
         if(this.request!=null && this.request.isPending()){
             this.request.cancel();
         }
+        JsonWorker worker = JsonWorker.get();
+        if (worker != null) worker.cancel(job);
     }
 
     public void load(String stId){
+        this.stId = stId;
+        int generation = ++this.generation;
+        cache.read(PersistentCache.Type.GRAPH, stId, prefetch, json -> {
+            if (generation != this.generation) return; //Canceled in the meantime
+            JsonWorker worker = JsonWorker.get();
+            if (worker != null) {
+                //The worker parses the file (retrieving it when it is not cached) and the result is decoded here
+                this.job = worker.load(PREFIX + stId + SUFFIX, json, cache.isWritable(), getWorkerHandler(stId, json, generation));
+            } else if (json != null) {
+                process(json);
+            } else {
+                request(stId);
+            }
+        });
+    }
+
+    private void request(String stId){
         String url = PREFIX + stId + SUFFIX;
         RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, url);
         try {
@@ -45,23 +80,82 @@ public class GraphLoader implements RequestCallback {
     @Override
     public void onResponseReceived(Request request, Response response) {
         switch (response.getStatusCode()){
-            case Response.SC_OK:
-                long start = System.currentTimeMillis();
-                Graph graph;
-                try {
-                    //Creates the graph
-                    graph = GraphFactory.getGraphObject(Graph.class, response.getText());
-                } catch (DiagramObjectException e) {
-                    this.handler.onGraphLoaderError(e);
-                    return;
-                }
-                this.handler.graphLoaded(graph, System.currentTimeMillis() - start);
+            case Response.SC_OK: {
+                String stId = this.stId, json = response.getText();
+                if (process(json)) cache.write(PersistentCache.Type.GRAPH, stId, json);
                 break;
+            }
             default:
                 this.handler.onGraphLoaderError(new Exception(response.getStatusText()));
         }
     }
 
+    /**
+     * @return the size (in characters) of the last file processed
+     */
+    long getSize() {
+        return size;
+    }
+
+    private boolean process(String json) {
+        this.size = json.length();
+        long start = System.currentTimeMillis();
+        Graph graph;
+        try {
+            //Creates the graph
+            graph = DiagramFactory.DIRECT_JSON_DECODING ?
+                    GraphDecoder.decode(json) :
+                    GraphFactory.getGraphObject(Graph.class, json);
+        } catch (DiagramObjectException e) {
+            this.handler.onGraphLoaderError(e);
+            return false;
+        }
+        this.handler.graphLoaded(graph, System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private JsonWorker.Handler getWorkerHandler(String stId, String json, int generation) {
+        return new JsonWorker.Handler() {
+            @Override
+            public void onJsonParsed(JsonNode data, String text, long size, long time) {
+                if (generation != GraphLoader.this.generation) return; //Canceled in the meantime
+                GraphLoader.this.size = size;
+                if (process(data, time) && text != null) cache.write(PersistentCache.Type.GRAPH, stId, text);
+            }
+
+            @Override
+            public void onJsonError(Throwable exception) {
+                if (generation == GraphLoader.this.generation) handler.onGraphLoaderError(exception);
+            }
+
+            @Override
+            public void onWorkerUnavailable() {
+                if (generation != GraphLoader.this.generation) return; //Canceled in the meantime
+                //Falls back to the synchronous path
+                if (json != null) {
+                    process(json);
+                } else {
+                    request(stId);
+                }
+            }
+        };
+    }
+
+    //The time reported only includes the time spent in the UI thread (decoding the json parsed by the worker)
+    private boolean process(JsonNode json, long decodeTime) {
+        long start = System.currentTimeMillis();
+        Graph graph;
+        try {
+            graph = GraphDecoder.decode(json);
+        } catch (DiagramObjectException e) {
+            this.handler.onGraphLoaderError(e);
+            return false;
+        }
+        long time = System.currentTimeMillis() - start + decodeTime;
+        this.handler.graphLoaded(graph, time);
+        return true;
+    }
+
     @Override
     public void onError(Request request, Throwable exception) {
         this.handler.onGraphLoaderError(exception);
@@ -0,0 +1,237 @@
+package org.reactome.web.diagram.data.loader;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.util.Console;
+import org.reactome.web.diagram.util.json.CompactJson;
+import org.reactome.web.diagram.util.json.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the json files in a Web Worker, so the UI thread neither parses them nor (when they are not cached)
+ * receives them from the server.
+ *
+ * The worker parses the payload found in the persistent cache or, when it is not there, retrieves it from the
+ * server. The parsed json is handed back in a compact form (see CompactJson) whose typed arrays are transferred
+ * (not copied), so the decoders read it straight away and the UI thread only wraps it, which is reported as the
+ * decoding time. The persistent cache is only accessed from the UI thread (PersistentCache), so the worker
+ * hands back the payloads it retrieves when they have to be stored.
+ *
+ * The worker is created from an inline script the first time it is needed. When workers are not supported or
+ * the worker cannot be created (or fails afterwards), the jobs in progress are notified so the loaders fall back
+ * to the synchronous path and the worker is not used again.
+ */
+class JsonWorker {
+
+    interface Handler {
+        /**
+         * @param data the parsed json
+         * @param text the json retrieved from the server when it has to be stored in the persistent cache or null
+         * @param size the size (in characters) of the json
+         * @param time the time (in ms) spent in the UI thread wrapping the parsed json
+         */
+        void onJsonParsed(JsonNode data, String text, long size, long time);
+        void onJsonError(Throwable exception);
+        void onWorkerUnavailable();
+    }
+
+    private static final String SCRIPT = "" +
+            //Every value is written as [tag, a, b] followed by the elements (or the key and value of the members)
+            "var encode = function (root) {\n" +
+            "    var tape = [], numbers = [], strings = [], keys = [], stringIds = new Map(), keyIds = new Map();\n" +
+            "    var id = function (ids, table, value) {\n" +
+            "        var i = ids.get(value);\n" +
+            "        if (i === undefined) {\n" +
+            "            i = table.length;\n" +
+            "            table.push(value);\n" +
+            "            ids.set(value, i);\n" +
+            "        }\n" +
+            "        return i;\n" +
+            "    };\n" +
+            "    var put = function (value) {\n" +
+            "        var p = tape.length, i;\n" +
+            "        if (value === null) {\n" +
+            "            tape.push(0, 0, 0);\n" +
+            "        } else if (value === false) {\n" +
+            "            tape.push(1, 0, 0);\n" +
+            "        } else if (value === true) {\n" +
+            "            tape.push(2, 0, 0);\n" +
+            "        } else if (typeof value === 'number') {\n" +
+            "            tape.push(3, numbers.length, 0);\n" +
+            "            numbers.push(value);\n" +
+            "        } else if (typeof value === 'string') {\n" +
+            "            tape.push(4, id(stringIds, strings, value), 0);\n" +
+            "        } else if (Array.isArray(value)) {\n" +
+            "            tape.push(5, value.length, 0);\n" +
+            "            for (i = 0; i < value.length; i++) put(value[i]);\n" +
+            "            tape[p + 2] = tape.length;\n" +
+            "        } else {\n" +
+            "            var names = Object.keys(value);\n" +
+            "            tape.push(6, names.length, 0);\n" +
+            "            for (i = 0; i < names.length; i++) {\n" +
+            "                tape.push(id(keyIds, keys, names[i]));\n" +
+            "                put(value[names[i]]);\n" +
+            "            }\n" +
+            "            tape[p + 2] = tape.length;\n" +
+            "        }\n" +
+            "    };\n" +
+            "    put(root);\n" +
+            "    return {tape: new Int32Array(tape), numbers: new Float64Array(numbers), strings: strings, keys: keys};\n" +
+            "};\n" +
+            "var parse = function (json) {\n" +
+            "    try {\n" +
+            "        return encode(JSON.parse(json));\n" +
+            "    } catch (err) {\n" +
+            "        return null;\n" +
+            "    }\n" +
+            "};\n" +
+            "self.onmessage = function (e) {\n" +
+            "    var m = e.data;\n" +
+            "    var reply = function (data, json, text) {\n" +
+            "        self.postMessage({id: m.id, data: data, text: text, size: json.length}, [data.tape.buffer, data.numbers.buffer]);\n" +
+            "    };\n" +
+            "    var data = m.json == null ? null : parse(m.json);\n" +
+            "    if (data) return reply(data, m.json, null);\n" + //A corrupted entry is replaced by the retrieved one
+            "    var xhr = new XMLHttpRequest();\n" +
+            "    xhr.open('GET', m.url);\n" +
+            "    xhr.onload = function () {\n" +
+            "        if (xhr.status !== 200) {\n" +
+            "            self.postMessage({id: m.id, error: xhr.statusText || String(xhr.status)});\n" +
+            "        } else if (!(data = parse(xhr.responseText))) {\n" +
+            "            self.postMessage({id: m.id, error: 'Error parsing json retrieved from ' + m.url});\n" +
+            "        } else {\n" +
+            "            reply(data, xhr.responseText, m.store ? xhr.responseText : null);\n" +
+            "        }\n" +
+            "    };\n" +
+            "    xhr.onerror = function () {\n" +
+            "        self.postMessage({id: m.id, error: 'Error retrieving ' + m.url});\n" +
+            "    };\n" +
+            "    xhr.send();\n" +
+            "};";
+
+    private static JsonWorker instance = null;
+    private static boolean unavailable = false;
+
+    private JavaScriptObject worker;
+    private Map<Integer, Handler> jobs = new HashMap<>();
+    private int next = 0;
+
+    private JsonWorker(JavaScriptObject worker) {
+        this.worker = worker;
+        listen(worker);
+    }
+
+    /**
+     * @return the worker or null when the files have to be decoded in the UI thread
+     */
+    static JsonWorker get() {
+        if (!DiagramFactory.WORKER_JSON_DECODING || !DiagramFactory.DIRECT_JSON_DECODING || unavailable) return null;
+        if (instance == null) {
+            JavaScriptObject worker = create(SCRIPT);
+            if (worker == null) {
+                Console.info("Web Workers are not available. The json files will be decoded in the UI thread.");
+                unavailable = true;
+                return null;
+            }
+            instance = new JsonWorker(worker);
+        }
+        return instance;
+    }
+
+    /**
+     * Parses the given json or, when there is none, the one retrieved from the given url
+     *
+     * @param json  the json found in the persistent cache or null if it has to be retrieved
+     * @param store true when the retrieved json has to be handed back to store it in the persistent cache
+     * @return the job identifier (see cancel)
+     */
+    int load(String url, String json, boolean store, Handler handler) {
+        int id = next++;
+        jobs.put(id, handler);
+        post(worker, id, resolve(url), json, store);
+        return id;
+    }
+
+    /**
+     * The worker cannot be stopped, but the result of the job is discarded
+     */
+    void cancel(int id) {
+        jobs.remove(id);
+    }
+
+    private void onMessage(int id, JavaScriptObject data, String text, double size, String error) {
+        Handler handler = jobs.remove(id);
+        if (handler == null) return; //Canceled in the meantime
+        if (error != null) {
+            handler.onJsonError(new Exception(error));
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CompactJson json = CompactJson.get(data);
+        long time = System.currentTimeMillis() - start;
+        if (json == null) {
+            handler.onJsonError(new Exception("Error decoding the json received from the worker"));
+        } else {
+            handler.onJsonParsed(json, text, (long) size, time);
+        }
+    }
+
+    private void onWorkerError(String message) {
+        Console.info("The json worker failed (" + message + "). The json files will be decoded in the UI thread.");
+        unavailable = true;
+        instance = null;
+        terminate(worker);
+        List<Handler> handlers = new ArrayList<>(jobs.values());
+        jobs.clear();
+        for (Handler handler : handlers) {
+            handler.onWorkerUnavailable();
+        }
+    }
+
+    private static native JavaScriptObject create(String script) /*-{
+        try {
+            if (!$wnd.Worker || !$wnd.Blob || !$wnd.URL || !$wnd.URL.createObjectURL) return null;
+            if (!$wnd.Map || !$wnd.Int32Array || !$wnd.Float64Array) return null;
+            var url = $wnd.URL.createObjectURL(new $wnd.Blob([script], {type: 'application/javascript'}));
+            return new $wnd.Worker(url);
+        } catch (e) {
+            return null;
+        }
+    }-*/;
+
+    private native void listen(JavaScriptObject worker) /*-{
+        var _this = this;
+        worker.onmessage = $entry(function (e) {
+            var m = e.data;
+            _this.@org.reactome.web.diagram.data.loader.JsonWorker::onMessage(ILcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;DLjava/lang/String;)(m.id, m.data || null, m.text == null ? null : m.text, m.size || 0, m.error == null ? null : m.error);
+        });
+        worker.onerror = $entry(function (e) {
+            _this.@org.reactome.web.diagram.data.loader.JsonWorker::onWorkerError(Ljava/lang/String;)(e && e.message ? e.message : 'unknown error');
+        });
+    }-*/;
+
+    private static native void post(JavaScriptObject worker, int id, String url, String json, boolean store) /*-{
+        worker.postMessage({id: id, url: url, json: json, store: store});
+    }-*/;
+
+    private static native void terminate(JavaScriptObject worker) /*-{
+        try {
+            worker.terminate();
+        } catch (e) {
+            //Nothing to do here
+        }
+    }-*/;
+
+    //Relative urls cannot be resolved from within the worker (its location is a blob url)
+    private static native String resolve(String url) /*-{
+        try {
+            return new $wnd.URL(url, $doc.baseURI).href;
+        } catch (e) {
+            return url;
+        }
+    }-*/;
+}
@@ -3,8 +3,10 @@ package org.reactome.web.diagram.data.loader;
 import com.google.gwt.http.client.*;
 import org.reactome.web.diagram.client.DiagramFactory;
 import org.reactome.web.diagram.data.layout.Diagram;
+import org.reactome.web.diagram.data.layout.decoder.DiagramDecoder;
 import org.reactome.web.diagram.data.layout.factory.DiagramObjectException;
 import org.reactome.web.diagram.data.layout.factory.DiagramObjectsFactory;
+import org.reactome.web.diagram.util.json.JsonNode;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -21,19 +23,52 @@ public class LayoutLoader implements RequestCallback {
 
 
     private Handler handler;
+    private PersistentCache cache;
+    private boolean prefetch; //Speculative loads are counted apart in the cache statistics
     private Request request;
+    private String stId;
+    private int generation = 0; //Tells apart the callbacks of a canceled load from the ones of the current one
+    private long size;
+    private int job = -1; //Job in the JsonWorker (if any)
 
-    LayoutLoader(Handler handler) {
+    LayoutLoader(Handler handler, PersistentCache cache) {
+        this(handler, cache, false);
+    }
+
+    LayoutLoader(Handler handler, PersistentCache cache, boolean prefetch) {
         this.handler = handler;
+        this.cache = cache;
+        this.prefetch = prefetch;
     }
 
     public void cancel(){
+        this.stId = null;
+        this.generation++;
         if(this.request!=null && this.request.isPending()){
             this.request.cancel();
         }
+        JsonWorker worker = JsonWorker.get();
+        if (worker != null) worker.cancel(job);
     }
 
     void load(String stId){
+        this.stId = stId;
+        int generation = ++this.generation;
+        cache.read(PersistentCache.Type.LAYOUT, stId, prefetch, json -> {
+            if (generation != this.generation) return; //Canceled in the meantime
+            JsonWorker worker = JsonWorker.get();
+            if (worker != null) {
+                //The worker parses the file (retrieving it when it is not cached) and the result is decoded here
+                this.job = worker.load(PREFIX + stId + SUFFIX, json, cache.isWritable(), getWorkerHandler(stId, json, generation));
+            } else if (json != null) {
+                process(json);
+            } else {
+                request(stId);
+            }
+        });
+    }
+
+    private void request(String stId){
         String url = PREFIX + stId + SUFFIX;
         RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, url);
         try {
@@ -46,22 +81,83 @@ public class LayoutLoader implements RequestCallback {
     @Override
     public void onResponseReceived(Request request, Response response) {
         switch (response.getStatusCode()) {
-            case Response.SC_OK:
-                try {
-                    long start = System.currentTimeMillis();
-                    //Creates the rawmodel
-                    Diagram diagram = DiagramObjectsFactory.getModelObject(Diagram.class, response.getText());
-                    long time = System.currentTimeMillis() - start;
-                    this.handler.layoutLoaded(diagram, time);
-                } catch (DiagramObjectException e) {
-                    this.handler.onLayoutLoaderError(e);
-                }
+            case Response.SC_OK: {
+                String stId = this.stId, json = response.getText();
+                if (process(json)) cache.write(PersistentCache.Type.LAYOUT, stId, json);
                 break;
+            }
             default:
                 this.handler.onLayoutLoaderError(new Exception(response.getStatusText()));
         }
     }
 
+    /**
+     * @return the size (in characters) of the last file processed
+     */
+    long getSize() {
+        return size;
+    }
+
+    private boolean process(String json) {
+        this.size = json.length();
+        Diagram diagram;
+        long start = System.currentTimeMillis();
+        try {
+            //Creates the rawmodel
+            diagram = DiagramFactory.DIRECT_JSON_DECODING ?
+                    DiagramDecoder.decode(json) :
+                    DiagramObjectsFactory.getModelObject(Diagram.class, json);
+        } catch (DiagramObjectException e) {
+            this.handler.onLayoutLoaderError(e);
+            return false;
+        }
+        long time = System.currentTimeMillis() - start;
+        this.handler.layoutLoaded(diagram, time);
+        return true;
+    }
+
+    private JsonWorker.Handler getWorkerHandler(String stId, String json, int generation) {
+        return new JsonWorker.Handler() {
+            @Override
+            public void onJsonParsed(JsonNode data, String text, long size, long time) {
+                if (generation != LayoutLoader.this.generation) return; //Canceled in the meantime
+                LayoutLoader.this.size = size;
+                if (process(data, time) && text != null) cache.write(PersistentCache.Type.LAYOUT, stId, text);
+            }
+
+            @Override
+            public void onJsonError(Throwable exception) {
+                if (generation == LayoutLoader.this.generation) handler.onLayoutLoaderError(exception);
+            }
+
+            @Override
+            public void onWorkerUnavailable() {
+                if (generation != LayoutLoader.this.generation) return; //Canceled in the meantime
+                //Falls back to the synchronous path
+                if (json != null) {
+                    process(json);
+                } else {
+                    request(stId);
+                }
+            }
+        };
+    }
+
+    //The time reported only includes the time spent in the UI thread (decoding the json parsed by the worker)
+    private boolean process(JsonNode json, long decodeTime) {
+        long start = System.currentTimeMillis();
+        Diagram diagram;
+        try {
+            diagram = DiagramDecoder.decode(json);
+        } catch (DiagramObjectException e) {
+            this.handler.onLayoutLoaderError(e);
+            return false;
+        }
+        long time = System.currentTimeMillis() - start + decodeTime;
+        this.handler.layoutLoaded(diagram, time);
+        return true;
+    }
+
     @Override
     public void onError(Request request, Throwable exception) {
         this.handler.onLayoutLoaderError(exception);
@@ -29,9 +29,12 @@ import static org.reactome.web.diagram.data.content.Content.Type.DIAGRAM;
  *      2nd step: Loads Graph
  *      3rd step: Loads Interactors (if INTERACTORS_RESOURCE is not null)
  *
+ * The graph only depends on the identifier, so it is requested at the same time than the SVG (or the layout)
+ * and it is applied to the content once both of them have been received.
+ *
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
-public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, GraphLoader.Handler, InteractorsLoader.Handler,
+public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, GraphLoader.Handler, InteractorsLoader.Handler, PrefetchScheduler.Handler,
         InteractorsResourceChangedHandler, InteractorsRequestCanceledHandler, ContentRequestedHandler, ContentLoadedHandler {
 
     //Every time the diagram widget is loaded will retrieve new data from the sever
@@ -41,21 +44,35 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
     //the "user preferred" interactors resource will be selected
     public static OverlayResource INTERACTORS_RESOURCE = new OverlayResource(DiagramFactory.INTERACTORS_INITIAL_RESOURCE, DiagramFactory.INTERACTORS_INITIAL_RESOURCE_NAME, OverlayResource.ResourceType.STATIC);
 
-    private LruCache<String, Context> contextMap = new LruCache<>(5);
+    private static final int CONTEXTS_CACHE_SIZE = 5;
+    //Prefetched contexts should not evict the most recently displayed ones
+    private static final int MAX_PREFETCHED = CONTEXTS_CACHE_SIZE - 2;
+
+    private LruCache<String, Context> contextMap = new LruCache<>(CONTEXTS_CACHE_SIZE);
     private EventBus eventBus;
 
     private SVGLoader svgLoader;
     private LayoutLoader layoutLoader;
     private GraphLoader graphLoader;
     private InteractorsLoader interactorsLoader;
+    private PrefetchScheduler prefetchScheduler;
     private Context context;
 
+    //The graph can be received before the content it has to be applied to
+    private Graph graph;
+    private long graphTime;
+    //Timestamps used to calculate the time saved by retrieving the graph in parallel
+    private long requested, contentReceived, graphReceived;
+
     public LoaderManager(EventBus eventBus) {
         this.eventBus = eventBus;
-        svgLoader = new SVGLoader(this);
-        layoutLoader = new LayoutLoader(this);
-        graphLoader = new GraphLoader(this);
+        PersistentCache cache = new PersistentCache(eventBus);
+        cache.init(); //Retrieves the release version from the current server
+        svgLoader = new SVGLoader(this, cache);
+        layoutLoader = new LayoutLoader(this, cache);
+        graphLoader = new GraphLoader(this, cache);
         interactorsLoader = new InteractorsLoader(this);
+        prefetchScheduler = new PrefetchScheduler(this, cache);
 
         //For the time being we only want to do something on demand for interactors
         eventBus.addHandler(InteractorsResourceChangedEvent.TYPE, this);
@@ -69,7 +86,9 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
         layoutLoader.cancel();
         graphLoader.cancel();
         interactorsLoader.cancel();
+        prefetchScheduler.cancel();
         context = null;
+        graph = null;
     }
 
     public void load(String identifier) {
@@ -83,11 +102,13 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
         if (context != null) {
             eventBus.fireEventFromSource(new ContentLoadedEvent(context), this);
         } else {
+            requested = System.currentTimeMillis();
             if (SVGLoader.isSVGAvailable(identifier)) {
                 svgLoader.load(identifier);
             } else {
                 layoutLoader.load(identifier);
             }
+            graphLoader.load(identifier);
         }
     }
 
@@ -104,7 +125,8 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
         //caching the context
         contextMap.put(context.getContent().getStableId(), context);
         this.context = context;
-        graphLoader.load(stId);
+        contentReceived = System.currentTimeMillis();
+        applyGraph();
 //        eventBus.fireEventFromSource(new ContentLoadedEvent(svg), this);
 //        Nothing else here. Plan A finishes if there is an SVG
     }
@@ -122,9 +144,10 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
         //caching the context
         contextMap.put(context.getContent().getStableId(), context);
         this.context = context;
-        graphLoader.load(diagram.getStableId());
-        time += System.currentTimeMillis() - start;
+        contentReceived = System.currentTimeMillis();
+        time += contentReceived - start;
         eventBus.fireEventFromSource(new LayoutLoadedEvent(context, time), this);
+        applyGraph();
     }
 
     @Override
@@ -137,10 +160,22 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
 
     @Override
     public void graphLoaded(Graph graph, long time) {
+        this.graph = graph;
+        this.graphTime = time;
+        this.graphReceived = System.currentTimeMillis();
+        applyGraph();
+    }
+
+    //Joins the graph and the content once both of them have been received
+    private void applyGraph() {
+        if (context == null || graph == null) return;
         long start = System.currentTimeMillis();
         ContentFactory.fillGraphContent(context.getContent(), graph);
-        time += System.currentTimeMillis() - start;
-        eventBus.fireEventFromSource(new GraphLoadedEvent(context.getContent(), time), this);
+        long time = graphTime + System.currentTimeMillis() - start;
+        //Loading them one after the other would have taken the sum of both, so the overlap is the shortest of them
+        long overlap = Math.min(contentReceived, graphReceived) - requested;
+        graph = null;
+        eventBus.fireEventFromSource(new GraphLoadedEvent(context.getContent(), time, overlap), this);
         //Once the graph is loaded the ContentLoadedEvent can be fired
         eventBus.fireEventFromSource(new ContentLoadedEvent(context), this);
     }
@@ -180,8 +215,15 @@ public class LoaderManager implements SVGLoader.Handler, LayoutLoader.Handler, G
         interactorsLoader.cancel();
     }
 
+    @Override
+    public void onPrefetched(String stId, Context context) {
+        //The user might have navigated to the same diagram in the meantime
+        if (!contextMap.containsKey(stId)) contextMap.put(stId, context);
+    }
+
     @Override
     public void onContentLoaded(ContentLoadedEvent event) {
+        prefetchScheduler.schedule(event.getContext().getContent(), contextMap::containsKey, MAX_PREFETCHED);
         if (event.getContext().getContent().getType() == DIAGRAM) {
             context = event.getContext();
             if (INTERACTORS_RESOURCE != null) {   //Checking here so no error message is displayed in this case
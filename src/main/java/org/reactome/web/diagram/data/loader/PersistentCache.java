@@ -0,0 +1,147 @@
+package org.reactome.web.diagram.data.loader;
+
+import com.google.gwt.event.shared.EventBus;
+import com.google.gwt.http.client.*;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.events.ContentCacheStatsEvent;
+import org.reactome.web.diagram.util.storage.StorageSolutionFactory;
+import org.reactome.web.diagram.util.storage.solutions.AsyncStorageSolution;
+
+/**
+ * Persistent tier for the layout, graph and SVG files so they are not retrieved again from the server in
+ * every new session. The payloads are kept in the AsyncStorageSolution (IndexedDB), which also keeps their
+ * size and last access, so the tabs sharing it do not overwrite each other's bookkeeping.
+ *
+ * Entries are keyed by release version and stable identifier. The current release version is retrieved
+ * from the server when the cache is initialised, in parallel with the first contents, so nothing waits for it:
+ * the reads requested in the meantime are answered as misses (and retrieved from the server) and the payloads
+ * received in the meantime are not stored. Once known, the entries of any other release are considered stale
+ * and removed. The size of the stored payloads
+ * is bounded by DiagramFactory.PERSISTENT_CACHE_SIZE and the least recently used ones are evicted first.
+ */
+public class PersistentCache {
+
+    public enum Type { LAYOUT, GRAPH, SVG }
+
+    public interface Handler {
+        //value is null when the payload is not cached (so it has to be retrieved from the server)
+        void onCacheRead(String value);
+    }
+
+    private static final String VERSION_PATH = "/ContentService/data/database/version";
+
+    private EventBus eventBus;
+    private AsyncStorageSolution storage;
+    private String version = null;
+    private boolean requested = false;
+    private long stored = 0;
+
+    private int hits = 0, misses = 0;
+    private int prefetchHits = 0, prefetchMisses = 0;
+    private long saved = 0;
+
+    PersistentCache(EventBus eventBus) {
+        this.eventBus = eventBus;
+        if (DiagramFactory.PERSISTENT_CACHE_SIZE > 0) {
+            this.storage = StorageSolutionFactory.getAsyncStorage();
+        }
+    }
+
+    /**
+     * Retrieves the current release version from the server. The cache is not used until it is known
+     */
+    void init() {
+        if (storage == null || requested) return;
+        requested = true;
+        String url = DiagramFactory.SERVER + VERSION_PATH;
+        RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, url);
+        try {
+            requestBuilder.sendRequest(null, new RequestCallback() {
+                @Override
+                public void onResponseReceived(Request request, Response response) {
+                    if (response.getStatusCode() != Response.SC_OK) return;
+                    try {
+                        setVersion(Integer.parseInt(response.getText().trim()));
+                    } catch (NumberFormatException e) {
+                        //Nothing here (the cache is not used)
+                    }
+                }
+
+                @Override
+                public void onError(Request request, Throwable exception) {
+                    //Nothing here (the cache is not used)
+                }
+            });
+        } catch (RequestException e) {
+            //Nothing here (the cache is not used)
+        }
+    }
+
+    public void read(Type type, String stId, Handler handler) {
+        read(type, stId, false, handler);
+    }
+
+    /**
+     * @param prefetch true for the speculative reads, so they are counted apart from the ones the user waits for
+     */
+    public void read(Type type, String stId, boolean prefetch, Handler handler) {
+        String key = getKey(type, stId);
+        if (key == null) {
+            count(prefetch, null);
+            handler.onCacheRead(null);
+            return;
+        }
+        storage.read(key, (k, value) -> {
+            count(prefetch, value);
+            handler.onCacheRead(value);
+        });
+    }
+
+    /**
+     * @return true when the payloads can be stored (so the ones retrieved elsewhere are worth handing back)
+     */
+    boolean isWritable() {
+        return storage != null && version != null;
+    }
+
+    public void write(Type type, String stId, String value) {
+        String key = getKey(type, stId);
+        if (key == null || value == null || value.length() > getCapacity()) return;
+        storage.write(key, value);
+        storage.evict(getCapacity(), this::setStored);
+    }
+
+    private String getKey(Type type, String stId) {
+        if (storage == null || version == null || stId == null) return null;
+        return version + "/" + type.name().toLowerCase() + "/" + stId;
+    }
+
+    private long getCapacity() {
+        return DiagramFactory.PERSISTENT_CACHE_SIZE * 1024L * 1024L;
+    }
+
+    private void setVersion(int version) {
+        this.version = String.valueOf(version);
+        storage.retain(this.version + "/"); //The entries of any other release are stale
+        storage.evict(getCapacity(), this::setStored);
+    }
+
+    private void count(boolean prefetch, String value) {
+        if (value == null) {
+            if (prefetch) prefetchMisses++; else misses++;
+        } else {
+            if (prefetch) prefetchHits++; else hits++;
+            saved += value.length();
+        }
+        fireStats();
+    }
+
+    private void setStored(long stored) {
+        this.stored = stored;
+        fireStats();
+    }
+
+    private void fireStats() {
+        eventBus.fireEventFromSource(new ContentCacheStatsEvent(hits, misses, prefetchHits, prefetchMisses, saved, stored), this);
+    }
+}
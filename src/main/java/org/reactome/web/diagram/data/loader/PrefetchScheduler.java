@@ -0,0 +1,271 @@
+package org.reactome.web.diagram.data.loader;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Event;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.data.ContentFactory;
+import org.reactome.web.diagram.data.Context;
+import org.reactome.web.diagram.data.content.Content;
+import org.reactome.web.diagram.data.graph.model.GraphPathway;
+import org.reactome.web.diagram.data.graph.raw.Graph;
+import org.reactome.web.diagram.data.layout.Diagram;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Speculatively loads the diagrams of the pathways referenced from the displayed content (encapsulated
+ * pathways in a diagram or annotated subpathways in an EHLD) so they are already in the contexts cache
+ * when the user drills into them.
+ *
+ * Every step (starting a load, creating the content and applying the graph) runs when the browser is idle
+ * (requestIdleCallback, or a fixed delay where it is not supported). Creating the content and applying the graph
+ * cannot be split, so they only run when their time (estimated from the size of the file and the previous steps)
+ * fits in the remaining idle time, and the pathways that would not fit in any idle period are skipped. As soon as
+ * the user interacts with the page the slots are given up (refunding the budget they used), their pathways queued
+ * again and the prefetching waits for the next idle period.
+ * It is bounded by the number of concurrent requests (DiagramFactory.PREFETCH_CONCURRENCY), the size of the
+ * processed files (DiagramFactory.PREFETCH_BUDGET) and the number of contexts that can be added without
+ * evicting the ones recently displayed. It is canceled as soon as a different content is requested.
+ */
+class PrefetchScheduler implements Event.NativePreviewHandler {
+
+    interface Handler {
+        void onPrefetched(String stId, Context context);
+    }
+
+    private static final int IDLE_TIME = 2000; //ms (only where requestIdleCallback is not supported)
+    private static final int MAX_IDLE_TIME = 50; //ms (longest idle period granted by the browsers)
+
+    private Handler handler;
+    private List<Slot> slots = new ArrayList<>();
+    private LinkedList<String> queue = new LinkedList<>();
+    private HandlerRegistration inputHandler;
+    private int generation = 0; //Discards the idle callbacks requested before a cancel
+    private boolean waiting = false; //An idle callback has been requested and not run yet
+    private boolean pressed = false; //The user is dragging
+    private long budget;
+    private int available;
+    private double costPerByte = 0.0001; //ms (estimation updated with every step)
+
+    PrefetchScheduler(Handler handler, PersistentCache cache) {
+        this.handler = handler;
+        for (int i = 0; i < DiagramFactory.PREFETCH_CONCURRENCY; i++) {
+            slots.add(new Slot(cache));
+        }
+    }
+
+    /**
+     * @param content       the displayed content
+     * @param isCached      tells whether the context for a given identifier is already cached
+     * @param maxDiagrams   the maximum number of contexts to be prefetched
+     */
+    void schedule(Content content, Predicate<String> isCached, int maxDiagrams) {
+        cancel();
+        if (slots.isEmpty() || maxDiagrams <= 0) return;
+        for (GraphPathway pathway : content.getEncapsulatedPathways()) {
+            String stId = pathway.getStId();
+            if (stId == null || stId.equals(content.getStableId()) || queue.contains(stId)) continue;
+            //Pathways with EHLD are loaded from the SVG, so the layout would not be used
+            if (isCached.test(stId) || SVGLoader.isSVGAvailable(stId)) continue;
+            queue.add(stId);
+        }
+        if (queue.isEmpty()) return;
+        budget = DiagramFactory.PREFETCH_BUDGET * 1024L * 1024L;
+        available = maxDiagrams;
+        inputHandler = Event.addNativePreviewHandler(this);
+        whenIdle();
+    }
+
+    void cancel() {
+        generation++;
+        waiting = false;
+        if (inputHandler != null) {
+            inputHandler.removeHandler();
+            inputHandler = null;
+        }
+        queue.clear();
+        for (Slot slot : slots) slot.cancel();
+    }
+
+    @Override
+    public void onPreviewNativeEvent(Event.NativePreviewEvent event) {
+        switch (event.getTypeInt()) {
+            case Event.ONMOUSEDOWN:
+            case Event.ONTOUCHSTART:
+                pressed = true;
+                pause();
+                break;
+            case Event.ONMOUSEUP:
+            case Event.ONTOUCHEND:
+            case Event.ONTOUCHCANCEL:
+                pressed = false;
+                break;
+            case Event.ONMOUSEMOVE:
+            case Event.ONTOUCHMOVE:
+                if (pressed) pause();
+                break;
+            case Event.ONMOUSEWHEEL:
+            case Event.ONKEYDOWN:
+                pause();
+                break;
+        }
+    }
+
+    //The slots are given up while the user interacts with the page and their pathways are queued again
+    private void pause() {
+        for (Slot slot : slots) {
+            if (slot.isBusy()) {
+                queue.addFirst(slot.stId);
+                available++;
+                budget += slot.spent; //The files will be processed again
+                slot.cancel();
+            }
+        }
+        if (!queue.isEmpty()) whenIdle();
+    }
+
+    private void resume() {
+        if (pressed) {
+            whenIdle();
+        } else {
+            for (Slot slot : slots) next(slot);
+        }
+    }
+
+    private void whenIdle() {
+        if (waiting) return;
+        waiting = true;
+        int generation = this.generation;
+        requestIdleCallback(timeRemaining -> {
+            if (generation != this.generation) return;
+            waiting = false;
+            resume();
+        }, IDLE_TIME);
+    }
+
+    private void next(Slot slot) {
+        if (slot.isBusy() || queue.isEmpty() || budget <= 0 || available <= 0) return;
+        available--;
+        slot.load(queue.poll());
+    }
+
+    private class Slot implements LayoutLoader.Handler, GraphLoader.Handler {
+        private LayoutLoader layoutLoader;
+        private GraphLoader graphLoader;
+        private String stId;
+        private Content content;
+        private long spent = 0; //Bytes of the budget used by the pathway being prefetched
+        private int generation = 0; //Discards the steps requested before the slot was canceled
+
+        Slot(PersistentCache cache) {
+            this.layoutLoader = new LayoutLoader(this, cache, true);
+            this.graphLoader = new GraphLoader(this, cache, true);
+        }
+
+        boolean isBusy() {
+            return stId != null;
+        }
+
+        void load(String stId) {
+            this.stId = stId;
+            this.spent = 0;
+            layoutLoader.load(stId);
+        }
+
+        void cancel() {
+            generation++;
+            layoutLoader.cancel();
+            graphLoader.cancel();
+            stId = null;
+            content = null;
+            spent = 0;
+        }
+
+        @Override
+        public void layoutLoaded(Diagram diagram, long time) {
+            long size = layoutLoader.getSize();
+            charge(size);
+            whenIdle(size, () -> {
+                content = ContentFactory.getContent(diagram);
+                graphLoader.load(stId);
+            });
+        }
+
+        @Override
+        public void graphLoaded(Graph graph, long time) {
+            long size = graphLoader.getSize();
+            charge(size);
+            whenIdle(size, () -> {
+                ContentFactory.fillGraphContent(content, graph);
+                handler.onPrefetched(stId, new Context(content));
+                done();
+            });
+        }
+
+        @Override
+        public void onLayoutLoaderError(Throwable exception) {
+            done(); //Not every pathway has its own diagram, so nothing else to do here
+        }
+
+        @Override
+        public void onGraphLoaderError(Throwable exception) {
+            done();
+        }
+
+        private void done() {
+            stId = null;
+            content = null;
+            spent = 0;
+            next(this);
+        }
+
+        private void charge(long size) {
+            spent += size;
+            budget -= size;
+        }
+
+        //Runs the step (processing a file of the given size) in an idle period with enough time remaining for it
+        private void whenIdle(long size, Runnable step) {
+            double estimation = size * costPerByte;
+            if (estimation > MAX_IDLE_TIME) {
+                done(); //It would block the main thread longer than any idle period
+                return;
+            }
+            int generation = this.generation;
+            requestIdleCallback(timeRemaining -> {
+                if (generation != this.generation) return;
+                if (timeRemaining < estimation) {
+                    whenIdle(size, step); //Not enough time left in this idle period
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                step.run();
+                //The estimation decays slowly so a step too short to be measured does not disable it
+                if (size > 0) costPerByte = Math.max((System.currentTimeMillis() - start) / (double) size, costPerByte / 2);
+            }, IDLE_TIME);
+        }
+    }
+
+    private interface IdleCommand {
+        void run(double timeRemaining);
+    }
+
+    //Runs the command in the next idle period of the browser (or after the fallback delay where not supported)
+    private static native void requestIdleCallback(IdleCommand command, int fallback) /*-{
+        var run = $entry(function (timeRemaining) {
+            command.@org.reactome.web.diagram.data.loader.PrefetchScheduler.IdleCommand::run(D)(timeRemaining);
+        });
+        if ($wnd.requestIdleCallback) {
+            $wnd.requestIdleCallback(function (deadline) {
+                run(deadline.timeRemaining());
+            });
+        } else {
+            $wnd.setTimeout(function () {
+                run(@org.reactome.web.diagram.data.loader.PrefetchScheduler::MAX_IDLE_TIME);
+            }, fallback);
+        }
+    }-*/;
+}
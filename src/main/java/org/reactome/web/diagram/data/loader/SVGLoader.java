@@ -34,22 +34,38 @@ public class SVGLoader implements RequestCallback {
     }
 
     private Handler handler;
+    private PersistentCache cache;
     private Request request;
     private String stId;
+    private int generation = 0; //Tells apart the callbacks of a canceled load from the ones of the current one
 
-    SVGLoader(Handler handler) {
+    SVGLoader(Handler handler, PersistentCache cache) {
         this.handler = handler;
+        this.cache = cache;
     }
 
     public void cancel() {
+        this.stId = null;
+        this.generation++;
         if (this.request != null && this.request.isPending()) {
-            this.stId = null;
             this.request.cancel();
         }
     }
 
     void load(String stId) {
         this.stId = stId;
+        int generation = ++this.generation;
+        cache.read(PersistentCache.Type.SVG, stId, content -> {
+            if (generation != this.generation) return; //Canceled in the meantime
+            if (content != null) {
+                process(content);
+            } else {
+                request(stId);
+            }
+        });
+    }
+
+    private void request(String stId) {
         if (!stId.endsWith(".svg")) stId = stId + ".svg";
 
         String url = PREFIX + stId + SUFFIX;
@@ -64,21 +80,29 @@ public class SVGLoader implements RequestCallback {
     @Override
     public void onResponseReceived(Request request, Response response) {
         switch (response.getStatusCode()) {
-            case Response.SC_OK:
-                try {
-                    long start = System.currentTimeMillis();
-                    OMSVGSVGElement svg = OMSVGParser.parse(response.getText(), false);
-                    long time = System.currentTimeMillis() - start;
-                    this.handler.onSvgLoaded(stId, svg, time);
-                } catch (ParserException e) {
-                    this.handler.onSvgLoaderError(stId, e);
-                }
+            case Response.SC_OK: {
+                String stId = this.stId, content = response.getText();
+                if (process(content)) cache.write(PersistentCache.Type.SVG, stId, content);
                 break;
+            }
             default:
                 this.handler.onSvgLoaderError(stId, new Exception(response.getStatusText()));
         }
     }
 
+    private boolean process(String content) {
+        try {
+            long start = System.currentTimeMillis();
+            OMSVGSVGElement svg = OMSVGParser.parse(content, false);
+            long time = System.currentTimeMillis() - start;
+            this.handler.onSvgLoaded(stId, svg, time);
+            return true;
+        } catch (ParserException e) {
+            this.handler.onSvgLoaderError(stId, e);
+            return false;
+        }
+    }
+
     @Override
     public void onError(Request request, Throwable exception) {
         this.handler.onSvgLoaderError(stId, exception);
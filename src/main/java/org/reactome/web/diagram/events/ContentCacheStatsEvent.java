@@ -0,0 +1,85 @@
+package org.reactome.web.diagram.events;
+
+import com.google.gwt.event.shared.GwtEvent;
+import org.reactome.web.diagram.handlers.ContentCacheStatsHandler;
+
+/**
+ * Fired every time the persistent cache is queried for a layout, graph or SVG
+ */
+public class ContentCacheStatsEvent extends GwtEvent<ContentCacheStatsHandler> {
+    public static Type<ContentCacheStatsHandler> TYPE = new Type<>();
+
+    private int hits;
+    private int misses;
+    private int prefetchHits;
+    private int prefetchMisses;
+    private long bytesSaved;
+    private long bytesStored;
+
+    public ContentCacheStatsEvent(int hits, int misses, int prefetchHits, int prefetchMisses, long bytesSaved, long bytesStored) {
+        this.hits = hits;
+        this.misses = misses;
+        this.prefetchHits = prefetchHits;
+        this.prefetchMisses = prefetchMisses;
+        this.bytesSaved = bytesSaved;
+        this.bytesStored = bytesStored;
+    }
+
+    @Override
+    public Type<ContentCacheStatsHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    @Override
+    protected void dispatch(ContentCacheStatsHandler handler) {
+        handler.onContentCacheStats(this);
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the hits of the speculative reads (not included in getHits)
+     */
+    public int getPrefetchHits() {
+        return prefetchHits;
+    }
+
+    /**
+     * @return the misses of the speculative reads (not included in getMisses)
+     */
+    public int getPrefetchMisses() {
+        return prefetchMisses;
+    }
+
+    /**
+     * @return the size (in characters) of the payloads that have been read from the cache instead of the server
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * @return the size (in characters) of the payloads currently kept in the cache
+     */
+    public long getBytesStored() {
+        return bytesStored;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentCacheStatsEvent{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", prefetchHits=" + prefetchHits +
+                ", prefetchMisses=" + prefetchMisses +
+                ", bytesSaved=" + bytesSaved +
+                ", bytesStored=" + bytesStored +
+                '}';
+    }
+}
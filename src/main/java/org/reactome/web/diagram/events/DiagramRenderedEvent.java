@@ -3,8 +3,12 @@ package org.reactome.web.diagram.events;
 import com.google.gwt.event.shared.GwtEvent;
 import org.reactome.web.diagram.data.content.Content;
 import org.reactome.web.diagram.handlers.DiagramRenderedHandler;
+import org.reactome.web.diagram.renderers.helper.RenderLayer;
 import uk.ac.ebi.pwp.structures.quadtree.client.Box;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
@@ -15,12 +19,32 @@ public class DiagramRenderedEvent extends GwtEvent<DiagramRenderedHandler> {
     private Box visibleArea;
     private int items;
     private double time;
+    private Map<RenderLayer, Double> layerTimes;
+    private int textCacheHits;
+    private int textCacheMisses;
+    private int slices;
+    private double overlayTime;
+    private int overlayRegions;
+    private boolean offscreen;
 
     public DiagramRenderedEvent(Content content, Box visibleArea, int items, double time) {
+        this(content, visibleArea, items, time, new EnumMap<>(RenderLayer.class), 0, 0, 1, 0, 0, false);
+    }
+
+    public DiagramRenderedEvent(Content content, Box visibleArea, int items, double time, Map<RenderLayer, Double> layerTimes,
+                                int textCacheHits, int textCacheMisses, int slices, double overlayTime, int overlayRegions,
+                                boolean offscreen) {
         this.content = content;
         this.visibleArea = visibleArea;
         this.items = items;
         this.time = time;
+        this.layerTimes = layerTimes;
+        this.textCacheHits = textCacheHits;
+        this.textCacheMisses = textCacheMisses;
+        this.slices = slices;
+        this.overlayTime = overlayTime;
+        this.overlayRegions = overlayRegions;
+        this.offscreen = offscreen;
     }
 
     @Override
@@ -40,6 +64,51 @@ public class DiagramRenderedEvent extends GwtEvent<DiagramRenderedHandler> {
         return time;
     }
 
+    /**
+     * @return the time (in ms) spent in the last repaint of each layer. Layers that were not dirty in this
+     * frame keep the time of their last repaint
+     */
+    public Map<RenderLayer, Double> getLayerTimes() {
+        return layerTimes;
+    }
+
+    /**
+     * @return the number of frames the rendering of the diagram was split in (see DiagramFactory.RENDERING_FRAME_BUDGET)
+     */
+    public int getSlices() {
+        return slices;
+    }
+
+    /**
+     * @return the time (in ms) spent composing the analysis overlay (enrichment or expression) of the nodes
+     */
+    public double getOverlayTime() {
+        return overlayTime;
+    }
+
+    /**
+     * @return the number of nodes whose analysis overlay was composed
+     */
+    public int getOverlayRegions() {
+        return overlayRegions;
+    }
+
+    /**
+     * @return true if the static layers are painted in a Web Worker (see DiagramFactory.OFFSCREEN_RENDERING) or
+     * false if they are painted in the UI thread
+     */
+    public boolean isOffscreen() {
+        return offscreen;
+    }
+
+    public int getTextCacheHits() {
+        return textCacheHits;
+    }
+
+    public int getTextCacheMisses() {
+        return textCacheMisses;
+    }
+
     public Box getVisibleArea() {
         return visibleArea;
     }
@@ -55,6 +124,11 @@ public class DiagramRenderedEvent extends GwtEvent<DiagramRenderedHandler> {
                 "st_id='" + content.getStableId() + '\'' +
                 ", time=" + time +
                 ", items=" + items +
+                ", slices=" + slices +
+                ", layers=" + layerTimes +
+                ", overlay=" + overlayTime + "ms/" + overlayRegions +
+                ", backend=" + (offscreen ? "worker" : "ui") +
+                ", textCache=" + textCacheHits + "/" + (textCacheHits + textCacheMisses) +
                 "} ###";
     }
 }
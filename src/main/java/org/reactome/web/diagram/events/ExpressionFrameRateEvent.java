@@ -0,0 +1,38 @@
+package org.reactome.web.diagram.events;
+
+import com.google.gwt.event.shared.GwtEvent;
+import org.reactome.web.diagram.handlers.ExpressionFrameRateHandler;
+
+/**
+ * Reports the number of expression columns per second actually displayed while the playback is running
+ */
+public class ExpressionFrameRateEvent extends GwtEvent<ExpressionFrameRateHandler> {
+    public static Type<ExpressionFrameRateHandler> TYPE = new Type<ExpressionFrameRateHandler>();
+
+    private double fps;
+
+    public ExpressionFrameRateEvent(double fps) {
+        this.fps = fps;
+    }
+
+    @Override
+    public Type<ExpressionFrameRateHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    public double getFps() {
+        return fps;
+    }
+
+    @Override
+    protected void dispatch(ExpressionFrameRateHandler handler) {
+        handler.onExpressionFrameRate(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionFrameRateEvent{" +
+                "fps=" + fps +
+                '}';
+    }
+}
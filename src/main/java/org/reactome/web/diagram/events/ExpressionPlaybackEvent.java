@@ -0,0 +1,38 @@
+package org.reactome.web.diagram.events;
+
+import com.google.gwt.event.shared.GwtEvent;
+import org.reactome.web.diagram.handlers.ExpressionPlaybackHandler;
+
+/**
+ * Fired when the playback of the expression columns starts or stops
+ */
+public class ExpressionPlaybackEvent extends GwtEvent<ExpressionPlaybackHandler> {
+    public static Type<ExpressionPlaybackHandler> TYPE = new Type<ExpressionPlaybackHandler>();
+
+    private boolean playing;
+
+    public ExpressionPlaybackEvent(boolean playing) {
+        this.playing = playing;
+    }
+
+    @Override
+    public Type<ExpressionPlaybackHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    @Override
+    protected void dispatch(ExpressionPlaybackHandler handler) {
+        handler.onExpressionPlayback(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionPlaybackEvent{" +
+                "playing=" + playing +
+                '}';
+    }
+}
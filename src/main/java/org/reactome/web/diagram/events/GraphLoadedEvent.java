@@ -12,10 +12,20 @@ public class GraphLoadedEvent extends GwtEvent<GraphLoadedHandler> {
 
     private Content content;
     private long time;
+    private long overlap;
 
     public GraphLoadedEvent(Content content, long time) {
+        this(content, time, 0);
+    }
+
+    /**
+     * @param overlap time (in ms) the graph was retrieved in parallel with the layout (or SVG), which is
+     *                the time saved compared to requesting the graph once the layout has been received
+     */
+    public GraphLoadedEvent(Content content, long time, long overlap) {
         this.content = content;
         this.time = time;
+        this.overlap = overlap;
     }
 
     @Override
@@ -36,10 +46,15 @@ public class GraphLoadedEvent extends GwtEvent<GraphLoadedHandler> {
         return time;
     }
 
+    public long getOverlap() {
+        return overlap;
+    }
+
     @Override
     public String toString() {
         return "GraphLoadedEvent{" +
                 "time=" + time +
+                ", overlap=" + overlap +
                 ", content=" + content.getStableId() +
                 '}';
     }
@@ -0,0 +1,8 @@
+package org.reactome.web.diagram.handlers;
+
+import com.google.gwt.event.shared.EventHandler;
+import org.reactome.web.diagram.events.ContentCacheStatsEvent;
+
+public interface ContentCacheStatsHandler extends EventHandler {
+    void onContentCacheStats(ContentCacheStatsEvent event);
+}
@@ -0,0 +1,10 @@
+package org.reactome.web.diagram.handlers;
+
+import com.google.gwt.event.shared.EventHandler;
+import org.reactome.web.diagram.events.ExpressionFrameRateEvent;
+
+public interface ExpressionFrameRateHandler extends EventHandler {
+
+    void onExpressionFrameRate(ExpressionFrameRateEvent e);
+
+}
@@ -0,0 +1,10 @@
+package org.reactome.web.diagram.handlers;
+
+import com.google.gwt.event.shared.EventHandler;
+import org.reactome.web.diagram.events.ExpressionPlaybackEvent;
+
+public interface ExpressionPlaybackHandler extends EventHandler {
+
+    void onExpressionPlayback(ExpressionPlaybackEvent e);
+
+}
@@ -5,6 +5,7 @@ import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.EventBus;
+import com.google.gwt.i18n.client.NumberFormat;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.InlineLabel;
 import org.reactome.web.analysis.client.model.AnalysisType;
@@ -15,6 +16,7 @@ import org.reactome.web.diagram.handlers.AnalysisResetHandler;
 import org.reactome.web.diagram.handlers.AnalysisResultLoadedHandler;
 import org.reactome.web.diagram.handlers.AnalysisResultRequestedHandler;
 import org.reactome.web.diagram.handlers.ContentRequestedHandler;
+import org.reactome.web.diagram.handlers.ExpressionFrameRateHandler;
 import org.reactome.web.diagram.util.slider.Slider;
 import org.reactome.web.diagram.util.slider.SliderValueChangedEvent;
 import org.reactome.web.diagram.util.slider.SliderValueChangedHandler;
@@ -27,7 +29,7 @@ import java.util.List;
  */
 public class ExpressionControl extends LegendPanel implements ClickHandler, SliderValueChangedHandler,
         AnalysisResultRequestedHandler, AnalysisResultLoadedHandler, AnalysisResetHandler,
-        ContentRequestedHandler, ValueChangeHandler<Boolean> {
+        ContentRequestedHandler, ExpressionFrameRateHandler, ValueChangeHandler<Boolean> {
 
     private static Integer MIN_SPEED = 3000;
     private static Integer MAX_SPEED = 500;
@@ -37,6 +39,7 @@ public class ExpressionControl extends LegendPanel implements ClickHandler, Slid
     private ExpressionSummary expressionSummary;
     private int currentCol = 0;
     private Timer timer;
+    private Double fps = null; //Columns per second displayed while playing
 
     private PwpButton rewindBtn;
     private PwpButton playBtn;
@@ -134,6 +137,7 @@ public class ExpressionControl extends LegendPanel implements ClickHandler, Slid
         this.eventBus.addHandler(AnalysisResultLoadedEvent.TYPE, this);
         this.eventBus.addHandler(AnalysisResetEvent.TYPE, this);
         this.eventBus.addHandler(ContentRequestedEvent.TYPE, this);
+        this.eventBus.addHandler(ExpressionFrameRateEvent.TYPE, this);
     }
 
     @Override
@@ -194,7 +198,10 @@ public class ExpressionControl extends LegendPanel implements ClickHandler, Slid
 
         if (this.timer.isRunning()) {
             this.timer.cancel();
+            this.eventBus.fireEventFromSource(new ExpressionPlaybackEvent(false), this);
         }
+        this.fps = null;
+        if (this.expressionSummary != null) this.setName();
     }
 
     private void play() {
@@ -205,6 +212,7 @@ public class ExpressionControl extends LegendPanel implements ClickHandler, Slid
         this.playBtn.setVisible(false);
         this.pauseBtn.setVisible(true);
 
+        this.eventBus.fireEventFromSource(new ExpressionPlaybackEvent(true), this);
         this.moveForward();
         this.timer.scheduleRepeating(this.speed);
     }
@@ -213,7 +221,15 @@ public class ExpressionControl extends LegendPanel implements ClickHandler, Slid
         List<String> cols = this.expressionSummary.getColumnNames();
         String pos = (this.currentCol + 1) + "/" + cols.size();
         String name = cols.get(this.currentCol);
-        this.message.setText(pos + " :: " + name);
+        String rate = this.fps != null ? " (" + NumberFormat.getFormat("#.#").format(this.fps) + " fps)" : "";
+        this.message.setText(pos + " :: " + name + rate);
+    }
+
+    @Override
+    public void onExpressionFrameRate(ExpressionFrameRateEvent event) {
+        if (!this.timer.isRunning() || this.expressionSummary == null) return;
+        this.fps = event.getFps();
+        this.setName();
     }
 
     @Override
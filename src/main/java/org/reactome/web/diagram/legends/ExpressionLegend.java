@@ -18,6 +18,7 @@ import org.reactome.web.diagram.data.graph.model.GraphComplex;
 import org.reactome.web.diagram.data.graph.model.GraphEntitySet;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.graph.model.GraphPathway;
+import org.reactome.web.diagram.data.graph.model.GraphPhysicalEntity;
 import org.reactome.web.diagram.data.interactors.model.DiagramInteractor;
 import org.reactome.web.diagram.data.interactors.model.DynamicLink;
 import org.reactome.web.diagram.data.interactors.model.InteractorEntity;
@@ -26,7 +27,6 @@ import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.events.*;
 import org.reactome.web.diagram.handlers.*;
 import org.reactome.web.diagram.profiles.analysis.AnalysisColours;
-import org.reactome.web.diagram.profiles.analysis.model.AnalysisProfile;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.util.Console;
 import org.reactome.web.diagram.util.ExpressionUtil;
@@ -297,11 +297,10 @@ public class ExpressionLegend extends LegendPanel implements ClickHandler, Mouse
     }
 
     private void fillGradient() {
-        AnalysisProfile profile = AnalysisColours.get().PROFILE;
         Context2d ctx = this.gradient.getContext2d();
         CanvasGradient grd = ctx.createLinearGradient(0, 0, 30, 200);
 
-        ThreeColorGradient gradient = new ThreeColorGradient(profile.getExpression().getGradient());
+        ThreeColorGradient gradient = AnalysisColours.get().expressionGradient;
         grd.addColorStop(0, gradient.getColor(0));
         grd.addColorStop(0.5, gradient.getColor(0.5));
         grd.addColorStop(1, gradient.getColor(1));
@@ -323,12 +322,10 @@ public class ExpressionLegend extends LegendPanel implements ClickHandler, Mouse
         }
 
         if (graphObject != null) {
-            if (graphObject instanceof GraphComplex) {
-                GraphComplex complex = (GraphComplex) graphObject;
-                expression = new LinkedList<>(complex.getParticipantsExpression(column).values());
-            } else if (graphObject instanceof GraphEntitySet) {
-                GraphEntitySet set = (GraphEntitySet) graphObject;
-                expression = new LinkedList<>(set.getParticipantsExpression(column).values());
+            if (graphObject instanceof GraphComplex || graphObject instanceof GraphEntitySet) {
+                for (double value : ((GraphPhysicalEntity) graphObject).getParticipantsExpressionVector(column)) {
+                    expression.add(value);
+                }
             } else {
                 List<Double> aux = graphObject.getExpression();
                 if (aux != null && !aux.isEmpty()) {
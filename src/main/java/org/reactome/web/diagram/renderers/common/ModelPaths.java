@@ -0,0 +1,106 @@
+package org.reactome.web.diagram.renderers.common;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import org.reactome.web.diagram.client.DiagramFactory;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.DiagramObject;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the outlines of the diagram objects as Path2D objects so they are not rebuilt (and the coordinates
+ * transformed) in every frame. A path is built once per object and renderer (the renderers are different for
+ * every zoom level) and it is drawn by setting the transform of the context to the current zoom and offset.
+ *
+ * The renderer properties (arc widths, line width, etc.) are proportional to the factor within a zoom level,
+ * so the path is built in the coordinates of the factor at the time it is built, without offset, and scaled
+ * by factor / buildFactor when drawn. The path is built by the same shape methods used to draw the objects:
+ * they receive the Path2D cast as a context (only the path commands are used and beginPath does nothing).
+ */
+public abstract class ModelPaths {
+
+    public interface Builder {
+        /**
+         * @param path the Path2D to add the outline of the item to (its properties have to be transformed with
+         *             the given factor and no offset)
+         */
+        void buildPath(AdvancedContext2d path, DiagramObject item, double factor);
+    }
+
+    private static final boolean SUPPORTED = isPath2DSupported();
+
+    //renderer -> object -> path (objects are kept by identity since the diagram key has its own ones)
+    private static Map<Builder, Map<DiagramObject, ModelPath>> paths = new HashMap<>();
+
+    public static boolean isEnabled() {
+        return DiagramFactory.MODEL_SPACE_RENDERING && SUPPORTED;
+    }
+
+    /**
+     * The paths of the previous content are not needed anymore
+     */
+    public static void clear() {
+        paths.clear();
+    }
+
+    /**
+     * Fills and strokes the outline of the object with the current style of the context
+     */
+    public static void draw(AdvancedContext2d ctx, Builder renderer, DiagramObject item, Double factor, Coordinate offset) {
+        ModelPath path = get(renderer, item, factor);
+        draw(ctx, path.path, factor / path.factor, offset.getX(), offset.getY());
+    }
+
+    private static ModelPath get(Builder renderer, DiagramObject item, Double factor) {
+        Map<DiagramObject, ModelPath> map = paths.get(renderer);
+        if (map == null) {
+            map = new IdentityHashMap<>();
+            paths.put(renderer, map);
+        }
+        ModelPath path = map.get(item);
+        if (path == null) {
+            JavaScriptObject p = createPath();
+            renderer.buildPath(p.<AdvancedContext2d>cast(), item, factor);
+            path = new ModelPath(p, factor);
+            map.put(item, path);
+        }
+        return path;
+    }
+
+    private static native JavaScriptObject createPath() /*-{
+        var path = new $wnd.Path2D();
+        path.beginPath = function () {}; //The shapes start a new path in the context
+        return path;
+    }-*/;
+
+    private static native void draw(AdvancedContext2d ctx, JavaScriptObject path, double scale, double x, double y) /*-{
+        var lineWidth = ctx.lineWidth;
+        ctx.save();
+        ctx.transform(scale, 0, 0, scale, x, y);
+        ctx.lineWidth = lineWidth / scale;
+        ctx.fill(path);
+        ctx.stroke(path);
+        ctx.restore();
+    }-*/;
+
+    private static native boolean isPath2DSupported() /*-{
+        try {
+            return !!$wnd.Path2D && !!new $wnd.Path2D().addPath;
+        } catch (e) {
+            return false;
+        }
+    }-*/;
+
+    private static class ModelPath {
+        JavaScriptObject path;
+        double factor;
+
+        ModelPath(JavaScriptObject path, double factor) {
+            this.path = path;
+            this.factor = factor;
+        }
+    }
+}
@@ -1,15 +1,35 @@
 package org.reactome.web.diagram.renderers.common;
 
+import com.google.gwt.canvas.dom.client.CanvasElement;
+import org.reactome.web.diagram.data.layout.NodeProperties;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
 /**
+ * The analysis overlay of a node is composed in the buffer and then copied to its target layer.
+ *
+ * Every composition is scoped to the (transformed) bounds of the node: the buffer is clipped to that region, so
+ * the composite operations used to mask the overlay only touch those pixels, and only that region is copied to
+ * the target and cleaned afterwards. Nodes are composed one at a time: open(prop) ... compose()
+ *
+ * The time spent and the number of regions composed since the last reset are kept as a render metric.
+ *
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
 public class OverlayContext {
 
+    //Room around the node bounds for the border and the text shadow
+    private static final double PADDING = 8;
+
     private AdvancedContext2d overlay;
     private AdvancedContext2d buffer;
 
+    //Region being composed (in pixels)
+    private double x, y, w, h;
+    private double start;
+
+    private double time = 0;
+    private int regions = 0;
+
     public OverlayContext(AdvancedContext2d overlay, AdvancedContext2d buffer) {
         this.overlay = overlay;
         this.buffer = buffer;
@@ -22,4 +42,68 @@ public class OverlayContext {
     public AdvancedContext2d getBuffer() {
         return buffer;
     }
+
+    /**
+     * Starts the composition of the overlay of a node. The buffer is saved and clipped to the node region
+     *
+     * @param prop the transformed node properties
+     * @return the buffer to compose the overlay in
+     */
+    public AdvancedContext2d open(NodeProperties prop) {
+        start = now();
+        CanvasElement canvas = buffer.getCanvas();
+        x = Math.max(0, Math.floor(prop.getX() - PADDING));
+        y = Math.max(0, Math.floor(prop.getY() - PADDING));
+        w = Math.min(canvas.getWidth(), Math.ceil(prop.getX() + prop.getWidth() + PADDING)) - x;
+        h = Math.min(canvas.getHeight(), Math.ceil(prop.getY() + prop.getHeight() + PADDING)) - y;
+
+        buffer.save();
+        buffer.beginPath();
+        buffer.rect(x, y, Math.max(0, w), Math.max(0, h));
+        buffer.clip();
+        return buffer;
+    }
+
+    /**
+     * Copies the region composed since open(prop) to the overlay layer
+     */
+    public void compose() {
+        compose(overlay);
+    }
+
+    /**
+     * Copies the region composed since open(prop) to the target and cleans it in the buffer
+     */
+    public void compose(AdvancedContext2d target) {
+        buffer.restore();
+        if (w > 0 && h > 0) { //Nothing to copy when the node is out of the canvas
+            target.drawImage(buffer.getCanvas(), x, y, w, h, x, y, w, h);
+            buffer.clearRect(x, y, w, h);
+        }
+        time += now() - start;
+        regions++;
+    }
+
+    /**
+     * @return the time (in ms) spent composing the overlay since the last reset
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return the number of regions composed since the last reset
+     */
+    public int getRegions() {
+        return regions;
+    }
+
+    public void resetStats() {
+        time = 0;
+        regions = 0;
+    }
+
+    private static native double now() /*-{
+        return $wnd.performance && $wnd.performance.now ? $wnd.performance.now() : Date.now();
+    }-*/;
 }
@@ -2,6 +2,7 @@ package org.reactome.web.diagram.renderers.common;
 
 import com.google.gwt.i18n.client.NumberFormat;
 import org.reactome.web.diagram.renderers.layout.abs.ChemicalDrugAbstractRenderer;
+import org.reactome.web.diagram.renderers.layout.abs.TextRenderer;
 
 
 /**
@@ -35,6 +36,9 @@ public abstract class RendererProperties {
     public static double DRUG_RX_BOX = 7;
 
     public static void setFactor(double factor) {
+        if (FACTOR != factor) {
+            TextRenderer.clearCache(); //Fonts change with the factor so the lines previously split are not valid anymore
+        }
         FACTOR = factor;
         ARROW_LENGTH = 8 * factor;
         DASHED_LINE_PATTERN = new double[]{5.0d * factor, 5.0d * factor};
@@ -0,0 +1,277 @@
+package org.reactome.web.diagram.renderers.common;
+
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayNumber;
+import org.reactome.web.diagram.data.layout.Coordinate;
+import org.reactome.web.diagram.data.layout.Shape;
+import org.reactome.web.diagram.data.layout.Stoichiometry;
+import org.reactome.web.diagram.util.AdvancedContext2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Accumulates the segments, end shapes, stoichiometry boxes and reaction symbols of the connectors and reactions
+ * rendered in a frame, so the ones sharing context and style are drawn with one path per pass instead of opening
+ * and stroking a path per segment and shape. The style (stroke, fill and line width) of a group is the one set in
+ * the context when the items are added, so the callers keep setting it as they do to draw straight away.
+ *
+ * Every group is drawn in passes: the lines and the shapes outlines are stroked, the shapes are filled (with the
+ * stroke colour, or white when they are empty), the inner circles are stroked and the stoichiometry boxes are
+ * stroked and filled in white. The texts are written last. Note this is NOT the result of drawing the items one
+ * by one: all the fills of a group go on top of all its lines (an empty shape covers the lines of the items
+ * drawn before it, but also the ones drawn after it) and a group is drawn on top of the groups created before.
+ * Reactions and connectors barely overlap, so the difference is only noticeable where a line crosses a shape.
+ *
+ * In the far zoom views, segments and shapes smaller than the given size (in pixels) can be culled.
+ */
+public class StrokeBatch {
+
+    private static final String WHITE = "#FFFFFF";
+
+    private double factor;
+    private double offsetX, offsetY;
+    private double minSize;
+
+    private List<Group> groups = new ArrayList<>();
+    private Group last;
+
+    public StrokeBatch(double factor, Coordinate offset) {
+        this(factor, offset, 0);
+    }
+
+    /**
+     * @param minSize segments and shapes smaller than this (in pixels) are not drawn
+     */
+    public StrokeBatch(double factor, Coordinate offset, double minSize) {
+        this.factor = factor;
+        this.offsetX = offset.getX();
+        this.offsetY = offset.getY();
+        this.minSize = minSize;
+    }
+
+    /**
+     * @return the group for the current style of the given context
+     */
+    public Group get(AdvancedContext2d ctx) {
+        String stroke = getStyle(ctx, "strokeStyle");
+        String fill = getStyle(ctx, "fillStyle");
+        double lineWidth = ctx.getLineWidth();
+        if (last != null && last.is(ctx, stroke, fill, lineWidth)) return last;
+        for (Group group : groups) {
+            if (group.is(ctx, stroke, fill, lineWidth)) return last = group;
+        }
+        last = new Group(ctx, stroke, fill, lineWidth);
+        groups.add(last);
+        return last;
+    }
+
+    /**
+     * Draws everything accumulated so far
+     */
+    public void flush() {
+        for (Group group : groups) {
+            group.draw();
+        }
+        groups.clear();
+        last = null;
+    }
+
+    public class Group {
+        private AdvancedContext2d ctx;
+        private String stroke;
+        private String fill;
+        private double lineWidth;
+
+        //Transformed coordinates of the segments: x1, y1, x2, y2, ...
+        private JsArrayNumber lines = JavaScriptObject.createArray().cast();
+        private List<Shape> shapes = new ArrayList<>();
+        private List<Stoichiometry> stoichiometries = new ArrayList<>();
+        private List<Shape> symbols = new ArrayList<>();
+
+        Group(AdvancedContext2d ctx, String stroke, String fill, double lineWidth) {
+            this.ctx = ctx;
+            this.stroke = stroke;
+            this.fill = fill;
+            this.lineWidth = lineWidth;
+        }
+
+        boolean is(AdvancedContext2d ctx, String stroke, String fill, double lineWidth) {
+            return this.ctx == ctx && Objects.equals(this.stroke, stroke) && Objects.equals(this.fill, fill) && this.lineWidth == lineWidth;
+        }
+
+        /**
+         * Adds a segment (in model coordinates)
+         */
+        public void segment(double x1, double y1, double x2, double y2) {
+            if (Math.abs(x2 - x1) * factor < minSize && Math.abs(y2 - y1) * factor < minSize) return;
+            lines.push(x1 * factor + offsetX);
+            lines.push(y1 * factor + offsetY);
+            lines.push(x2 * factor + offsetX);
+            lines.push(y2 * factor + offsetY);
+        }
+
+        public void shape(Shape shape) {
+            if (shape == null || isTooSmall(shape)) return;
+            switch (shape.getType()) {
+                case "ARROW":
+                case "BOX":
+                case "CIRCLE":
+                case "DOUBLE_CIRCLE":
+                case "STOP":
+                    shapes.add(shape);
+                    break;
+                default:
+                    throw new RuntimeException("Do not know shape " + shape.getType());
+            }
+        }
+
+        /**
+         * Adds the box and value of the stoichiometry (only when it is greater than one)
+         */
+        public void stoichiometry(Stoichiometry stoichiometry) {
+            if (stoichiometry != null && stoichiometry.getValue() > 1) {
+                stoichiometries.add(stoichiometry);
+            }
+        }
+
+        /**
+         * Adds the symbol of the reaction shape (if any) to be written with the stroke colour
+         */
+        public void symbol(Shape shape) {
+            if (shape != null && shape.getS() != null) {
+                symbols.add(shape);
+            }
+        }
+
+        void draw() {
+            ctx.save();
+            ctx.setStrokeStyle(stroke);
+            ctx.setFillStyle(fill);
+            ctx.setLineWidth(lineWidth);
+
+            ctx.beginPath();
+            for (int i = 0; i < lines.length(); i += 4) {
+                ctx.moveTo(lines.get(i), lines.get(i + 1));
+                ctx.lineTo(lines.get(i + 2), lines.get(i + 3));
+            }
+            for (Shape shape : shapes) {
+                outline(shape);
+            }
+            ctx.stroke();
+
+            if (!shapes.isEmpty()) {
+                fillShapes(false, stroke);
+                fillShapes(true, WHITE);
+
+                ctx.beginPath();
+                boolean inner = false;
+                for (Shape shape : shapes) {
+                    if (shape.getType().equals("DOUBLE_CIRCLE")) {
+                        circle(shape.getC(), shape.getR1());
+                        inner = true;
+                    }
+                }
+                if (inner) ctx.stroke();
+            }
+
+            if (!stoichiometries.isEmpty()) {
+                ctx.beginPath();
+                for (Stoichiometry stoichiometry : stoichiometries) {
+                    Shape shape = stoichiometry.getShape();
+                    double ax = x(shape.getA()), ay = y(shape.getA());
+                    ctx.rect(ax, ay, x(shape.getB()) - ax, y(shape.getB()) - ay);
+                }
+                ctx.stroke();
+                ctx.setFillStyle(WHITE);
+                ctx.fill();
+
+                ctx.setFillStyle(fill);
+                ctx.setTextAlign(Context2d.TextAlign.CENTER);
+                ctx.setTextBaseline(Context2d.TextBaseline.MIDDLE);
+                for (Stoichiometry stoichiometry : stoichiometries) {
+                    Shape shape = stoichiometry.getShape();
+                    double x = (x(shape.getA()) + x(shape.getB())) / 2, y = (y(shape.getA()) + y(shape.getB())) / 2;
+                    ctx.fillText(stoichiometry.getValue().toString(), x, y);
+                }
+            }
+
+            if (!symbols.isEmpty()) {
+                ctx.setFont(RendererProperties.getFont(RendererProperties.WIDGET_FONT_SIZE));
+                ctx.setTextAlign(Context2d.TextAlign.CENTER);
+                ctx.setTextBaseline(Context2d.TextBaseline.MIDDLE);
+                ctx.setFillStyle(stroke);
+                for (Shape shape : symbols) {
+                    double x = (x(shape.getA()) + x(shape.getB())) / 2, y = (y(shape.getA()) + y(shape.getB())) / 2;
+                    ctx.fillText(shape.getS(), x, y);
+                }
+            }
+            ctx.restore();
+        }
+
+        private boolean isTooSmall(Shape shape) {
+            if (minSize == 0) return false;
+            if (shape.getR() != null) return 2 * shape.getR() * factor < minSize;
+            if (shape.getA() == null || shape.getB() == null) return false;
+            return Math.abs(shape.getB().getX() - shape.getA().getX()) * factor < minSize
+                    && Math.abs(shape.getB().getY() - shape.getA().getY()) * factor < minSize;
+        }
+
+        private void fillShapes(boolean empty, String colour) {
+            boolean any = false;
+            ctx.beginPath();
+            for (Shape shape : shapes) {
+                if (shape.getType().equals("STOP") || (shape.getEmpty() != null) != empty) continue;
+                outline(shape);
+                any = true;
+            }
+            if (any) {
+                ctx.setFillStyle(colour);
+                ctx.fill();
+            }
+        }
+
+        private void outline(Shape shape) {
+            switch (shape.getType()) {
+                case "ARROW":
+                    ctx.moveTo(x(shape.getA()), y(shape.getA()));
+                    ctx.lineTo(x(shape.getB()), y(shape.getB()));
+                    ctx.lineTo(x(shape.getC()), y(shape.getC()));
+                    ctx.closePath();
+                    break;
+                case "BOX":
+                    double ax = x(shape.getA()), ay = y(shape.getA());
+                    ctx.rect(ax, ay, x(shape.getB()) - ax, y(shape.getB()) - ay);
+                    break;
+                case "CIRCLE":
+                case "DOUBLE_CIRCLE":
+                    circle(shape.getC(), shape.getR());
+                    break;
+                case "STOP":
+                    ctx.moveTo(x(shape.getA()), y(shape.getA()));
+                    ctx.lineTo(x(shape.getB()), y(shape.getB()));
+                    break;
+            }
+        }
+
+        private void circle(Coordinate c, double r) {
+            double x = x(c), y = y(c);
+            ctx.moveTo(x + r * factor, y); //Otherwise the arc is joined to the previous subpath
+            ctx.arc(x, y, r * factor, 0, 2 * Math.PI);
+        }
+
+        private double x(Coordinate c) {
+            return c.getX() * factor + offsetX;
+        }
+
+        private double y(Coordinate c) {
+            return c.getY() * factor + offsetY;
+        }
+    }
+
+    private static native String getStyle(AdvancedContext2d ctx, String property) /*-{
+        return String(ctx[property]);
+    }-*/;
+}
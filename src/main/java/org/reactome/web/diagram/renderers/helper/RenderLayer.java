@@ -0,0 +1,19 @@
+package org.reactome.web.diagram.renderers.helper;
+
+/**
+ * Groups of stacked canvases that are cleared and repainted together.
+ *
+ * DIAGRAM contains the layout itself (compartments, notes, entities, text, reactions, shadows and the analysis
+ * overlay) and depends on the transform, the content, the profiles and the analysis. The rest of the layers only
+ * depend on the state they represent, so they can be repainted on their own when only that state changes.
+ */
+public enum RenderLayer {
+    DIAGRAM,
+
+    SELECTION,
+    HIGHLIGHT,
+    HALO,
+    FLAG,
+
+    INTERACTORS
+}
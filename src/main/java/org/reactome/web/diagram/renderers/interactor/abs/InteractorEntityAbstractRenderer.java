@@ -11,7 +11,6 @@ import org.reactome.web.diagram.profiles.interactors.InteractorColours;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.abs.TextRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
-import org.reactome.web.diagram.util.gradient.ThreeColorGradient;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -76,8 +75,7 @@ public abstract class InteractorEntityAbstractRenderer extends InteractorAbstrac
         boolean isHit = isHIt != null && isHIt;
         ctx.save();
         if(isHit){
-            ThreeColorGradient a = new ThreeColorGradient(AnalysisColours.get().PROFILE.getExpression().getGradient());
-            ctx.setFillStyle(a.getColor(((InteractorEntity) item).getExp().get(t), min, max));
+            ctx.setFillStyle(AnalysisColours.get().expressionGradient.getColor(((InteractorEntity) item).getExp().get(t), min, max));
         }else{
             if(((InteractorEntity) item).isChemical()) {
                 ctx.setFillStyle(InteractorColours.get().PROFILE.getChemical().getLighterFill());
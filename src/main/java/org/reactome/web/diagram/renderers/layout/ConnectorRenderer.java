@@ -2,6 +2,7 @@ package org.reactome.web.diagram.renderers.layout;
 
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.Node;
+import org.reactome.web.diagram.renderers.common.StrokeBatch;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
 /**
@@ -11,6 +12,11 @@ public interface ConnectorRenderer {
 
     void draw(AdvancedContext2d ctx, AdvancedContext2d fadeout, AdvancedContext2d decorator, Node node, Double factor, Coordinate offset);
 
+    /**
+     * Same as draw but the connectors are added to the batch, which is drawn once all of them have been added
+     */
+    void draw(StrokeBatch batch, AdvancedContext2d ctx, AdvancedContext2d fadeout, AdvancedContext2d decorator, Node node);
+
     boolean stoichiometryVisible();
 
     void setColourProperties(AdvancedContext2d ctx);
@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.renderers.layout;
 
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.renderers.common.ColourProfileType;
@@ -30,9 +31,10 @@ public interface Renderer {
     /**
      * There are items that draw part of other items (Nodes render also the connectors that
      * belong to the Edges).
+     * @param near primitives close to pos, so only the connectors (or edges) in it are tested (null to test all)
      * @return the identifier of the diagram object hovered. Null if the item or delegates are not hovered
      */
-    HoveredItem getHovered(DiagramObject item, Coordinate pos);
+    HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near);
 
     Double getExpressionHovered(DiagramObject item, Coordinate pos, int t);
 
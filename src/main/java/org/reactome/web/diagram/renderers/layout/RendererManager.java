@@ -1,11 +1,15 @@
 package org.reactome.web.diagram.renderers.layout;
 
 import com.google.gwt.event.shared.EventBus;
+import org.reactome.web.diagram.data.content.Content;
+import org.reactome.web.diagram.data.content.DiagramContent;
+import org.reactome.web.diagram.data.content.DiagramGeometry;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.events.ContentLoadedEvent;
 import org.reactome.web.diagram.events.DiagramZoomEvent;
 import org.reactome.web.diagram.handlers.ContentLoadedHandler;
 import org.reactome.web.diagram.handlers.DiagramZoomHandler;
+import org.reactome.web.diagram.renderers.common.ModelPaths;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.s000.*;
 import org.reactome.web.diagram.renderers.layout.s050.*;
@@ -37,6 +41,9 @@ public class RendererManager implements DiagramZoomHandler, ContentLoadedHandler
     private Map<String, Renderer> current = s100;
     private ConnectorRenderer connectorRenderer = new ConnectorRenderer100();
 
+    //Geometry of the loaded diagram (null when the content is not a diagram)
+    private DiagramGeometry geometry;
+
     private RendererManager(EventBus eventBus) {
         this.eventBus = eventBus;
         initialiseRenderers();
@@ -81,6 +88,10 @@ public class RendererManager implements DiagramZoomHandler, ContentLoadedHandler
         return connectorRenderer;
     }
 
+    public DiagramGeometry getGeometry() {
+        return geometry;
+    }
+
     public void initialiseRenderers() {
         Renderer aux;
 
@@ -214,7 +225,10 @@ public class RendererManager implements DiagramZoomHandler, ContentLoadedHandler
 
     @Override
     public void onContentLoaded(ContentLoadedEvent event) {
-        if (event.getContext().getContent().getType() == DIAGRAM) {
+        Content content = event.getContext().getContent();
+        geometry = content.getType() == DIAGRAM ? ((DiagramContent) content).getGeometry() : null;
+        if (content.getType() == DIAGRAM) {
+            ModelPaths.clear();
             this.setFactor(event.getContext().getDiagramStatus().getFactor());
         }
     }
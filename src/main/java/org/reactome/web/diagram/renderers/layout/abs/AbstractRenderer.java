@@ -1,12 +1,14 @@
 package org.reactome.web.diagram.renderers.layout.abs;
 
+import org.reactome.web.diagram.data.content.DiagramGeometry;
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.graph.model.GraphPhysicalEntity;
 import org.reactome.web.diagram.data.layout.*;
-import org.reactome.web.diagram.data.layout.impl.SegmentFactory;
 import org.reactome.web.diagram.profiles.analysis.AnalysisColours;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
 import org.reactome.web.diagram.renderers.common.OverlayContext;
+import org.reactome.web.diagram.renderers.common.StrokeBatch;
 import org.reactome.web.diagram.renderers.layout.Renderer;
 import org.reactome.web.diagram.renderers.layout.RendererManager;
 import org.reactome.web.diagram.util.AdvancedContext2d;
@@ -26,7 +28,7 @@ public abstract class AbstractRenderer implements Renderer {
     }
 
     @Override
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         return null;
     }
 
@@ -63,15 +65,53 @@ public abstract class AbstractRenderer implements Renderer {
     }
 
     public void drawSegments(AdvancedContext2d ctx, List<Segment> segments, Double factor, Coordinate offset) {
+        double f = factor, ox = offset.getX(), oy = offset.getY();
         for(Segment segment : segments) {
-            segment = SegmentFactory.transform(segment, factor, offset);
+            Coordinate from = segment.getFrom(), to = segment.getTo();
             ctx.beginPath();
-            ctx.moveTo(segment.getFrom().getX(), segment.getFrom().getY());
-            ctx.lineTo(segment.getTo().getX(), segment.getTo().getY());
+            ctx.moveTo(from.getX() * f + ox, from.getY() * f + oy);
+            ctx.lineTo(to.getX() * f + ox, to.getY() * f + oy);
             ctx.stroke();
         }
     }
 
+    /**
+     * Draws the edge segments reading them from the DiagramGeometry when available
+     */
+    public void drawSegments(AdvancedContext2d ctx, EdgeCommon edge, Double factor, Coordinate offset) {
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(edge) : -1;
+        if (row == -1) {
+            drawSegments(ctx, edge.getSegments(), factor, offset);
+            return;
+        }
+        double f = factor, ox = offset.getX(), oy = offset.getY();
+        for (int i = geometry.getSegmentsFrom(row), to = geometry.getSegmentsTo(row); i < to; i++) {
+            ctx.beginPath();
+            ctx.moveTo(geometry.getX1(i) * f + ox, geometry.getY1(i) * f + oy);
+            ctx.lineTo(geometry.getX2(i) * f + ox, geometry.getY2(i) * f + oy);
+            ctx.stroke();
+        }
+    }
+
+    /**
+     * Adds the edge segments to the batch reading them from the DiagramGeometry when available
+     */
+    public void addSegments(StrokeBatch.Group group, EdgeCommon edge) {
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(edge) : -1;
+        if (row == -1) {
+            for (Segment segment : edge.getSegments()) {
+                Coordinate from = segment.getFrom(), to = segment.getTo();
+                group.segment(from.getX(), from.getY(), to.getX(), to.getY());
+            }
+            return;
+        }
+        for (int i = geometry.getSegmentsFrom(row), to = geometry.getSegmentsTo(row); i < to; i++) {
+            group.segment(geometry.getX1(i), geometry.getY1(i), geometry.getX2(i), geometry.getY2(i));
+        }
+    }
+
     public void drawConnector(AdvancedContext2d ctx, Connector connector, boolean stoichiometryVisible, Double factor, Coordinate offset) {
         drawSegments(ctx, connector.getSegments(), factor, offset);
         ShapeAbstractRenderer.draw(ctx, connector.getEndShape(), factor, offset);
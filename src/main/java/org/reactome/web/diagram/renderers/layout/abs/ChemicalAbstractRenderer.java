@@ -2,6 +2,7 @@ package org.reactome.web.diagram.renderers.layout.abs;
 
 import com.google.gwt.canvas.dom.client.Context2d;
 import com.google.gwt.canvas.dom.client.TextMetrics;
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Node;
@@ -24,6 +25,7 @@ public abstract class ChemicalAbstractRenderer extends NodeAbstractRenderer {
         if (!isVisible(item)) return;
 
         Node node = (Node) item;
+        if (drawModelPath(ctx, node, factor, offset)) return;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
@@ -51,11 +53,11 @@ public abstract class ChemicalAbstractRenderer extends NodeAbstractRenderer {
     }
 
     @Override
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         if (!isVisible(item)) return null;
 
         //TODO: Do not call super but check whether the mouse in on the arrow or the grayish box
-        return super.getHovered(item, pos);
+        return super.getHovered(item, pos, near);
     }
 
     @Override
@@ -20,10 +20,11 @@ public abstract class ComplexAbstractRenderer extends NodeAbstractRenderer {
         if(!isVisible(item)) return;
 
         Node node = (Node) item;
+        if (drawModelPath(ctx, node, factor, offset)) return;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -42,6 +43,11 @@ public abstract class ComplexAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null;
+    }
+
     protected void fillShape(AdvancedContext2d ctx, NodeProperties prop, Boolean needsDashed){
         ctx.beginPath();
         if(needsDashed!=null){
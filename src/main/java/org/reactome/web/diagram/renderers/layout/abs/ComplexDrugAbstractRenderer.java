@@ -27,7 +27,7 @@ public abstract class ComplexDrugAbstractRenderer extends NodeAbstractRenderer {
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -55,6 +55,11 @@ public abstract class ComplexDrugAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null;
+    }
+
     public void rxText(AdvancedContext2d ctx, NodeProperties prop, double factor) {
         double rxX = prop.getX() + prop.getWidth() - 3.5 * RendererProperties.NODE_LINE_WIDTH;
         double rxY = prop.getY() + prop.getHeight() - 3.5 * RendererProperties.NODE_LINE_WIDTH;
@@ -1,15 +1,17 @@
 package org.reactome.web.diagram.renderers.layout.abs;
 
 import com.google.gwt.canvas.dom.client.Context2d;
+import org.reactome.web.diagram.data.content.DiagramGeometry;
 import org.reactome.web.diagram.data.layout.*;
-import org.reactome.web.diagram.data.layout.impl.SegmentFactory;
-import org.reactome.web.diagram.data.layout.impl.ShapeFactory;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.profiles.diagram.model.DiagramProfile;
+import org.reactome.web.diagram.renderers.common.StrokeBatch;
 import org.reactome.web.diagram.renderers.layout.ConnectorRenderer;
 import org.reactome.web.diagram.renderers.layout.RendererManager;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
+import java.util.List;
+
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
@@ -19,12 +21,18 @@ public abstract class ConnectorAbstractRenderer implements ConnectorRenderer {
     public void draw(AdvancedContext2d ctx,AdvancedContext2d fadeout, AdvancedContext2d decorator, Node node, Double factor, Coordinate offset) {
         if(!RendererManager.get().getRenderer(node).isVisible(node)) return;
         DiagramProfile PROFILE = DiagramColours.get().PROFILE;
-        for (Connector connector : node.getConnectors()) {
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(node) : -1;
+        List<Connector> connectors = node.getConnectors();
+        for (int k = 0; k < connectors.size(); k++) {
+            Connector connector = connectors.get(k);
+            //Index of the connector in the DiagramGeometry (-1 when not available)
+            int c = row == -1 ? -1 : geometry.getConnectorsFrom(row) + k;
             if(connector.getIsFadeOut()!=null) {
                 fadeout.save();
                 fadeout.setFillStyle(PROFILE.getReaction().getLighterFill());
                 fadeout.setStrokeStyle(PROFILE.getReaction().getLighterStroke());
-                drawConnector(fadeout, connector, factor, offset);
+                drawConnector(fadeout, connector, geometry, c, factor, offset);
                 fadeout.restore();
 
                 decorator.save();
@@ -36,7 +44,7 @@ public abstract class ConnectorAbstractRenderer implements ConnectorRenderer {
                 ctx.save();
                 ctx.setFillStyle(PROFILE.getProperties().getDisease());
                 ctx.setStrokeStyle(PROFILE.getProperties().getDisease());
-                drawConnector(ctx, connector, factor, offset);
+                drawConnector(ctx, connector, geometry, c, factor, offset);
                 ctx.restore();
 
                 decorator.save();
@@ -45,19 +53,82 @@ public abstract class ConnectorAbstractRenderer implements ConnectorRenderer {
                 drawStoichiometry(decorator, connector.getStoichiometry(), factor, offset);
                 decorator.restore();
             }else{
-                drawConnector(ctx, connector, factor, offset);
+                drawConnector(ctx, connector, geometry, c, factor, offset);
                 drawStoichiometry(decorator, connector.getStoichiometry(), factor, offset);
             }
         }
 
     }
 
-    private void drawConnector(AdvancedContext2d ctx, Connector connector, Double factor, Coordinate offset){
+    @Override
+    public void draw(StrokeBatch batch, AdvancedContext2d ctx, AdvancedContext2d fadeout, AdvancedContext2d decorator, Node node) {
+        if(!RendererManager.get().getRenderer(node).isVisible(node)) return;
+        DiagramProfile PROFILE = DiagramColours.get().PROFILE;
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(node) : -1;
+        List<Connector> connectors = node.getConnectors();
+        for (int k = 0; k < connectors.size(); k++) {
+            Connector connector = connectors.get(k);
+            //Index of the connector in the DiagramGeometry (-1 when not available)
+            int c = row == -1 ? -1 : geometry.getConnectorsFrom(row) + k;
+            if(connector.getIsFadeOut()!=null) {
+                fadeout.save();
+                fadeout.setFillStyle(PROFILE.getReaction().getLighterFill());
+                fadeout.setStrokeStyle(PROFILE.getReaction().getLighterStroke());
+                addConnector(batch.get(fadeout), connector, geometry, c);
+                fadeout.restore();
+                addStoichiometry(batch.get(fadeout), connector.getStoichiometry());
+            }else if(connector.getIsDisease()!=null){
+                ctx.save();
+                ctx.setFillStyle(PROFILE.getProperties().getDisease());
+                ctx.setStrokeStyle(PROFILE.getProperties().getDisease());
+                addConnector(batch.get(ctx), connector, geometry, c);
+                ctx.restore();
+
+                decorator.save();
+                decorator.setFillStyle(PROFILE.getProperties().getDisease());
+                decorator.setStrokeStyle(PROFILE.getProperties().getDisease());
+                addStoichiometry(batch.get(decorator), connector.getStoichiometry());
+                decorator.restore();
+            }else{
+                addConnector(batch.get(ctx), connector, geometry, c);
+                addStoichiometry(batch.get(decorator), connector.getStoichiometry());
+            }
+        }
+    }
+
+    private void addConnector(StrokeBatch.Group group, Connector connector, DiagramGeometry geometry, int c) {
+        if (c == -1) {
+            for (Segment segment : connector.getSegments()) {
+                Coordinate from = segment.getFrom(), to = segment.getTo();
+                group.segment(from.getX(), from.getY(), to.getX(), to.getY());
+            }
+        } else {
+            for (int i = geometry.getConnectorSegmentsFrom(c), to = geometry.getConnectorSegmentsTo(c); i < to; i++) {
+                group.segment(geometry.getX1(i), geometry.getY1(i), geometry.getX2(i), geometry.getY2(i));
+            }
+        }
+        group.shape(connector.getEndShape());
+    }
+
+    private void addStoichiometry(StrokeBatch.Group group, Stoichiometry stoichiometry) {
+        if(stoichiometryVisible()) group.stoichiometry(stoichiometry);
+    }
+
+    private void drawConnector(AdvancedContext2d ctx, Connector connector, DiagramGeometry geometry, int c, Double factor, Coordinate offset){
+        double f = factor, ox = offset.getX(), oy = offset.getY();
         ctx.beginPath();
-        for (Segment segment : connector.getSegments()) {
-            segment = SegmentFactory.transform(segment, factor, offset);
-            ctx.moveTo(segment.getFrom().getX(), segment.getFrom().getY());
-            ctx.lineTo(segment.getTo().getX(), segment.getTo().getY());
+        if (c == -1) {
+            for (Segment segment : connector.getSegments()) {
+                Coordinate from = segment.getFrom(), to = segment.getTo();
+                ctx.moveTo(from.getX() * f + ox, from.getY() * f + oy);
+                ctx.lineTo(to.getX() * f + ox, to.getY() * f + oy);
+            }
+        } else {
+            for (int i = geometry.getConnectorSegmentsFrom(c), to = geometry.getConnectorSegmentsTo(c); i < to; i++) {
+                ctx.moveTo(geometry.getX1(i) * f + ox, geometry.getY1(i) * f + oy);
+                ctx.lineTo(geometry.getX2(i) * f + ox, geometry.getY2(i) * f + oy);
+            }
         }
         ctx.stroke();
         ShapeAbstractRenderer.draw(ctx, connector.getEndShape(), factor, offset);
@@ -68,22 +139,18 @@ public abstract class ConnectorAbstractRenderer implements ConnectorRenderer {
         this.setTextProperties(ctx); //TODO: Check whether this can be done once
         if(stoichiometry!=null){
             if(stoichiometry.getValue()>1){
-                Shape stShape = ShapeFactory.transform(stoichiometry.getShape(), factor, offset);
+                Shape stShape = stoichiometry.getShape();
+                double ax = stShape.getA().getX() * factor + offset.getX(), ay = stShape.getA().getY() * factor + offset.getY();
+                double bx = stShape.getB().getX() * factor + offset.getX(), by = stShape.getB().getY() * factor + offset.getY();
                 ctx.beginPath();
-                ctx.rect(
-                        stShape.getA().getX(),
-                        stShape.getA().getY(),
-                        stShape.getB().getX() - stShape.getA().getX(),
-                        stShape.getB().getY() - stShape.getA().getY()
-                );
+                ctx.rect(ax, ay, bx - ax, by - ay);
                 ctx.stroke();
                 ctx.save();
                 ctx.setFillStyle("#FFFFFF");
                 ctx.fill();
                 ctx.restore();
 
-                Coordinate c = stShape.getB().minus(stShape.getA()).divide(2).add(stShape.getA());
-                ctx.fillText(stoichiometry.getValue().toString(),c.getX(), c.getY());
+                ctx.fillText(stoichiometry.getValue().toString(), (ax + bx) / 2, (ay + by) / 2);
             }
         }
     }
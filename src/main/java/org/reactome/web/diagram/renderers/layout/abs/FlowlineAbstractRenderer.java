@@ -17,7 +17,7 @@ public abstract class FlowlineAbstractRenderer extends EdgeAbstractRenderer {
         if (!isVisible(item)) return;
 
         Link link = (Link) item;
-        drawSegments(ctx, link.getSegments(), factor, offset);
+        drawSegments(ctx, link, factor, offset);
         ShapeAbstractRenderer.draw(ctx, link.getEndShape(), factor, offset);
     }
 
@@ -4,7 +4,6 @@ import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Link;
 import org.reactome.web.diagram.data.layout.Segment;
-import org.reactome.web.diagram.data.layout.impl.SegmentFactory;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
@@ -19,20 +18,19 @@ public abstract class LinkAbstractRenderer extends EdgeAbstractRenderer {
         if(!isVisible(item)) return;
 
         Link link = (Link) item;
+        double f = factor, ox = offset.getX(), oy = offset.getY();
+        ctx.beginPath();
         for (Segment segment : link.getSegments()) {
-            segment = SegmentFactory.transform(segment, factor, offset);
-            ctx.beginPath();
-            DashedLineAbstractRenderer.drawDashedLine(
-                    ctx,
-                    segment.getFrom().getX(),
-                    segment.getFrom().getY(),
-                    segment.getTo().getX(),
-                    segment.getTo().getY(),
-                    RendererProperties.DASHED_LINE_PATTERN[0],
-                    RendererProperties.DASHED_LINE_PATTERN[1]
+            Coordinate from = segment.getFrom(), to = segment.getTo();
+            ctx.dashedLine(
+                    from.getX() * f + ox,
+                    from.getY() * f + oy,
+                    to.getX() * f + ox,
+                    to.getY() * f + oy,
+                    RendererProperties.DASHED_LINE_PATTERN
             );
-            ctx.stroke();
         }
+        ctx.strokeDashed(RendererProperties.DASHED_LINE_PATTERN);
         ShapeAbstractRenderer.draw(ctx, link.getEndShape(), factor, offset);
     }
 
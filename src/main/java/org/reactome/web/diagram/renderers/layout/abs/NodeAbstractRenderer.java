@@ -1,6 +1,8 @@
 package org.reactome.web.diagram.renderers.layout.abs;
 
 import com.google.gwt.canvas.dom.client.TextMetrics;
+import org.reactome.web.diagram.data.content.DiagramGeometry;
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.*;
 import org.reactome.web.diagram.data.layout.category.SegmentCategory;
 import org.reactome.web.diagram.data.layout.category.ShapeCategory;
@@ -8,6 +10,7 @@ import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
 import org.reactome.web.diagram.data.layout.impl.NodePropertiesFactory;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
+import org.reactome.web.diagram.renderers.common.ModelPaths;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.RendererManager;
 import org.reactome.web.diagram.util.AdvancedContext2d;
@@ -17,7 +20,9 @@ import java.util.List;
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
-public abstract class NodeAbstractRenderer extends AbstractRenderer {
+public abstract class NodeAbstractRenderer extends AbstractRenderer implements ModelPaths.Builder {
+
+    private static final Coordinate ORIGIN = CoordinateFactory.get(0, 0);
 
     @Override
     public void drawText(AdvancedContext2d ctx, DiagramObject item, Double factor, Coordinate offset) {
@@ -75,19 +80,27 @@ public abstract class NodeAbstractRenderer extends AbstractRenderer {
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
     }
 
     @Override
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         if (isVisible(item)) {
             Node node = (Node) item;
 
-            NodeProperties prop = node.getProp();
-            boolean nodeMainShapeHovered = (
-                    (pos.getX() >= prop.getX()) && (pos.getX() <= (prop.getX() + prop.getWidth()))) &&
-                    ((pos.getY() >= prop.getY()) && (pos.getY() <= (prop.getY() + prop.getHeight()))
-                    );
+            DiagramGeometry geometry = near != null ? near.getGeometry() : null;
+            int row = geometry != null ? geometry.getRow(node) : -1;
+            if (row == -1) geometry = null; //Not part of the queried diagram
+            boolean nodeMainShapeHovered;
+            if (geometry != null) {
+                nodeMainShapeHovered = geometry.isInBounds(row, pos.getX(), pos.getY());
+            } else {
+                NodeProperties prop = node.getProp();
+                nodeMainShapeHovered = (
+                        (pos.getX() >= prop.getX()) && (pos.getX() <= (prop.getX() + prop.getWidth()))) &&
+                        ((pos.getY() >= prop.getY()) && (pos.getY() <= (prop.getY() + prop.getHeight()))
+                        );
+            }
 
             if (nodeMainShapeHovered) {
                 ContextMenuTrigger trigger = node.contextMenuTrigger();
@@ -97,7 +110,13 @@ public abstract class NodeAbstractRenderer extends AbstractRenderer {
                 return new HoveredItem(node.getId());
             }
 
-            for (Connector connector : node.getConnectors()) {
+            List<Connector> connectors = node.getConnectors();
+            //When available, only the connectors with a primitive close to pos are tested
+            List<Integer> candidates = geometry != null ? near.getConnectors(row) : null;
+            int n = candidates != null ? candidates.size() : connectors.size();
+            for (int i = 0; i < n; i++) {
+                int k = candidates != null ? candidates.get(i) : i;
+                Connector connector = connectors.get(k);
                 if (RendererManager.get().getConnectorRenderer().stoichiometryVisible()) {
                     Stoichiometry stoichiometry = connector.getStoichiometry();
                     if (stoichiometry != null && stoichiometry.getValue() != null && stoichiometry.getValue() > 1) {
@@ -114,6 +133,13 @@ public abstract class NodeAbstractRenderer extends AbstractRenderer {
                     }
                 }
 
+                if (geometry != null) {
+                    if (isInSegments(geometry, geometry.getConnectorsFrom(row) + k, pos)) {
+                        return new HoveredItem(connector.getEdgeId());
+                    }
+                    continue;
+                }
+
                 for (Segment segment : connector.getSegments()) {
                     if (SegmentCategory.isInSegment(segment, pos)) {
                         return new HoveredItem(connector.getEdgeId());
@@ -125,6 +151,15 @@ public abstract class NodeAbstractRenderer extends AbstractRenderer {
         return null;
     }
 
+    private boolean isInSegments(DiagramGeometry geometry, int c, Coordinate pos) {
+        for (int i = geometry.getConnectorSegmentsFrom(c), to = geometry.getConnectorSegmentsTo(c); i < to; i++) {
+            if (SegmentCategory.isInSegment(geometry.getX1(i), geometry.getY1(i), geometry.getX2(i), geometry.getY2(i), pos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Double getExpressionHovered(DiagramObject item, Coordinate pos, int t) {
         if (item.getGraphObject() != null) {
@@ -157,5 +192,45 @@ public abstract class NodeAbstractRenderer extends AbstractRenderer {
         }
     }
 
+    @Override
+    public void buildPath(AdvancedContext2d path, DiagramObject item, double factor) {
+        Node node = (Node) item;
+        shape(path, NodePropertiesFactory.transform(node.getProp(), factor, ORIGIN), null);
+    }
+
+    /**
+     * Fills and strokes the shape of the node from its cached path (see ModelPaths). Dashed borders are made of
+     * segments with a fixed length, so they are not cached. Paths cannot be sent to the rendering worker either
+     *
+     * @return false if the shape has to be drawn from the transformed node properties
+     */
+    protected boolean drawModelPath(AdvancedContext2d ctx, Node node, Double factor, Coordinate offset) {
+        if (!ModelPaths.isEnabled() || ctx.isRecording() || node.getNeedDashedBorder() != null) return false;
+        ModelPaths.draw(ctx, this, node, factor, offset);
+        if (node.getIsCrossed() != null) {
+            drawCross(ctx, node, NodePropertiesFactory.transform(node.getProp(), factor, offset));
+        }
+        return true;
+    }
+
+    /**
+     * @return true if shape draws a dashed border for the given needsDashed value
+     */
+    protected boolean isDashed(Boolean needsDashed) {
+        return false;
+    }
+
+    /**
+     * The dashed shapes have to be stroked with their dash pattern, which is reset straight after (see
+     * AdvancedContext2d.strokeDashed) so it does not get to the following strokes
+     */
+    protected void stroke(AdvancedContext2d ctx, boolean dashed) {
+        if (dashed) {
+            ctx.strokeDashed(RendererProperties.DASHED_LINE_PATTERN);
+        } else {
+            ctx.stroke();
+        }
+    }
+
     public abstract void shape(AdvancedContext2d ctx, NodeProperties prop, Boolean needsDashed);
 }
@@ -20,6 +20,7 @@ public abstract class OtherEntityAbstractRenderer extends NodeAbstractRenderer {
         if(!isVisible(item)) return;
 
         Node node = (Node) item;
+        if (drawModelPath(ctx, node, factor, offset)) return;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
@@ -19,11 +19,12 @@ public abstract class ProteinAbstractRenderer extends NodeAbstractRenderer {
         if (!isVisible(item)) return;
 
         Node node = (Node) item;
+        if (drawModelPath(ctx, node, factor, offset)) return;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
 
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -82,6 +83,11 @@ public abstract class ProteinAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null && needsDashed;
+    }
+
     @Override
     public void setColourProperties(AdvancedContext2d ctx, ColourProfileType type) {
         type.setColourProfile(ctx, DiagramColours.get().PROFILE.getProtein());
@@ -28,7 +28,7 @@ public abstract class ProteinDrugAbstractRenderer extends NodeAbstractRenderer {
 
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -96,6 +96,11 @@ public abstract class ProteinDrugAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null && needsDashed;
+    }
+
     public void rxText(AdvancedContext2d ctx, NodeProperties prop, double factor) {
         double rxX = prop.getX() + prop.getWidth() - 1.75 * RendererProperties.NODE_LINE_WIDTH;
         double rxY = prop.getY() + prop.getHeight() - 1.75 * RendererProperties.NODE_LINE_WIDTH;
@@ -19,6 +19,7 @@ public abstract class RNAAbstractRenderer extends NodeAbstractRenderer {
     public void draw(AdvancedContext2d ctx, DiagramObject item, Double factor, Coordinate offset) {
         if (!isVisible(item)) return;
         Node node = (Node) item;
+        if (drawModelPath(ctx, node, factor, offset)) return;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
@@ -1,15 +1,17 @@
 package org.reactome.web.diagram.renderers.layout.abs;
 
 import com.google.gwt.canvas.dom.client.Context2d;
+import org.reactome.web.diagram.data.content.DiagramGeometry;
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.graph.model.GraphReactionLikeEvent;
 import org.reactome.web.diagram.data.layout.*;
 import org.reactome.web.diagram.data.layout.category.SegmentCategory;
 import org.reactome.web.diagram.data.layout.category.ShapeCategory;
-import org.reactome.web.diagram.data.layout.impl.ShapeFactory;
 import org.reactome.web.diagram.profiles.diagram.DiagramColours;
 import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
+import org.reactome.web.diagram.renderers.common.StrokeBatch;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
 /**
@@ -29,17 +31,32 @@ public abstract class ReactionAbstractRenderer extends EdgeAbstractRenderer {
     }
 
     public void strokeShape(AdvancedContext2d ctx, Edge edge, Double factor, Coordinate offset){
-        drawSegments(ctx, edge.getSegments(), factor, offset);
+        drawSegments(ctx, edge, factor, offset);
         ShapeAbstractRenderer.draw(ctx, edge.getEndShape(), factor, offset);
         ShapeAbstractRenderer.draw(ctx, edge.getReactionShape(), factor, offset);
         drawSymbol(ctx, edge, factor, offset);
     }
 
+    /**
+     * Same as draw but the reaction is added to the batch, which is drawn once all of them have been added
+     */
+    public void draw(StrokeBatch batch, AdvancedContext2d ctx, DiagramObject item) {
+        if (!isVisible(item)) return;
+        strokeShape(batch.get(ctx), (Edge) item);
+    }
+
+    public void strokeShape(StrokeBatch.Group group, Edge edge){
+        addSegments(group, edge);
+        group.shape(edge.getEndShape());
+        group.shape(edge.getReactionShape());
+        group.symbol(edge.getReactionShape());
+    }
+
     protected void drawSymbol(AdvancedContext2d ctx, Edge edge, Double factor, Coordinate offset){
         if(edge.getReactionShape().getS()!=null){
-            Shape shape = ShapeFactory.transform(edge.getReactionShape(), factor, offset);
-            double x = shape.getA().getX() + (shape.getB().getX() - shape.getA().getX())/ 2.0;
-            double y = shape.getA().getY() + (shape.getB().getY() - shape.getA().getY())/ 2.0;
+            Shape shape = edge.getReactionShape();
+            double x = (shape.getA().getX() + shape.getB().getX()) / 2.0 * factor + offset.getX();
+            double y = (shape.getA().getY() + shape.getB().getY()) / 2.0 * factor + offset.getY();
             ctx.save();
             ctx.setFont(RendererProperties.getFont(RendererProperties.WIDGET_FONT_SIZE));
             ctx.setTextAlign(Context2d.TextAlign.CENTER);
@@ -51,10 +68,16 @@ public abstract class ReactionAbstractRenderer extends EdgeAbstractRenderer {
     }
 
     @Override
-    public final HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public final HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         if(isVisible(item)) {
             try {
                 Edge edge = (Edge) item;
+                DiagramGeometry geometry = near != null ? near.getGeometry() : null;
+                int row = geometry != null ? geometry.getRow(edge) : -1;
+                if (row == -1) geometry = null; //Not part of the queried diagram
+                if (geometry != null && !near.isNear(row)) {
+                    return null;
+                }
                 Shape shape = edge.getReactionShape();
                 if(shape!=null){
                     if(ShapeCategory.isHovered(shape, pos)){
@@ -69,6 +92,9 @@ public abstract class ReactionAbstractRenderer extends EdgeAbstractRenderer {
                     }
                 }
 
+                if (geometry != null) {
+                    return isInSegments(geometry, row, pos) ? new HoveredItem(edge.getId()) : null;
+                }
                 for (Segment segment : edge.getSegments()) {
                     if (SegmentCategory.isInSegment(segment, pos)) {
                         return new HoveredItem(edge.getId());
@@ -79,6 +105,15 @@ public abstract class ReactionAbstractRenderer extends EdgeAbstractRenderer {
         return null;
     }
 
+    private boolean isInSegments(DiagramGeometry geometry, int row, Coordinate pos) {
+        for (int i = geometry.getSegmentsFrom(row), to = geometry.getSegmentsTo(row); i < to; i++) {
+            if (SegmentCategory.isInSegment(geometry.getX1(i), geometry.getY1(i), geometry.getX2(i), geometry.getY2(i), pos)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean isVisible(DiagramObject item) {
         return true;
@@ -23,10 +23,10 @@ public abstract class SetAbstractRenderer extends NodeAbstractRenderer {
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, Boolean.TRUE.equals(node.getNeedDashedBorder()));
 
         innerShape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -35,9 +35,9 @@ public abstract class SetAbstractRenderer extends NodeAbstractRenderer {
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         innerShape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
     }
 
     @Override
@@ -54,6 +54,11 @@ public abstract class SetAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null;
+    }
+
     protected void fillShape(AdvancedContext2d ctx, NodeProperties prop, Boolean needsDashed) {
         if (needsDashed != null && needsDashed) {
             //This is needed since the dashed rounded rectangle will always be filled
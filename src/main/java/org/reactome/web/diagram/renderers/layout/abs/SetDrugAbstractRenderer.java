@@ -28,10 +28,10 @@ public abstract class SetDrugAbstractRenderer extends NodeAbstractRenderer {
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, Boolean.TRUE.equals(node.getNeedDashedBorder()));
 
         innerShape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -49,9 +49,9 @@ public abstract class SetDrugAbstractRenderer extends NodeAbstractRenderer {
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         shape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         innerShape(ctx, prop, node.getNeedDashedBorder());
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
     }
 
     @Override
@@ -68,6 +68,11 @@ public abstract class SetDrugAbstractRenderer extends NodeAbstractRenderer {
         }
     }
 
+    @Override
+    protected boolean isDashed(Boolean needsDashed) {
+        return needsDashed != null;
+    }
+
     public void rxText(AdvancedContext2d ctx, NodeProperties prop, double factor) {
         double rxX = prop.getX() + prop.getWidth() - 3.5 * RendererProperties.NODE_LINE_WIDTH;
         double rxY = prop.getY() + prop.getHeight() - 3.5 * RendererProperties.NODE_LINE_WIDTH;
@@ -12,18 +12,22 @@ import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
+import java.util.List;
+
 /**
  * @author Kostas Sidiropoulos (ksidiro@ebi.ac.uk)
  */
 public abstract class ShadowAbstractRenderer extends AbstractRenderer {
 
     public void shape(AdvancedContext2d ctx, Shadow shadow, Double factor, Coordinate offset) {
-        Coordinate initial = shadow.getPoints().get(0).transform(factor, offset);
+        double f = factor, ox = offset.getX(), oy = offset.getY();
+        List<Coordinate> points = shadow.getPoints();
+        Coordinate initial = points.get(0);
         ctx.beginPath();
-        ctx.moveTo(initial.getX(), initial.getY());
-        for (int i = 1; i < shadow.getPoints().size(); i++) {
-            Coordinate aux = shadow.getPoints().get(i).transform(factor, offset);
-            ctx.lineTo(aux.getX(), aux.getY());
+        ctx.moveTo(initial.getX() * f + ox, initial.getY() * f + oy);
+        for (int i = 1; i < points.size(); i++) {
+            Coordinate aux = points.get(i);
+            ctx.lineTo(aux.getX() * f + ox, aux.getY() * f + oy);
         }
         ctx.closePath();
     }
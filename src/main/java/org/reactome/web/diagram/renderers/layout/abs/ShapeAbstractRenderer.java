@@ -2,7 +2,6 @@ package org.reactome.web.diagram.renderers.layout.abs;
 
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.Shape;
-import org.reactome.web.diagram.data.layout.impl.ShapeFactory;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
 /**
@@ -12,70 +11,72 @@ public abstract class ShapeAbstractRenderer {
 
     //The last parameter is meant to have a way of disabling the default filling for views where the shape
     //filling is hardly appreciated for the human eye so avoiding the filling speeds the rendering up
+    //NOTE: The points are not transformed into new objects (as ShapeFactory.transform does) but applied the factor
+    //and offset as the path is drawn, so no objects are created for the shapes (node properties are still copied
+    //per node and frame in NodePropertiesFactory.transform)
     public static void draw(AdvancedContext2d ctx, Shape shape, Double factor, Coordinate offset) {
         if (shape == null) return;
-        shape = ShapeFactory.transform(shape, factor, offset);
+        double f = factor, ox = offset.getX(), oy = offset.getY();
         String type = shape.getType();
         switch (type) {
-            case "ARROW":
+            case "ARROW": {
+                Coordinate a = shape.getA(), b = shape.getB(), c = shape.getC();
                 ctx.beginPath();
-                ctx.moveTo(shape.getA().getX(), shape.getA().getY());
-                ctx.lineTo(shape.getB().getX(), shape.getB().getY());
-                ctx.lineTo(shape.getC().getX(), shape.getC().getY());
+                ctx.moveTo(a.getX() * f + ox, a.getY() * f + oy);
+                ctx.lineTo(b.getX() * f + ox, b.getY() * f + oy);
+                ctx.lineTo(c.getX() * f + ox, c.getY() * f + oy);
                 ctx.closePath();
                 ctx.stroke();
                 fill(ctx, shape.getEmpty());
                 break;
-            case "BOX":
+            }
+            case "BOX": {
+                Coordinate a = shape.getA(), b = shape.getB();
                 ctx.beginPath();
                 ctx.rect(
-                        shape.getA().getX(),
-                        shape.getA().getY(),
-                        shape.getB().getX() - shape.getA().getX(),
-                        shape.getB().getY() - shape.getA().getY()
+                        a.getX() * f + ox,
+                        a.getY() * f + oy,
+                        (b.getX() - a.getX()) * f,
+                        (b.getY() - a.getY()) * f
                 );
                 ctx.stroke();
                 fill(ctx, shape.getEmpty());
                 break;
-            case "CIRCLE":
+            }
+            case "CIRCLE": {
+                Coordinate c = shape.getC();
                 ctx.beginPath();
                 ctx.arc(
-                        shape.getC().getX(),
-                        shape.getC().getY(),
-                        shape.getR(),
+                        c.getX() * f + ox,
+                        c.getY() * f + oy,
+                        shape.getR() * f,
                         0,
                         2 * Math.PI
                 );
                 ctx.stroke();
                 fill(ctx, shape.getEmpty());
                 break;
-            case "DOUBLE_CIRCLE":
+            }
+            case "DOUBLE_CIRCLE": {
+                Coordinate c = shape.getC();
+                double x = c.getX() * f + ox, y = c.getY() * f + oy;
                 ctx.beginPath();
-                ctx.arc(
-                        shape.getC().getX(),
-                        shape.getC().getY(),
-                        shape.getR(),
-                        0,
-                        2 * Math.PI
-                );
+                ctx.arc(x, y, shape.getR() * f, 0, 2 * Math.PI);
                 ctx.stroke();
                 fill(ctx, shape.getEmpty());
                 ctx.beginPath();
-                ctx.arc(
-                        shape.getC().getX(),
-                        shape.getC().getY(),
-                        shape.getR1(),
-                        0,
-                        2 * Math.PI
-                );
+                ctx.arc(x, y, shape.getR1() * f, 0, 2 * Math.PI);
                 ctx.stroke();
                 break;
-            case "STOP":
+            }
+            case "STOP": {
+                Coordinate a = shape.getA(), b = shape.getB();
                 ctx.beginPath();
-                ctx.moveTo(shape.getA().getX(), shape.getA().getY());
-                ctx.lineTo(shape.getB().getX(), shape.getB().getY());
+                ctx.moveTo(a.getX() * f + ox, a.getY() * f + oy);
+                ctx.lineTo(b.getX() * f + ox, b.getY() * f + oy);
                 ctx.stroke();
                 break;
+            }
             default:
                 throw new RuntimeException("Do not know shape " + type);
         }
@@ -5,6 +5,7 @@ import org.reactome.web.diagram.data.layout.NodeProperties;
 import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
 import org.reactome.web.diagram.data.layout.impl.NodePropertiesFactory;
 import org.reactome.web.diagram.util.AdvancedContext2d;
+import org.reactome.web.pwp.model.client.util.LruCache;
 
 import java.util.Collections;
 import java.util.LinkedList;
@@ -16,6 +17,14 @@ import java.util.List;
  * @author Kostas Sidiropoulos <ksidiro@ebi.ac.uk>
  */
 public class TextRenderer {
+    private static final int LINES_CACHE_SIZE = 2000;
+
+    // Splitting a message requires measuring every word and candidate line, so the resulting lines are kept
+    // for the font and available width they were calculated for (cleared every time the factor changes)
+    private static LruCache<String, List<String>> linesCache = new LruCache<>(LINES_CACHE_SIZE);
+    private static int cacheHits = 0;
+    private static int cacheMisses = 0;
+
     private double fontSize;
     private double padding;
 
@@ -30,8 +39,7 @@ public class TextRenderer {
     }
 
     public void drawTextSingleLine(AdvancedContext2d ctx, String message, Coordinate centerPosition, Double factor, Coordinate offset){
-        Coordinate newCenter = CoordinateFactory.get(centerPosition.getX(), centerPosition.getY()).transform(factor,offset);
-        drawTextSingleLine(ctx, message, newCenter);
+        ctx.fillText(message, centerPosition.getX() * factor + offset.getX(), centerPosition.getY() * factor + offset.getY());
     }
 
     public void drawTextSingleLine(AdvancedContext2d ctx, String message, Coordinate centerPosition){
@@ -122,11 +130,41 @@ public class TextRenderer {
         }
     }
 
+    public static void clearCache() {
+        linesCache.clear();
+    }
+
+    public static void resetCacheStats() {
+        cacheHits = 0;
+        cacheMisses = 0;
+    }
+
+    public static int getCacheHits() {
+        return cacheHits;
+    }
+
+    public static int getCacheMisses() {
+        return cacheMisses;
+    }
+
     //**************************************************************//
     //*********** Methods used to split the long text  *************//
     //**************************************************************//
 
     private static List<String> spitText(AdvancedContext2d ctx, String fullName, double availableWidth){
+        String key = ctx.getFont() + "|" + availableWidth + "|" + fullName;
+        List<String> rtn = linesCache.get(key);
+        if (rtn == null) {
+            cacheMisses++;
+            rtn = Collections.unmodifiableList(calculateLines(ctx, fullName, availableWidth));
+            linesCache.put(key, rtn);
+        } else {
+            cacheHits++;
+        }
+        return rtn;
+    }
+
+    private static List<String> calculateLines(AdvancedContext2d ctx, String fullName, double availableWidth){
         List<String> rtn = new LinkedList<>();
 
         //1. split all words
@@ -14,11 +14,6 @@ import org.reactome.web.diagram.renderers.common.OverlayContext;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.abs.ComplexDrugAbstractRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
-import org.reactome.web.diagram.util.ExpressionUtil;
-
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -34,12 +29,9 @@ public class ComplexDrugRenderer000 extends ComplexDrugAbstractRenderer {
         GraphComplex complex = item.getGraphObject();
         NodeProperties prop = ((Node) item).getProp();
 
-        List<Double> expression = new LinkedList<>(complex.getParticipantsExpression(t).values());
-        if(expression.isEmpty()) return null;
-
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        double value = ExpressionUtil.median(expression);
-        double percentage = complex.getHitParticipants().size() / (double) complex.getParticipants().size();
+        Double value = complex.getParticipantsExpressionMedian(t);
+        if (value == null) return null;
+        double percentage = complex.getHitParticipantsCount() / (double) complex.getParticipantsCount();
 
         double minX = prop.getX();
         double maxX = minX + prop.getWidth() * percentage;
@@ -50,7 +42,7 @@ public class ComplexDrugRenderer000 extends ComplexDrugAbstractRenderer {
     @Override
     public void drawEnrichment(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, Double factor, Coordinate offset){
         GraphComplex complex = item.getGraphObject();
-        double percentage = complex.getHitParticipants().size() / (double) complex.getParticipants().size();
+        double percentage = complex.getHitParticipantsCount() / (double) complex.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -60,25 +52,23 @@ public class ComplexDrugRenderer000 extends ComplexDrugAbstractRenderer {
         if(item.getIsDisease()!=null) ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         ctx.restore();
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(AnalysisColours.get().PROFILE.getEnrichment().getGradient().getMax());
         buffer.octagon(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.COMPLEX_RECT_ARC_WIDTH);
         buffer.fill();
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_IN);
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 
     @Override
     public void drawExpression(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, int t, double min, double max, Double factor, Coordinate offset){
         GraphComplex complex = item.getGraphObject();
-        double percentage = complex.getHitParticipants().size() / (double) complex.getParticipants().size();
+        double percentage = complex.getHitParticipantsCount() / (double) complex.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -88,24 +78,19 @@ public class ComplexDrugRenderer000 extends ComplexDrugAbstractRenderer {
         if(item.getIsDisease()!=null) ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         ctx.restore();
 
-        List<Double> expression = new LinkedList<>(complex.getParticipantsExpression(t).values());
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        Double value = ExpressionUtil.median(expression);
-
-        AdvancedContext2d buffer = overlay.getBuffer();
+        Double value = complex.getParticipantsExpressionMedian(t);
 
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(AnalysisColours.get().expressionGradient.getColor(value, min, max));
         buffer.octagon(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.COMPLEX_RECT_ARC_WIDTH);
         buffer.fill();
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_IN);
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 
 
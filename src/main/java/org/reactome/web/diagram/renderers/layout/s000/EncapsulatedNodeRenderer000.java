@@ -68,8 +68,7 @@ public class EncapsulatedNodeRenderer000 extends EncapsulatedNodeAbstractRendere
 
         GraphPathway graphPathway = node.getGraphObject();
         double p = graphPathway.getPercentage() < 0.1 ? 0.1 : graphPathway.getPercentage();
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         setColourProperties(buffer, ColourProfileType.NORMAL);
         buffer.setLineWidth(RendererProperties.PROCESS_NODE_INSET_WIDTH);
         buffer.setFillStyle(ctx.getFillStyle());
@@ -80,7 +79,6 @@ public class EncapsulatedNodeRenderer000 extends EncapsulatedNodeAbstractRendere
         shape(buffer, prop, node.getNeedDashedBorder());
         buffer.stroke();
 
-        ctx.drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose(ctx);
     }
 }
@@ -13,11 +13,6 @@ import org.reactome.web.diagram.renderers.common.ColourProfileType;
 import org.reactome.web.diagram.renderers.common.OverlayContext;
 import org.reactome.web.diagram.renderers.layout.abs.SetDrugAbstractRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
-import org.reactome.web.diagram.util.ExpressionUtil;
-
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -31,7 +26,7 @@ public class SetDrugRenderer000 extends SetDrugAbstractRenderer {
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
         fillShape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, Boolean.TRUE.equals(node.getNeedDashedBorder()));
         drawCross(ctx, node, prop);
     }
 
@@ -45,12 +40,9 @@ public class SetDrugRenderer000 extends SetDrugAbstractRenderer {
         GraphEntitySet set = item.getGraphObject();
         NodeProperties prop = ((Node) item).getProp();
 
-        List<Double> expression = new LinkedList<>(set.getParticipantsExpression(t).values());
-        if(expression.isEmpty()) return null;
-
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        double value = ExpressionUtil.median(expression);
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        Double value = set.getParticipantsExpressionMedian(t);
+        if (value == null) return null;
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         double minX = prop.getX();
         double maxX = minX + prop.getWidth() * percentage;
@@ -61,7 +53,7 @@ public class SetDrugRenderer000 extends SetDrugAbstractRenderer {
     @Override
     public void drawEnrichment(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, Double factor, Coordinate offset){
         GraphEntitySet set = item.getGraphObject();
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -74,23 +66,20 @@ public class SetDrugRenderer000 extends SetDrugAbstractRenderer {
         ctx.stroke();
         ctx.restore();
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(ctx.getFillStyle());
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight());
         buffer.fill();
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_IN);
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 
     @Override
     public void drawExpression(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, int t, double min, double max, Double factor, Coordinate offset){
         GraphEntitySet set = item.getGraphObject();
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -103,20 +92,16 @@ public class SetDrugRenderer000 extends SetDrugAbstractRenderer {
         ctx.stroke();
         ctx.restore();
 
-        List<Double> expression = new LinkedList<>(set.getParticipantsExpression(t).values());
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        Double value = ExpressionUtil.median(expression);
+        Double value = set.getParticipantsExpressionMedian(t);
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(AnalysisColours.get().expressionGradient.getColor(value, min, max));
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight());
         buffer.fill();
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_IN);
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.renderers.layout.s050;
 
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Node;
@@ -33,7 +34,7 @@ public class ProteinRenderer050 extends ProteinAbstractRenderer {
 
     @Override
     @SuppressWarnings("Duplicates")
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         Node node = (Node) item;
 
         SummaryItem interactorsSummary = node.getInteractorsSummary();
@@ -42,6 +43,6 @@ public class ProteinRenderer050 extends ProteinAbstractRenderer {
                 return new HoveredItem(node.getId(), interactorsSummary);
             }
         }
-        return super.getHovered(item, pos);
+        return super.getHovered(item, pos, near);
     }
 }
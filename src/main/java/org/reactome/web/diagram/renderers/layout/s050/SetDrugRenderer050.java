@@ -14,11 +14,6 @@ import org.reactome.web.diagram.renderers.common.OverlayContext;
 import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.abs.SetDrugAbstractRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
-import org.reactome.web.diagram.util.ExpressionUtil;
-
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
@@ -29,12 +24,9 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
         GraphEntitySet set = item.getGraphObject();
         NodeProperties prop = ((Node) item).getProp();
 
-        List<Double> expression = new LinkedList<>(set.getParticipantsExpression(t).values());
-        if(expression.isEmpty()) return null;
-
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        double value = ExpressionUtil.median(expression);
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        Double value = set.getParticipantsExpressionMedian(t);
+        if (value == null) return null;
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         double minX = prop.getX();
         double maxX = minX + prop.getWidth() * percentage;
@@ -45,7 +37,7 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
     @Override
     public void drawEnrichment(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, Double factor, Coordinate offset){
         GraphEntitySet set = item.getGraphObject();
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         ctx.save();
         setColourProperties(ctx, ColourProfileType.ANALYSIS); //IMPORTANT
@@ -56,8 +48,7 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setLineWidth(ctx.getLineWidth());
         buffer.setFillStyle(ctx.getFillStyle());
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
@@ -65,20 +56,19 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_ATOP);
         buffer.setStrokeStyle(ctx.getStrokeStyle());
         innerShape(buffer, prop, node.getNeedDashedBorder());
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         buffer.setGlobalCompositeOperation(Context2d.Composite.DESTINATION_IN);
         buffer.roundedRectangle(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.ROUND_RECT_ARC_WIDTH);
         buffer.fill();
 
-        ctx.drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose(ctx);
     }
 
     @Override
     public void drawExpression(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, int t, double min, double max, Double factor, Coordinate offset) {
         GraphEntitySet set = item.getGraphObject();
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -89,19 +79,16 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
         super.draw(ctx, item, factor, offset);
         ctx.restore();
 
-        List<Double> expression = new LinkedList<>(set.getParticipantsExpression(t).values());
-        Collections.sort(expression);       //Collections.sort(expression, Collections.reverseOrder());
-        double value = ExpressionUtil.median(expression);
+        Double value = set.getParticipantsExpressionMedian(t);
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(AnalysisColours.get().expressionGradient.getColor(value, min, max));
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
 
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_ATOP);
         buffer.setStrokeStyle(ctx.getStrokeStyle());
         innerShape(buffer, prop, node.getNeedDashedBorder());
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         buffer.setGlobalCompositeOperation(Context2d.Composite.DESTINATION_IN);
         buffer.roundedRectangle(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.ROUND_RECT_ARC_WIDTH);
@@ -114,7 +101,6 @@ public class SetDrugRenderer050 extends SetDrugAbstractRenderer {
         buffer.setFillStyle(AnalysisColours.get().PROFILE.getExpression().getText());
         drawText(buffer, item, factor, offset);
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 }
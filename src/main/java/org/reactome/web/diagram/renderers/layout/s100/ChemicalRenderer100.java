@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.renderers.layout.s100;
 
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Node;
@@ -21,7 +22,7 @@ public class ChemicalRenderer100 extends ChemicalAbstractRenderer {
     }
 
     @Override
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         Node node = (Node) item;
 
         SummaryItem interactorsSummary = node.getInteractorsSummary();
@@ -30,7 +31,7 @@ public class ChemicalRenderer100 extends ChemicalAbstractRenderer {
                 return new HoveredItem(node.getId(), interactorsSummary);
             }
         }
-        return super.getHovered(item, pos);
+        return super.getHovered(item, pos, near);
     }
 
     @Override
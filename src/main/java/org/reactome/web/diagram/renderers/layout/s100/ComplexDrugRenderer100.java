@@ -2,7 +2,6 @@ package org.reactome.web.diagram.renderers.layout.s100;
 
 import com.google.gwt.canvas.dom.client.Context2d;
 import org.reactome.web.diagram.data.graph.model.GraphComplex;
-import org.reactome.web.diagram.data.graph.model.Participant;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Node;
@@ -16,8 +15,6 @@ import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.abs.ComplexDrugAbstractRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
-import java.util.List;
-
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
@@ -27,13 +24,12 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         GraphComplex complex = item.getGraphObject();
         NodeProperties prop = ((Node) item).getProp();
 
-        List<Participant> participantsWithExpression = Participant.asSortedList(complex.getParticipantsExpression(t));
-        if (participantsWithExpression.isEmpty()) return null;
+        double[] expression = complex.getParticipantsExpressionVector(t);
+        if (expression.length == 0) return null;
 
-        Double delta = prop.getWidth() / complex.getParticipants().size();
+        Double delta = prop.getWidth() / complex.getParticipantsCount();
         double minX = prop.getX();
-        for (Participant participant : participantsWithExpression) {
-            Double value = participant.getExpression();
+        for (double value : expression) {
             double maxX = minX + delta;
             if (pos.getX() > minX && pos.getX() <= maxX) return value;
             minX = maxX;
@@ -44,7 +40,7 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
     @Override
     public void drawEnrichment(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, Double factor, Coordinate offset) {
         GraphComplex complex = item.getGraphObject();
-        double percentage = complex.getHitParticipants().size() / (double) complex.getParticipants().size();
+        double percentage = complex.getHitParticipantsCount() / (double) complex.getParticipantsCount();
 
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
@@ -54,11 +50,10 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         if (item.getIsDisease() != null) ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         ctx.restore();
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setFillStyle(ctx.getFillStyle());
         buffer.octagon(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.COMPLEX_RECT_ARC_WIDTH);
         buffer.fill();
@@ -69,8 +64,7 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         setTextProperties(buffer, ColourProfileType.ANALYSIS);
         drawText(buffer, item, factor, offset);
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 
     @Override
@@ -84,16 +78,14 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         if (item.getIsDisease() != null) ctx.setStrokeStyle(DiagramColours.get().PROFILE.getProperties().getDisease());
         shape(ctx, prop, node.getNeedDashedBorder());
         ctx.fill();
-        ctx.stroke();
+        stroke(ctx, isDashed(node.getNeedDashedBorder()));
         ctx.restore();
 
-        Double delta = prop.getWidth() / complex.getParticipants().size();
+        Double delta = prop.getWidth() / complex.getParticipantsCount();
         double x = prop.getX();
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
-        for (Participant participant : Participant.asSortedList(complex.getParticipantsExpression(t))) {
-            double value = participant.getExpression();
+        AdvancedContext2d buffer = overlay.open(prop);
+        for (double value : complex.getParticipantsExpressionVector(t)) {
             buffer.setFillStyle(AnalysisColours.get().expressionGradient.getColor(value, min, max));
             buffer.fillRect(x, prop.getY(), delta, prop.getHeight());
             x += delta;
@@ -103,7 +95,7 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         setColourProperties(buffer, ColourProfileType.ANALYSIS);
         buffer.setLineWidth(ctx.getLineWidth());
         shape(buffer, prop, node.getNeedDashedBorder());
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         setTextProperties(buffer, ColourProfileType.ANALYSIS);
         buffer.setShadowColor("#000000");
@@ -115,7 +107,6 @@ public class ComplexDrugRenderer100 extends ComplexDrugAbstractRenderer {
         buffer.octagon(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.COMPLEX_RECT_ARC_WIDTH);
         buffer.fill();
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 }
\ No newline at end of file
@@ -79,8 +79,7 @@ public class EncapsulatedNodeRenderer100 extends EncapsulatedNodeAbstractRendere
         ctx.restore();
 
         GraphPathway graphPathway = node.getGraphObject();
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         setColourProperties(buffer, ColourProfileType.NORMAL);
         buffer.setLineWidth(ctx.getLineWidth());
         buffer.setFillStyle(ctx.getFillStyle());
@@ -95,7 +94,6 @@ public class EncapsulatedNodeRenderer100 extends EncapsulatedNodeAbstractRendere
         shape(buffer, prop, node.getNeedDashedBorder());
         buffer.fill();
 
-        ctx.drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose(ctx);
     }
 }
@@ -2,7 +2,6 @@ package org.reactome.web.diagram.renderers.layout.s100;
 
 import com.google.gwt.canvas.dom.client.Context2d;
 import org.reactome.web.diagram.data.graph.model.GraphEntitySet;
-import org.reactome.web.diagram.data.graph.model.Participant;
 import org.reactome.web.diagram.data.layout.Coordinate;
 import org.reactome.web.diagram.data.layout.DiagramObject;
 import org.reactome.web.diagram.data.layout.Node;
@@ -16,8 +15,6 @@ import org.reactome.web.diagram.renderers.common.RendererProperties;
 import org.reactome.web.diagram.renderers.layout.abs.SetAbstractRenderer;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
-import java.util.List;
-
 /**
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
@@ -27,13 +24,12 @@ public class SetRenderer100 extends SetAbstractRenderer {
         GraphEntitySet set = item.getGraphObject();
         NodeProperties prop = ((Node) item).getProp();
 
-        List<Participant> participantsWithExpression = Participant.asSortedList(set.getParticipantsExpression(t));
-        if (participantsWithExpression.isEmpty()) return null;
+        double[] expression = set.getParticipantsExpressionVector(t);
+        if (expression.length == 0) return null;
 
-        Double delta = prop.getWidth() / set.getParticipants().size();
+        Double delta = prop.getWidth() / set.getParticipantsCount();
         double minX = prop.getX();
-        for (Participant participant : participantsWithExpression) {
-            Double value = participant.getExpression();
+        for (double value : expression) {
             double maxX = minX + delta;
             if (pos.getX() > minX && pos.getX() <= maxX) return value;
             minX = maxX;
@@ -44,7 +40,7 @@ public class SetRenderer100 extends SetAbstractRenderer {
     @Override
     public void drawEnrichment(AdvancedContext2d ctx, OverlayContext overlay, DiagramObject item, Double factor, Coordinate offset) {
         GraphEntitySet set = item.getGraphObject();
-        double percentage = set.getHitParticipants().size() / (double) set.getParticipants().size();
+        double percentage = set.getHitParticipantsCount() / (double) set.getParticipantsCount();
 
         ctx.save();
         setColourProperties(ctx, ColourProfileType.ANALYSIS);
@@ -55,8 +51,7 @@ public class SetRenderer100 extends SetAbstractRenderer {
         Node node = (Node) item;
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setLineWidth(ctx.getLineWidth());
         buffer.setFillStyle(ctx.getFillStyle());
         buffer.fillRect(prop.getX(), prop.getY(), prop.getWidth() * percentage, prop.getHeight());
@@ -64,14 +59,13 @@ public class SetRenderer100 extends SetAbstractRenderer {
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_ATOP);
         buffer.setStrokeStyle(ctx.getStrokeStyle());
         innerShape(buffer, prop, node.getNeedDashedBorder());
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         buffer.setGlobalCompositeOperation(Context2d.Composite.DESTINATION_IN);
         buffer.roundedRectangle(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.ROUND_RECT_ARC_WIDTH);
         buffer.fill();
 
-        ctx.drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose(ctx);
     }
 
     @Override
@@ -86,26 +80,23 @@ public class SetRenderer100 extends SetAbstractRenderer {
 
         GraphEntitySet set = item.getGraphObject();
         NodeProperties prop = NodePropertiesFactory.transform(node.getProp(), factor, offset);
-        Double delta = prop.getWidth() / set.getParticipants().size();
+        Double delta = prop.getWidth() / set.getParticipantsCount();
         double x = prop.getX();
 
-        AdvancedContext2d buffer = overlay.getBuffer();
-        buffer.save();
+        AdvancedContext2d buffer = overlay.open(prop);
         buffer.setLineWidth(ctx.getLineWidth());
         buffer.setStrokeStyle(ctx.getStrokeStyle());
         buffer.setFillStyle(ctx.getFillStyle());
-        for (Participant participant : Participant.asSortedList(set.getParticipantsExpression(t))) {
-            Double value = participant.getExpression();
+        for (double value : set.getParticipantsExpressionVector(t)) {
             buffer.setFillStyle(AnalysisColours.get().expressionGradient.getColor(value, min, max));
             buffer.fillRect(x, prop.getY(), delta, prop.getHeight());
             x += delta;
         }
 
-        buffer.save();
         buffer.setGlobalCompositeOperation(Context2d.Composite.SOURCE_ATOP);
         buffer.setStrokeStyle(ctx.getStrokeStyle());
         innerShape(buffer, prop, node.getNeedDashedBorder());
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         setColourProperties(buffer, ColourProfileType.ANALYSIS);
         buffer.setLineWidth(ctx.getLineWidth());
@@ -114,7 +105,7 @@ public class SetRenderer100 extends SetAbstractRenderer {
         } else {
             buffer.roundedRectangle(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.ROUND_RECT_ARC_WIDTH);
         }
-        buffer.stroke();
+        stroke(buffer, isDashed(node.getNeedDashedBorder()));
 
         setTextProperties(buffer, ColourProfileType.ANALYSIS);
         buffer.setShadowColor("#000000");
@@ -126,7 +117,6 @@ public class SetRenderer100 extends SetAbstractRenderer {
         buffer.roundedRectangle(prop.getX(), prop.getY(), prop.getWidth(), prop.getHeight(), RendererProperties.ROUND_RECT_ARC_WIDTH);
         buffer.fill();
 
-        overlay.getOverlay().drawImage(buffer.getCanvas(), 0, 0); //TODO: Improve this to copy only the region
-        buffer.restore();
+        overlay.compose();
     }
 }
@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.renderers.layout.s300;
 
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.layout.*;
 import org.reactome.web.diagram.data.layout.category.ShapeCategory;
 import org.reactome.web.diagram.renderers.common.HoveredItem;
@@ -30,7 +31,7 @@ public class ProteinDrugRenderer300 extends ProteinDrugAbstractRenderer {
 
     @Override
     @SuppressWarnings("Duplicates")
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         Node node = (Node) item;
         if (node.getNodeAttachments() != null) {
             for (NodeAttachment attachment : node.getNodeAttachments()) {
@@ -46,7 +47,7 @@ public class ProteinDrugRenderer300 extends ProteinDrugAbstractRenderer {
                 return new HoveredItem(node.getId(), interactorsSummary);
             }
         }
-        return super.getHovered(item, pos);
+        return super.getHovered(item, pos, near);
     }
 
     @Override
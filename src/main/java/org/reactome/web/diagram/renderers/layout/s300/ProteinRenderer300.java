@@ -1,5 +1,6 @@
 package org.reactome.web.diagram.renderers.layout.s300;
 
+import org.reactome.web.diagram.data.content.DiagramHitIndex;
 import org.reactome.web.diagram.data.graph.model.GraphEntityWithAccessionedSequence;
 import org.reactome.web.diagram.data.graph.model.GraphObject;
 import org.reactome.web.diagram.data.interactors.common.DiagramBox;
@@ -51,7 +52,7 @@ public class ProteinRenderer300 extends ProteinAbstractRenderer {
 
     @Override
     @SuppressWarnings("Duplicates")
-    public HoveredItem getHovered(DiagramObject item, Coordinate pos) {
+    public HoveredItem getHovered(DiagramObject item, Coordinate pos, DiagramHitIndex.Hits near) {
         Node node = (Node) item;
         if (node.getNodeAttachments() != null) {
             for (NodeAttachment attachment : node.getNodeAttachments()) {
@@ -67,7 +68,7 @@ public class ProteinRenderer300 extends ProteinAbstractRenderer {
                 return new HoveredItem(node.getId(), interactorsSummary);
             }
         }
-        return super.getHovered(item, pos);
+        return super.getHovered(item, pos, near);
     }
 
     @Override
@@ -1,7 +1,9 @@
 package org.reactome.web.diagram.thumbnail.diagram.render;
 
+import org.reactome.web.diagram.data.content.DiagramGeometry;
 import org.reactome.web.diagram.data.layout.*;
 import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
+import org.reactome.web.diagram.renderers.layout.RendererManager;
 import org.reactome.web.diagram.util.AdvancedContext2d;
 
 import java.util.List;
@@ -19,8 +21,38 @@ public abstract class AbstractThumbnailRenderer implements ThumbnailRenderer {
 
     public void drawNode(AdvancedContext2d ctx, Node node, Double factor, Coordinate offset) {
         drawBox(ctx, node, factor, offset);
-        for (Connector connector : node.getConnectors()) {
-            drawSegments(ctx, connector.getSegments(), factor, offset);
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(node) : -1;
+        if (row == -1) {
+            for (Connector connector : node.getConnectors()) {
+                drawSegments(ctx, connector.getSegments(), factor, offset);
+            }
+        } else {
+            int from = geometry.getConnectorsFrom(row), to = geometry.getConnectorsTo(row);
+            if (from < to) {
+                //Connectors segments are contiguous in the geometry
+                drawSegments(ctx, geometry, geometry.getConnectorSegmentsFrom(from), geometry.getConnectorSegmentsTo(to - 1), factor, offset);
+            }
+        }
+    }
+
+    void drawSegments(AdvancedContext2d ctx, EdgeCommon edge, Double factor, Coordinate offset) {
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(edge) : -1;
+        if (row == -1) {
+            drawSegments(ctx, edge.getSegments(), factor, offset);
+        } else {
+            drawSegments(ctx, geometry, geometry.getSegmentsFrom(row), geometry.getSegmentsTo(row), factor, offset);
+        }
+    }
+
+    private void drawSegments(AdvancedContext2d ctx, DiagramGeometry geometry, int from, int to, Double factor, Coordinate offset) {
+        double f = factor, ox = offset.getX(), oy = offset.getY();
+        for (int i = from; i < to; i++) {
+            ctx.beginPath();
+            ctx.moveTo((geometry.getX1(i) + ox) * f, (geometry.getY1(i) + oy) * f);
+            ctx.lineTo((geometry.getX2(i) + ox) * f, (geometry.getY2(i) + oy) * f);
+            ctx.stroke();
         }
     }
 
@@ -51,18 +83,28 @@ public abstract class AbstractThumbnailRenderer implements ThumbnailRenderer {
     }
 
     void drawBox(AdvancedContext2d ctx, Node node, Double factor, Coordinate offset){
-        NodeProperties prop = node.getProp();
-        Coordinate corner = CoordinateFactory.get(prop.getX(), prop.getY()).add(offset).multiply(factor);
-        double w = prop.getWidth() * factor;
-        double h = prop.getHeight() * factor;
-
+        DiagramGeometry geometry = RendererManager.get().getGeometry();
+        int row = geometry != null ? geometry.getRow(node) : -1;
         ctx.beginPath();
-        ctx.rect(
-                corner.getX(),
-                corner.getY(),
-                w,
-                h
-        );
+        if (row == -1) {
+            NodeProperties prop = node.getProp();
+            Coordinate corner = CoordinateFactory.get(prop.getX(), prop.getY()).add(offset).multiply(factor);
+            double w = prop.getWidth() * factor;
+            double h = prop.getHeight() * factor;
+            ctx.rect(
+                    corner.getX(),
+                    corner.getY(),
+                    w,
+                    h
+            );
+        } else {
+            ctx.rect(
+                    (geometry.getX(row) + offset.getX()) * factor,
+                    (geometry.getY(row) + offset.getY()) * factor,
+                    geometry.getWidth(row) * factor,
+                    geometry.getHeight(row) * factor
+            );
+        }
         ctx.fill();
         ctx.stroke();
     }
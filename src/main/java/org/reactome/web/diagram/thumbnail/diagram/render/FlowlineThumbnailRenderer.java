@@ -12,7 +12,7 @@ public class FlowlineThumbnailRenderer extends AbstractThumbnailRenderer {
     @Override
     public void draw(AdvancedContext2d ctx, DiagramObject item, Double factor, Coordinate offset) {
         Link link = (Link) item;
-        drawSegments(ctx, link.getSegments(), factor, offset);
+        drawSegments(ctx, link, factor, offset);
         drawShape(ctx, link.getEndShape(), factor, offset);
     }
 }
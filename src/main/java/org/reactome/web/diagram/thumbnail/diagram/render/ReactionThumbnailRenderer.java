@@ -15,7 +15,7 @@ public class ReactionThumbnailRenderer extends AbstractThumbnailRenderer {
     @Override
     public void draw(AdvancedContext2d ctx, DiagramObject item, Double factor, Coordinate offset) {
         Edge edge = (Edge) item;
-        drawSegments(ctx, edge.getSegments(), factor, offset);
+        drawSegments(ctx, edge, factor, offset);
     }
 
     @Override
@@ -45,6 +45,10 @@ public class SVGThumbnail extends AbstractSVGPanel implements Thumbnail, Context
     private OMElement selected;
     private OMElement hovered;
 
+    private EHLDContent content;
+    //The viewBox of the shown svg (it is removed while shown and restored afterwards)
+    private String viewBox;
+
     public SVGThumbnail(EventBus eventBus) {
         super(eventBus);
         this.getElement().addClassName("pwp-SVGThumbnail");
@@ -73,45 +77,21 @@ public class SVGThumbnail extends AbstractSVGPanel implements Thumbnail, Context
     @Override
     public void diagramRendered(Content content, Box visibleArea) {
         EHLDContent ehldContent = (EHLDContent) content;
-        svg = (OMSVGSVGElement) ehldContent.getSVG().cloneNode(true);
-
-        // Remove all text elements from thumbnail
-        List<OMElement> textElements = getAllTextElementsFrom(svg);
-        for (OMElement textElement : textElements) {
-            textElement.getElement().removeFromParent();
-        }
-
-        entities = new HashMap<>();
-        for (OMElement child : SVGUtil.getAnnotatedOMElements(svg)) {
-            addOrUpdateSVGEntity(child);
-        }
-
-        // Some browsers fail to redraw after the filter attribute has changed.
-        // To avoid this known bug, we move all active regions and their siblings to the root.
-        // This forces the application of the transformation matrix on these layers and thus their redraw.
-        if (!entities.isEmpty()) {
-            Map.Entry<String, SVGEntity> entry = entities.entrySet().iterator().next();
-            OMElement region = entry.getValue().getHoverableElement();
-
-            OMNode parent = region.getParentNode();
-            OMNodeList<OMNode> list = parent.getChildNodes();
-
-            //aux contains a static list of elements to be moved
-            final OMNode[] aux = new OMNode[list.getLength()];
-            for (int i = 0; i < list.getLength(); i++) {
-                aux[i] = list.getItem(i);
-            }
-
-            //swap node from its current location to the svg root
-            for (OMNode node : aux) {
-                parent.removeChild(node);
-                svg.appendChild(node);
+        if (svg != null && ehldContent == this.content) return; //Already shown (the frame is updated on demand)
+        if (svg != null) clearThumbnail();
+        this.content = ehldContent;
+
+        svg = ehldContent.getThumbnailSVG();
+        if (svg == null) {
+            svg = getStrippedSVG(ehldContent);
+            ehldContent.setThumbnailSVG(svg);
+        } else {
+            entities = new HashMap<>();
+            for (OMElement child : SVGUtil.getAnnotatedOMElements(svg)) {
+                addOrUpdateSVGEntity(child);
             }
         }
 
-        // Remove the reactome logo from the thumbnail
-        removeLogoFrom(svg);
-
         from = svg.createSVGPoint();
         to = svg.createSVGPoint();
 
@@ -124,6 +104,7 @@ public class SVGThumbnail extends AbstractSVGPanel implements Thumbnail, Context
         OMSVGRect viewportBB = svg.createSVGRect();
         svg.getViewBox().getBaseVal().assignTo(viewportBB);
 
+        viewBox = svg.getAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE);
         svg.removeAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE);
         svg.removeAttribute(SVGConstants.SVG_ENABLE_BACKGROUND_ATTRIBUTE);
 
@@ -159,7 +140,56 @@ public class SVGThumbnail extends AbstractSVGPanel implements Thumbnail, Context
         applyCTM();
 
         // The following is to avoid the bug (Windows 10) where the SVG appears cropped
-        Scheduler.get().scheduleDeferred(() -> svg.removeAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE));
+        final OMSVGSVGElement shown = svg;
+        Scheduler.get().scheduleDeferred(() -> {
+            if (shown == svg) svg.removeAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE);
+        });
+    }
+
+    /**
+     * Deep-cloning the svg is expensive for the large illustrations, so the stripped copy is only built once
+     * per content and kept with it (see EHLDContent.getThumbnailSVG)
+     */
+    private OMSVGSVGElement getStrippedSVG(EHLDContent content) {
+        svg = (OMSVGSVGElement) content.getSVG().cloneNode(true);
+
+        // Remove all text elements from thumbnail
+        List<OMElement> textElements = getAllTextElementsFrom(svg);
+        for (OMElement textElement : textElements) {
+            textElement.getElement().removeFromParent();
+        }
+
+        entities = new HashMap<>();
+        for (OMElement child : SVGUtil.getAnnotatedOMElements(svg)) {
+            addOrUpdateSVGEntity(child);
+        }
+
+        // Some browsers fail to redraw after the filter attribute has changed.
+        // To avoid this known bug, we move all active regions and their siblings to the root.
+        // This forces the application of the transformation matrix on these layers and thus their redraw.
+        if (!entities.isEmpty()) {
+            Map.Entry<String, SVGEntity> entry = entities.entrySet().iterator().next();
+            OMElement region = entry.getValue().getHoverableElement();
+
+            OMNode parent = region.getParentNode();
+            OMNodeList<OMNode> list = parent.getChildNodes();
+
+            //aux contains a static list of elements to be moved
+            final OMNode[] aux = new OMNode[list.getLength()];
+            for (int i = 0; i < list.getLength(); i++) {
+                aux[i] = list.getItem(i);
+            }
+
+            //swap node from its current location to the svg root
+            for (OMNode node : aux) {
+                parent.removeChild(node);
+                svg.appendChild(node);
+            }
+        }
+
+        // Remove the reactome logo from the thumbnail
+        removeLogoFrom(svg);
+        return svg;
     }
 
     @Override
@@ -276,8 +306,17 @@ public class SVGThumbnail extends AbstractSVGPanel implements Thumbnail, Context
 
     private void clearThumbnail() {
         if(svg != null) {
+            // The svg is kept with its content, so it is left as it was built
+            setHovered(null);
+            setSelected(null);
+            hovered = null;
+            if (viewBox != null && !viewBox.isEmpty()) {
+                svg.setAttribute(SVGConstants.SVG_VIEW_BOX_ATTRIBUTE, viewBox);
+            }
             getElement().getFirstChild().removeFromParent();
             svg = null;
+            content = null;
+            viewBox = null;
             cleanFrame();
         }
         this.setVisible(false);
@@ -45,7 +45,8 @@ public class AdvancedContext2d extends Context2d {
     }
 
     /**
-     * Draws a dashed rectangle with rounded edges.
+     * Draws a dashed rectangle with rounded edges. When the line-dash API is available the path is the rounded
+     * rectangle and the dashes are applied when it is stroked (see strokeDashed)
      */
     public final void dashedRoundedRectangle(double x,
                                              double y,
@@ -53,9 +54,13 @@ public class AdvancedContext2d extends Context2d {
                                              double height,
                                              double arcWidth,
                                              double[] dashedLinePattern) {
-        // Draw the four dashed lines
         double dashLength = dashedLinePattern[0];
         double gapLength = dashedLinePattern[1];
+        if (isLineDashSupported()) {
+            roundedRectangle(x, y, width, height, arcWidth);
+            return;
+        }
+        // Draw the four dashed lines
         beginPath();
         DashedLineAbstractRenderer.drawDashedLine(this, x + arcWidth + gapLength, y, x + width - arcWidth, y, dashLength, gapLength);
         DashedLineAbstractRenderer.drawDashedLine(this, x + width, y + arcWidth, x + width, y + height - arcWidth, dashLength, gapLength);
@@ -144,7 +149,8 @@ public class AdvancedContext2d extends Context2d {
     }
 
     /**
-     * Draws a dashed octagon - used to depict complexes.
+     * Draws a dashed octagon - used to depict complexes. When the line-dash API is available the path is the
+     * octagon and the dashes are applied when it is stroked (see strokeDashed)
      */
     public final void dashedOctagon(double x,
                                     double y,
@@ -155,6 +161,10 @@ public class AdvancedContext2d extends Context2d {
 
         double dashLength = dashedLinePattern[0];
         double gapLength = dashedLinePattern[1];
+        if (isLineDashSupported()) {
+            octagon(x, y, width, height, arcWidth);
+            return;
+        }
         beginPath();
         DashedLineAbstractRenderer.drawDashedLine(this, x + arcWidth, y, x + width - arcWidth, y, dashLength, gapLength);
         DashedLineAbstractRenderer.drawDashedLine(this, x + width, y + arcWidth, x + width, y + height - arcWidth, dashLength, gapLength);
@@ -174,6 +184,62 @@ public class AdvancedContext2d extends Context2d {
         lineTo(x, y + height - arcWidth);
     }
 
+    /**
+     * Adds a dashed line to the current path (it does not start a new one). When the line-dash API is available
+     * the line is added as it is and the dashes are applied when the path is stroked (see strokeDashed)
+     */
+    public final void dashedLine(double fromX, double fromY, double toX, double toY, double[] dashedLinePattern) {
+        if (isLineDashSupported()) {
+            moveTo(fromX, fromY);
+            lineTo(toX, toY);
+        } else {
+            DashedLineAbstractRenderer.drawDashedLine(this, fromX, fromY, toX, toY, dashedLinePattern[0], dashedLinePattern[1]);
+        }
+    }
+
+    /**
+     * @return true if the commands are recorded to be replayed in the rendering worker, so objects that cannot be
+     * sent to it (such as the Path2D objects) must not be used (see OffscreenLayers)
+     */
+    public final native boolean isRecording() /*-{
+        return !!this.__recording;
+    }-*/;
+
+    //////////////////////////////////////
+    //  Methods for the line-dash API   //
+    //////////////////////////////////////
+
+    /**
+     * Without the line-dash API the dashes are emulated with a moveTo/lineTo per dash (see DashedLineAbstractRenderer)
+     */
+    public final native boolean isLineDashSupported() /*-{
+        return typeof this.setLineDash === 'function';
+    }-*/;
+
+    /**
+     * Strokes the current path with the given dash pattern. The pattern is set just for this stroke and the line is
+     * solid again straight after, so neither the following strokes nor the other renderers using this context (or
+     * a save/restore around the call) are affected. The paths of dashedRoundedRectangle, dashedOctagon and
+     * dashedLine have to be stroked with this method, since with the line-dash API they do not contain the dashes
+     */
+    public final void strokeDashed(double[] dashedLinePattern) {
+        if (isLineDashSupported()) {
+            setDashPattern(dashedLinePattern[0], dashedLinePattern[1]);
+            stroke();
+            setSolidLine();
+        } else {
+            stroke();
+        }
+    }
+
+    private native void setDashPattern(double dash, double gap) /*-{
+        this.setLineDash([dash, gap]);
+    }-*/;
+
+    private native void setSolidLine() /*-{
+        this.setLineDash([]);
+    }-*/;
+
     ////////////////////////////////////
     //  Methods for various shapes    //
     ////////////////////////////////////
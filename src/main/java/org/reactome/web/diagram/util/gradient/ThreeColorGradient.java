@@ -5,13 +5,25 @@ import org.reactome.web.diagram.profiles.analysis.model.ProfileGradient;
 
 
 /**
+ * The colours of the gradient are precomputed for LUT_SIZE evenly distributed points when it is created (that is
+ * every time the analysis profile changes), so getColor returns a cached CSS string instead of interpolating and
+ * formatting a new colour in every call. Since the value is turned into a percentage first, the table does not
+ * depend on the expression min and max.
+ *
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
 public class ThreeColorGradient {
 
+    private static final int LUT_SIZE = 1024;
+
     private TwoColorGradient first;
     private TwoColorGradient second;
 
+    private String[] lut;
+    //The rgba version is only built on demand for the alpha used the last time
+    private String[] rgbaLut;
+    private double rgbaAlpha = Double.NaN;
+
     public ThreeColorGradient(ProfileGradient gradient){
         this(gradient.getMin(), gradient.getStop(), gradient.getMax());
     }
@@ -34,27 +46,69 @@ public class ThreeColorGradient {
                 GWT.log(e.getMessage());
             }
         }
+
+        if(this.first != null) {
+            this.lut = new String[LUT_SIZE];
+            for (int i = 0; i < LUT_SIZE; i++) {
+                this.lut[i] = interpolate(i / (double) (LUT_SIZE - 1));
+            }
+        }
     }
 
     public String getColor(double p){
-        if(this.second==null){ //Only applies two color gradient
-            return this.first.getColor(p);
-        }
-        if(p <= 0.5){
-            return this.first.getColor(p/0.5);
-        } else {
-            double aux = p - 0.5;
-            return this.second.getColor(aux/0.5);
+        if(lut != null && p >= 0 && p <= 1) {
+            return lut[getIndex(p)];
         }
+        return interpolate(p); //Out of range values (or NaN) are calculated as they used to be
     }
 
     public String getColor(double point, double min, double max){
         return getColor(getPercentage(point, min, max));
     }
 
+    /**
+     * @return the colour for p in rgba format with the given alpha
+     */
+    public String getColor(double p, double alpha){
+        if(lut == null || !(p >= 0 && p <= 1)) {
+            return toRgba(interpolate(p), alpha);
+        }
+        if(rgbaLut == null || alpha != rgbaAlpha) {
+            rgbaLut = new String[LUT_SIZE];
+            rgbaAlpha = alpha;
+        }
+        int i = getIndex(p);
+        if(rgbaLut[i] == null) rgbaLut[i] = toRgba(lut[i], alpha);
+        return rgbaLut[i];
+    }
+
     public static double getPercentage(double point, double min, double max){
         double length = Math.abs(max - min);
         double delta = Math.abs(point - max);
         return delta / length;
     }
+
+    private static int getIndex(double p){
+        return (int) Math.round(p * (LUT_SIZE - 1));
+    }
+
+    private String interpolate(double p){
+        if(this.second==null){ //Only applies two color gradient
+            return this.first.getColor(p);
+        }
+        if(p <= 0.5){
+            return this.first.getColor(p/0.5);
+        } else {
+            double aux = p - 0.5;
+            return this.second.getColor(aux/0.5);
+        }
+    }
+
+    private static String toRgba(String hex, double alpha){
+        int r = Integer.valueOf(hex.substring(1, 3), 16);
+        int g = Integer.valueOf(hex.substring(3, 5), 16);
+        int b = Integer.valueOf(hex.substring(5, 7), 16);
+        double a = alpha >= 0 && alpha <= 1 ? alpha : 1.0;
+        return "rgba(" + r + "," + g + "," + b + "," + a + ")";
+    }
 }
@@ -1,10 +1,14 @@
 package org.reactome.web.diagram.util.interactors;
 
+import org.reactome.web.diagram.data.InteractorsContent;
+import org.reactome.web.diagram.data.content.Content;
 import org.reactome.web.diagram.data.interactors.common.DiagramBox;
+import org.reactome.web.diagram.data.interactors.model.DiagramInteractor;
 import org.reactome.web.diagram.data.interactors.model.InteractorEntity;
 import org.reactome.web.diagram.data.layout.*;
 import org.reactome.web.diagram.data.layout.impl.CoordinateFactory;
 import org.reactome.web.diagram.data.layout.impl.SegmentFactory;
+import uk.ac.ebi.pwp.structures.quadtree.client.Box;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -12,6 +16,12 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * Interactors are placed in a circle around the burst node. When the content and the interactors being displayed
+ * are provided, every position is checked against the nodes of the diagram and the interactors already placed
+ * (using their QuadTrees) and, in case of overlapping, further rings and small shifts within the interactor slot
+ * are tried before falling back to the original position. Interactors already laid out for another visible node
+ * are not moved, so bursting more nodes keeps the existing positions.
+ *
  * @author Antonio Fabregat <fabregat@ebi.ac.uk>
  */
 public class InteractorsLayout {
@@ -23,18 +33,96 @@ public class InteractorsLayout {
     private static final int BOX_HEIGHT = 20;
     private static final int RADIUS = 175;
 
+    //Alternative positions tried when the original one overlaps other objects
+    private static final int RINGS = 4;
+    private static final int RING_STEP = 2 * BOX_HEIGHT + 10;
+    private static final double[] SHIFTS = {0, 0.2, -0.2, 0.4, -0.4}; //fractions of the slot angle
+    private static final int MARGIN = 5;
+
     private Node node;
+    private Content content;
+    private InteractorsContent interactors;
+    private String resource;
 
     public InteractorsLayout(Node node) {
         this.node = node;
     }
 
+    public InteractorsLayout(Node node, Content content, InteractorsContent interactors, String resource) {
+        this(node);
+        this.content = content;
+        this.interactors = interactors;
+        this.resource = resource;
+    }
+
     public Node getNode() {
         return node;
     }
 
     public boolean doLayout(InteractorEntity entity, int i, int n) {
-        return doLayout(node, entity, i, n, !entity.isVisible());
+        if (content == null || interactors == null) return doLayout(node, entity, i, n, !entity.isVisible());
+        if (entity == null || n == 0 || i < 0 || i > n) return false;
+
+        if (!entity.isVisible() || !entity.isLaidOut()) {
+            double delta = L / (double) n;
+            double angle = delta * i + OFFSET;
+            Coordinate center = getCentre(node.getProp());
+            Coordinate position = getPosition(center, RADIUS, angle);
+            for (int k = 0; k < RINGS; k++) {
+                Coordinate free = getFreePosition(entity, center, RADIUS + k * RING_STEP, angle, delta);
+                if (free != null) {
+                    position = free;
+                    break;
+                }
+            }
+            setBoundaries(entity, position);
+            return true;
+        }
+        return false;
+    }
+
+    private Coordinate getFreePosition(InteractorEntity entity, Coordinate center, double radius, double angle, double delta) {
+        for (double shift : SHIFTS) {
+            Coordinate position = getPosition(center, radius, angle + shift * delta);
+            if (!isOverlapping(entity, position)) return position;
+        }
+        return null;
+    }
+
+    private boolean isOverlapping(InteractorEntity entity, Coordinate position) {
+        Box box = new Box(
+                position.getX() - BOX_WIDTH - MARGIN, position.getY() - BOX_HEIGHT - MARGIN,
+                position.getX() + BOX_WIDTH + MARGIN, position.getY() + BOX_HEIGHT + MARGIN
+        );
+        for (DiagramObject item : content.getVisibleItems(box)) {
+            if (item instanceof Node) { //Compartments, reactions and notes can be overlapped
+                NodeProperties prop = ((Node) item).getProp();
+                if (isOverlapping(box, prop.getX(), prop.getY(), prop.getX() + prop.getWidth(), prop.getY() + prop.getHeight())) {
+                    return true;
+                }
+            }
+        }
+        for (DiagramInteractor item : interactors.getVisibleInteractors(resource, box)) {
+            if (item instanceof InteractorEntity && item != entity) {
+                if (isOverlapping(box, item.getMinX(), item.getMinY(), item.getMaxX(), item.getMaxY())) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOverlapping(Box box, double minX, double minY, double maxX, double maxY) {
+        return box.getMinX() < maxX && minX < box.getMaxX() && box.getMinY() < maxY && minY < box.getMaxY();
+    }
+
+    private static Coordinate getPosition(Coordinate center, double radius, double angle) {
+        return CoordinateFactory.get(center.getX() - radius * Math.cos(angle), center.getY() - radius * Math.sin(angle));
+    }
+
+    private static void setBoundaries(InteractorEntity entity, Coordinate position) {
+        entity.setMinX(position.getX() - BOX_WIDTH);
+        entity.setMaxX(position.getX() + BOX_WIDTH);
+        entity.setMinY(position.getY() - BOX_HEIGHT);
+        entity.setMaxY(position.getY() + BOX_HEIGHT);
     }
 
     public static boolean doLayout(Node node, InteractorEntity entity, int i, int n, boolean force) {
@@ -0,0 +1,258 @@
+package org.reactome.web.diagram.util.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read only view of a json encoded in a Web Worker (see JsonWorker), so the UI thread neither receives the
+ * json as a string nor parses it again.
+ *
+ * The values are kept in document order in "tape" (an Int32Array) with a header of three integers each:
+ * [tag, a, b]. For numbers "a" is their position in "numbers" (a Float64Array, so coordinates, bounds and
+ * identifiers are read straight away) and for strings their position in the (deduplicated) string table.
+ * For arrays and objects "a" is their length and "b" the position where they end, so they can be skipped.
+ * Every member of an object is preceded by the position of its name in the key table.
+ *
+ * The values are converted as the native result of JSON.parse is in JsObject (e.g. numbers written as
+ * strings are read as numbers), so the decoders get the same objects from both.
+ */
+public class CompactJson implements JsonNode {
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int NUMBER = 3;
+    private static final int STRING = 4;
+    private static final int ARRAY = 5;
+    private static final int OBJECT = 6;
+
+    private static class Buffers {
+        JavaScriptObject tape;
+        JavaScriptObject numbers;
+        JavaScriptObject strings;
+        Map<String, Integer> keys = new HashMap<>();
+
+        Buffers(JavaScriptObject data) {
+            this.tape = getField(data, "tape");
+            this.numbers = getField(data, "numbers");
+            this.strings = getField(data, "strings");
+            JavaScriptObject keys = getField(data, "keys");
+            for (int i = 0, n = length(keys); i < n; i++) {
+                this.keys.put(stringAt(keys, i), i);
+            }
+        }
+    }
+
+    private final Buffers buffers;
+    private final int position;
+
+    //Last element visited in an array of this object, so walking the arrays in order is linear
+    private int cursorArray = -1;
+    private int cursorIndex;
+    private int cursorPosition;
+
+    private CompactJson(Buffers buffers, int position) {
+        this.buffers = buffers;
+        this.position = position;
+    }
+
+    /**
+     * @param data the result of the worker ({tape, numbers, strings, keys})
+     * @return the root object or null if the json is not an object
+     */
+    public static CompactJson get(JavaScriptObject data) {
+        Buffers buffers = new Buffers(data);
+        if (length(buffers.tape) == 0 || intAt(buffers.tape, 0) != OBJECT) return null;
+        return new CompactJson(buffers, 0);
+    }
+
+    @Override
+    public boolean has(String key) {
+        return value(key) != -1;
+    }
+
+    @Override
+    public Double getDouble(String key) {
+        int p = value(key);
+        return p == -1 ? null : asNumber(p);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        int p = value(key);
+        return p == -1 ? defaultValue : asNumber(p);
+    }
+
+    @Override
+    public Integer getInteger(String key) {
+        int p = value(key);
+        return p == -1 ? null : (int) asNumber(p);
+    }
+
+    @Override
+    public Long getLong(String key) {
+        int p = value(key);
+        return p == -1 ? null : (long) asNumber(p);
+    }
+
+    @Override
+    public Boolean getBoolean(String key) {
+        int p = value(key);
+        return p == -1 ? null : asBoolean(p);
+    }
+
+    @Override
+    public String getString(String key) {
+        int p = value(key);
+        return p == -1 ? null : asString(p);
+    }
+
+    @Override
+    public CompactJson getObject(String key) {
+        int p = value(key);
+        return p != -1 && tag(p) == OBJECT ? new CompactJson(buffers, p) : null;
+    }
+
+    @Override
+    public int size(String key) {
+        int p = value(key);
+        return p != -1 && tag(p) == ARRAY ? intAt(buffers.tape, p + 1) : -1;
+    }
+
+    @Override
+    public CompactJson getObject(String key, int i) {
+        int p = value(key);
+        if (p == -1 || tag(p) != ARRAY || i < 0 || i >= intAt(buffers.tape, p + 1)) return null;
+        if (cursorArray != p || cursorIndex > i) {
+            cursorArray = p;
+            cursorIndex = 0;
+            cursorPosition = p + 3;
+        }
+        for (; cursorIndex < i; cursorIndex++) {
+            cursorPosition = end(cursorPosition);
+        }
+        return tag(cursorPosition) == OBJECT ? new CompactJson(buffers, cursorPosition) : null;
+    }
+
+    @Override
+    public List<Long> getLongs(String key) {
+        int p = value(key);
+        if (p == -1 || tag(p) != ARRAY) return null;
+        int n = intAt(buffers.tape, p + 1);
+        List<Long> rtn = new ArrayList<>(n);
+        for (int i = 0, q = p + 3; i < n; i++, q = end(q)) {
+            rtn.add((long) asNumber(q));
+        }
+        return rtn;
+    }
+
+    @Override
+    public List<String> getStrings(String key) {
+        int p = value(key);
+        if (p == -1 || tag(p) != ARRAY) return null;
+        int n = intAt(buffers.tape, p + 1);
+        List<String> rtn = new ArrayList<>(n);
+        for (int i = 0, q = p + 3; i < n; i++, q = end(q)) {
+            rtn.add(asString(q));
+        }
+        return rtn;
+    }
+
+    //Position of the (non null) value of the given member or -1 if there is not such value
+    private int value(String key) {
+        Integer id = buffers.keys.get(key);
+        if (id == null) return -1;
+        int n = intAt(buffers.tape, position + 1);
+        for (int i = 0, p = position + 3; i < n; i++) {
+            if (intAt(buffers.tape, p) == id) return tag(p + 1) == NULL ? -1 : p + 1;
+            p = end(p + 1);
+        }
+        return -1;
+    }
+
+    private int tag(int p) {
+        return intAt(buffers.tape, p);
+    }
+
+    private int end(int p) {
+        int tag = tag(p);
+        return tag == ARRAY || tag == OBJECT ? intAt(buffers.tape, p + 2) : p + 3;
+    }
+
+    private double asNumber(int p) {
+        switch (tag(p)) {
+            case NUMBER:
+                return numberAt(buffers.numbers, intAt(buffers.tape, p + 1));
+            case STRING:
+                return parseNumber(stringAt(buffers.strings, intAt(buffers.tape, p + 1)));
+            case TRUE:
+                return 1;
+            case FALSE:
+                return 0;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    private boolean asBoolean(int p) {
+        switch (tag(p)) {
+            case NUMBER:
+                double value = numberAt(buffers.numbers, intAt(buffers.tape, p + 1));
+                return value != 0 && !Double.isNaN(value);
+            case STRING:
+                return !stringAt(buffers.strings, intAt(buffers.tape, p + 1)).isEmpty();
+            case NULL:
+            case FALSE:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private String asString(int p) {
+        switch (tag(p)) {
+            case NUMBER:
+                return numberToString(numberAt(buffers.numbers, intAt(buffers.tape, p + 1)));
+            case STRING:
+                return stringAt(buffers.strings, intAt(buffers.tape, p + 1));
+            case TRUE:
+                return "true";
+            case FALSE:
+                return "false";
+            default:
+                return null; //Neither arrays nor objects are expected where a string is
+        }
+    }
+
+    private static native JavaScriptObject getField(JavaScriptObject data, String field) /*-{
+        return data[field];
+    }-*/;
+
+    private static native int length(JavaScriptObject array) /*-{
+        return array.length;
+    }-*/;
+
+    private static native int intAt(JavaScriptObject array, int i) /*-{
+        return array[i];
+    }-*/;
+
+    private static native double numberAt(JavaScriptObject array, int i) /*-{
+        return array[i];
+    }-*/;
+
+    private static native String stringAt(JavaScriptObject array, int i) /*-{
+        return array[i];
+    }-*/;
+
+    private static native double parseNumber(String value) /*-{
+        return +value;
+    }-*/;
+
+    private static native String numberToString(double value) /*-{
+        return String(value);
+    }-*/;
+}
@@ -0,0 +1,107 @@
+package org.reactome.web.diagram.util.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Overlay on top of the native result of JSON.parse so the decoders can read the values straight away
+ * without going through the AutoBean splittables. Missing (or null) values are returned as null like
+ * AutoBean does, so the behaviour of the decoded objects is kept.
+ */
+public class JsObject extends JavaScriptObject implements JsonNode {
+
+    protected JsObject() {
+    }
+
+    public static JsObject parse(String json) {
+        return JsonUtils.safeParse(json);
+    }
+
+    public final native boolean has(String key) /*-{
+        return this[key] != null;
+    }-*/;
+
+    public final Double getDouble(String key) {
+        return has(key) ? getNumber(key) : null;
+    }
+
+    public final double getDouble(String key, double defaultValue) {
+        return has(key) ? getNumber(key) : defaultValue;
+    }
+
+    public final Integer getInteger(String key) {
+        return has(key) ? (int) getNumber(key) : null;
+    }
+
+    public final Long getLong(String key) {
+        return has(key) ? (long) getNumber(key) : null;
+    }
+
+    public final Boolean getBoolean(String key) {
+        return has(key) ? getBool(key) : null;
+    }
+
+    public final native String getString(String key) /*-{
+        var value = this[key];
+        return value == null ? null : String(value);
+    }-*/;
+
+    public final native JsObject getObject(String key) /*-{
+        return this[key] == null ? null : this[key];
+    }-*/;
+
+    public final native int size(String key) /*-{
+        var value = this[key];
+        return Array.isArray(value) ? value.length : -1;
+    }-*/;
+
+    public final native JsObject getObject(String key, int i) /*-{
+        var value = this[key][i];
+        return value == null ? null : value;
+    }-*/;
+
+    public final List<Long> getLongs(String key) {
+        if (!has(key)) return null;
+        int n = length(key);
+        List<Long> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add((long) getNumber(key, i));
+        }
+        return rtn;
+    }
+
+    public final List<String> getStrings(String key) {
+        if (!has(key)) return null;
+        int n = length(key);
+        List<String> rtn = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rtn.add(getString(key, i));
+        }
+        return rtn;
+    }
+
+    //Long values can come either as numbers or strings
+    private native double getNumber(String key) /*-{
+        return +this[key];
+    }-*/;
+
+    private native boolean getBool(String key) /*-{
+        return !!this[key];
+    }-*/;
+
+    private native int length(String key) /*-{
+        return this[key].length;
+    }-*/;
+
+    private native double getNumber(String key, int i) /*-{
+        return +this[key][i];
+    }-*/;
+
+    private native String getString(String key, int i) /*-{
+        var value = this[key][i];
+        return value == null ? null : String(value);
+    }-*/;
+}
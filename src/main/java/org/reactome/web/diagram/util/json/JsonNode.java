@@ -0,0 +1,41 @@
+package org.reactome.web.diagram.util.json;
+
+import java.util.List;
+
+/**
+ * Read access to a json object for the decoders, so they work the same on the native result of JSON.parse
+ * (JsObject) and on the compact result built by the JsonWorker (CompactJson). Missing (or null) values are
+ * returned as null like AutoBean does.
+ */
+public interface JsonNode {
+
+    boolean has(String key);
+
+    Double getDouble(String key);
+
+    double getDouble(String key, double defaultValue);
+
+    Integer getInteger(String key);
+
+    Long getLong(String key);
+
+    Boolean getBoolean(String key);
+
+    String getString(String key);
+
+    JsonNode getObject(String key);
+
+    /**
+     * @return the length of the array or -1 when there is no array for the given key
+     */
+    int size(String key);
+
+    /**
+     * @return the i-th element of the array (or null if it is not an object)
+     */
+    JsonNode getObject(String key, int i);
+
+    List<Long> getLongs(String key);
+
+    List<String> getStrings(String key);
+}
@@ -2,13 +2,15 @@ package org.reactome.web.diagram.util.storage;
 
 import com.google.gwt.storage.client.Storage;
 import org.reactome.web.diagram.util.Console;
+import org.reactome.web.diagram.util.storage.solutions.AsyncStorageSolution;
 import org.reactome.web.diagram.util.storage.solutions.CookieStorage;
 import org.reactome.web.diagram.util.storage.solutions.HTML5Storage;
+import org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage;
 import org.reactome.web.diagram.util.storage.solutions.StorageSolution;
 
 /**
  * This class checks whether there is HTML5 Storage support by the browser
- * and returns the appropriate StorageSolution.
+ * and returns the appropriate StorageSolution (or AsyncStorageSolution for big payloads).
  *
  * @author Kostas Sidiropoulos <ksidiro@ebi.ac.uk>
  */
@@ -23,4 +25,15 @@ public abstract class StorageSolutionFactory {
         }
         return storageSolution;
     }
+
+    /**
+     * @return the asynchronous storage for big payloads or null if the browser does not support IndexedDB
+     */
+    public static AsyncStorageSolution getAsyncStorage(){
+        if(IndexedDBStorage.isSupported()) {
+            return new IndexedDBStorage();
+        }
+        Console.info("IndexedDB is not supported by the browser. Diagrams will not be stored.");
+        return null;
+    }
 }
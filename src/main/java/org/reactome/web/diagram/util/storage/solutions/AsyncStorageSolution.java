@@ -0,0 +1,34 @@
+package org.reactome.web.diagram.util.storage.solutions;
+
+/**
+ * Storage solutions where the read operations are asynchronous (meant for big payloads). The size and last
+ * access of every entry are kept by the storage itself, so the bounds hold for every page sharing it.
+ */
+public interface AsyncStorageSolution {
+
+    interface Handler {
+        //value is null when there is nothing stored for the key (or it could not be read)
+        void onRead(String key, String value);
+    }
+
+    interface SizeHandler {
+        //size (in characters) of the entries kept in the storage
+        void onSize(long size);
+    }
+
+    void read(String key, Handler handler);
+
+    void write(String key, String value);
+
+    void delete(String key);
+
+    /**
+     * Removes the least recently used entries until the stored ones take at most capacity characters
+     */
+    void evict(long capacity, SizeHandler handler);
+
+    /**
+     * Removes every entry whose key does not start with the given prefix
+     */
+    void retain(String prefix);
+}
@@ -0,0 +1,227 @@
+package org.reactome.web.diagram.util.storage.solutions;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import org.reactome.web.diagram.util.Console;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * IndexedDB based storage supporting asynchronous read/write operations. The operations requested
+ * before the database is open are queued and executed once it is available.
+ *
+ * The size and last access of every payload are kept in a second object store of the same database and
+ * both stores are always updated in the same transaction, so every page using the database sees the same
+ * entries and none of them is left out of the eviction.
+ */
+public class IndexedDBStorage implements AsyncStorageSolution {
+
+    private static final String DB_NAME = "reactome-diagram";
+    private static final int DB_VERSION = 2;
+    private static final String STORE = "payloads";
+    private static final String INDEX = "index"; //key -> {size, used}
+
+    private JavaScriptObject db = null;
+    private boolean failed = false;
+    private List<Runnable> pending = new LinkedList<>();
+
+    public IndexedDBStorage() {
+        open(DB_NAME, DB_VERSION, STORE, INDEX);
+    }
+
+    public static native boolean isSupported() /*-{
+        try {
+            return !!$wnd.indexedDB;
+        } catch (e) {
+            return false;
+        }
+    }-*/;
+
+    @Override
+    public void read(String key, Handler handler) {
+        if (failed) {
+            handler.onRead(key, null);
+        } else if (db == null) {
+            pending.add(() -> read(key, handler));
+        } else {
+            get(db, STORE, INDEX, key, handler);
+        }
+    }
+
+    @Override
+    public void write(String key, String value) {
+        if (failed) return;
+        if (db == null) {
+            pending.add(() -> write(key, value));
+        } else {
+            put(db, STORE, INDEX, key, value);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        if (failed) return;
+        if (db == null) {
+            pending.add(() -> delete(key));
+        } else {
+            remove(db, STORE, INDEX, key);
+        }
+    }
+
+    @Override
+    public void evict(long capacity, SizeHandler handler) {
+        if (failed) return;
+        if (db == null) {
+            pending.add(() -> evict(capacity, handler));
+        } else {
+            evict(db, STORE, INDEX, capacity, handler);
+        }
+    }
+
+    @Override
+    public void retain(String prefix) {
+        if (failed) return;
+        if (db == null) {
+            pending.add(() -> retain(prefix));
+        } else {
+            retain(db, STORE, INDEX, prefix);
+        }
+    }
+
+    private void onOpen(JavaScriptObject db) {
+        this.db = db;
+        for (Runnable runnable : pending) runnable.run();
+        pending.clear();
+    }
+
+    private void onOpenError() {
+        Console.info("IndexedDB could not be opened. The diagrams will not be stored.");
+        this.failed = true;
+        for (Runnable runnable : pending) runnable.run(); //reads are answered with null
+        pending.clear();
+    }
+
+    private static void onRead(Handler handler, String key, String value) {
+        handler.onRead(key, value);
+    }
+
+    private static void onSize(SizeHandler handler, double size) {
+        handler.onSize((long) size);
+    }
+
+    private native void open(String name, int version, String store, String index) /*-{
+        var _this = this;
+        try {
+            var request = $wnd.indexedDB.open(name, version);
+            request.onupgradeneeded = function () {
+                //Payloads stored by previous versions have no index entry, so they could never be evicted
+                var db = request.result, names = [];
+                for (var i = 0; i < db.objectStoreNames.length; i++) names.push(db.objectStoreNames.item(i));
+                for (var j = 0; j < names.length; j++) db.deleteObjectStore(names[j]);
+                db.createObjectStore(store);
+                db.createObjectStore(index).createIndex('used', 'used');
+            };
+            request.onsuccess = $entry(function () {
+                _this.@org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage::onOpen(Lcom/google/gwt/core/client/JavaScriptObject;)(request.result);
+            });
+            request.onerror = $entry(function () {
+                _this.@org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage::onOpenError()();
+            });
+        } catch (e) {
+            _this.@org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage::onOpenError()();
+        }
+    }-*/;
+
+    private static native void get(JavaScriptObject db, String store, String index, String key, Handler handler) /*-{
+        var done = $entry(function (value) {
+            @org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage::onRead(Lorg/reactome/web/diagram/util/storage/solutions/AsyncStorageSolution$Handler;Ljava/lang/String;Ljava/lang/String;)(handler, key, value);
+        });
+        try {
+            var tx = db.transaction([store, index], 'readwrite');
+            var request = tx.objectStore(store).get(key);
+            request.onsuccess = function () {
+                var value = typeof request.result === 'string' ? request.result : null;
+                if (value !== null) {
+                    var entries = tx.objectStore(index);
+                    entries.put({size: value.length, used: Date.now()}, key); //updates the access order
+                }
+                done(value);
+            };
+            request.onerror = function () {
+                done(null);
+            };
+        } catch (e) {
+            done(null);
+        }
+    }-*/;
+
+    private static native void put(JavaScriptObject db, String store, String index, String key, String value) /*-{
+        try {
+            var tx = db.transaction([store, index], 'readwrite');
+            tx.objectStore(store).put(value, key);
+            tx.objectStore(index).put({size: value.length, used: Date.now()}, key);
+        } catch (e) {
+            //Quota exceeded or the database has been closed, nothing to do here
+        }
+    }-*/;
+
+    private static native void remove(JavaScriptObject db, String store, String index, String key) /*-{
+        try {
+            var tx = db.transaction([store, index], 'readwrite');
+            tx.objectStore(store)['delete'](key);
+            tx.objectStore(index)['delete'](key);
+        } catch (e) {
+            //Nothing to do here
+        }
+    }-*/;
+
+    private static native void evict(JavaScriptObject db, String store, String index, double capacity, SizeHandler handler) /*-{
+        var done = $entry(function (size) {
+            @org.reactome.web.diagram.util.storage.solutions.IndexedDBStorage::onSize(Lorg/reactome/web/diagram/util/storage/solutions/AsyncStorageSolution$SizeHandler;D)(handler, size);
+        });
+        try {
+            var tx = db.transaction([store, index], 'readwrite');
+            var payloads = tx.objectStore(store), entries = tx.objectStore(index);
+            var stored = 0;
+            var sum = entries.openCursor();
+            sum.onsuccess = function () {
+                var cursor = sum.result;
+                if (cursor) {
+                    stored += cursor.value.size;
+                    cursor['continue']();
+                } else if (stored > capacity) {
+                    //The least recently used entries are removed first
+                    var lru = entries.index('used').openCursor();
+                    lru.onsuccess = function () {
+                        var c = lru.result;
+                        if (!c || stored <= capacity) return;
+                        stored -= c.value.size;
+                        payloads['delete'](c.primaryKey);
+                        c['delete']();
+                        c['continue']();
+                    };
+                }
+            };
+            tx.oncomplete = function () {
+                done(stored);
+            };
+        } catch (e) {
+            //Nothing to do here
+        }
+    }-*/;
+
+    private static native void retain(JavaScriptObject db, String store, String index, String prefix) /*-{
+        try {
+            //Keys starting with prefix sort between prefix and prefix followed by the highest character
+            var before = $wnd.IDBKeyRange.upperBound(prefix, true);
+            var after = $wnd.IDBKeyRange.lowerBound(prefix + String.fromCharCode(0xffff));
+            var tx = db.transaction([store, index], 'readwrite');
+            [store, index].forEach(function (name) {
+                tx.objectStore(name)['delete'](before);
+                tx.objectStore(name)['delete'](after);
+            });
+        } catch (e) {
+            //Nothing to do here
+        }
+    }-*/;
+}